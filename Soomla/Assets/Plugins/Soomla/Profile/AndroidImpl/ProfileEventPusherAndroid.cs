@@ -29,7 +29,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventLoginStarted", provider.ToString(), autoLogin, payload);
+				ProfileJNIHandler.PushEventLogin(jniSoomlaProfile, ProfileJNIHandler.EVENT_STARTED, provider, autoLogin, "", payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -37,7 +37,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(userProfile.Provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventLoginFinished", userProfile.toJSONObject().print(), autoLogin, payload);
+				ProfileJNIHandler.PushEventLogin(jniSoomlaProfile, ProfileJNIHandler.EVENT_FINISHED, userProfile.Provider, autoLogin, userProfile.toJSONObject().print(), payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -45,7 +45,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventLoginFailed", provider.ToString(), message, autoLogin, payload);
+				ProfileJNIHandler.PushEventLogin(jniSoomlaProfile, ProfileJNIHandler.EVENT_FAILED, provider, autoLogin, message, payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -53,7 +53,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventLoginCancelled", provider.ToString(), autoLogin, payload);
+				ProfileJNIHandler.PushEventLogin(jniSoomlaProfile, ProfileJNIHandler.EVENT_CANCELLED, provider, autoLogin, "", payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -61,7 +61,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventLogoutStarted", provider.ToString());
+				ProfileJNIHandler.PushEventLogout(jniSoomlaProfile, ProfileJNIHandler.EVENT_STARTED, provider, "");
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -69,7 +69,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventLogoutFinished", provider.ToString());
+				ProfileJNIHandler.PushEventLogout(jniSoomlaProfile, ProfileJNIHandler.EVENT_FINISHED, provider, "");
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -77,8 +77,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventLogoutFailed",
-				                                 provider.ToString(), message);
+				ProfileJNIHandler.PushEventLogout(jniSoomlaProfile, ProfileJNIHandler.EVENT_FAILED, provider, message);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -86,8 +85,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventSocialActionStarted",
-				                                 provider.ToString(), actionType.ToString(), payload);
+				ProfileJNIHandler.PushEventSocialAction(jniSoomlaProfile, ProfileJNIHandler.EVENT_STARTED, provider, actionType, "", payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -95,8 +93,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventSocialActionFinished",
-				                                 provider.ToString(), actionType.ToString(), payload);
+				ProfileJNIHandler.PushEventSocialAction(jniSoomlaProfile, ProfileJNIHandler.EVENT_FINISHED, provider, actionType, "", payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -104,8 +101,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventSocialActionCancelled",
-				                                 provider.ToString(), actionType.ToString(), payload);
+				ProfileJNIHandler.PushEventSocialAction(jniSoomlaProfile, ProfileJNIHandler.EVENT_CANCELLED, provider, actionType, "", payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -113,8 +109,7 @@ namespace Soomla.Profile {
 			if (SoomlaProfile.IsProviderNativelyImplemented(provider)) return;
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.ProfileEventHandler")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "pushEventSocialActionFailed", 
-				                                 provider.ToString(), actionType.ToString(), message, payload);
+				ProfileJNIHandler.PushEventSocialAction(jniSoomlaProfile, ProfileJNIHandler.EVENT_FAILED, provider, actionType, message, payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -0,0 +1,167 @@
+/// Copyright (C) 2012-2014 Soomla Inc.
+///
+/// Licensed under the Apache License, Version 2.0 (the "License");
+/// you may not use this file except in compliance with the License.
+/// You may obtain a copy of the License at
+///
+///      http://www.apache.org/licenses/LICENSE-2.0
+///
+/// Unless required by applicable law or agreed to in writing, software
+/// distributed under the License is distributed on an "AS IS" BASIS,
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+/// See the License for the specific language governing permissions and
+/// limitations under the License.
+
+using UnityEngine;
+using System;
+using System.Text;
+using System.Threading;
+using System.Runtime.InteropServices;
+
+namespace Soomla.Profile {
+
+	/// <summary>
+	/// Reads profile events out of the direct buffer shared with
+	/// <c>com.soomla.profile.unity.ProfileEventRingBuffer</c>.
+	/// See the Java class for the buffer layout.
+	/// </summary>
+	public static class ProfileEventRingAndroid {
+
+#if UNITY_ANDROID && !UNITY_EDITOR
+
+		private const string TAG = "SOOMLA ProfileEventRingAndroid";
+
+		private const int HEADER_SIZE = 16;
+		private const int WRITE_OFFSET = 0;
+		private const int READ_OFFSET = 4;
+		private const int CAPACITY_OFFSET = 8;
+		private const int OVERFLOW_OFFSET = 12;
+
+		private static AndroidJavaObject buffer = null;
+		private static IntPtr address = IntPtr.Zero;
+		private static byte[] scratch = new byte[4096];
+
+		/// <summary>
+		/// Opens the native ring and starts reading events from it.
+		/// </summary>
+		/// <param name="capacity">Size of the ring in bytes, <c>0</c> for the native default.</param>
+		public static void Open(int capacity) {
+			if (buffer != null) {
+				return;
+			}
+
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				buffer = ProfileJNIHandler.CallStatic<AndroidJavaObject>(jniSoomlaProfile, "openEventRingBuffer", capacity);
+			}
+			address = AndroidJNI.GetDirectBufferAddress(buffer.GetRawObject());
+			if (address == IntPtr.Zero) {
+				SoomlaUtils.LogError(TAG, "Could not get the event ring buffer address");
+				Close();
+			}
+		}
+
+		/// <summary>
+		/// Delivers whatever is left in the ring and goes back to <c>UnitySendMessage</c>.
+		/// </summary>
+		public static void Close() {
+			if (buffer == null) {
+				return;
+			}
+
+			string[] overflow;
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				overflow = ProfileJNIHandler.CallStatic<string[]>(jniSoomlaProfile, "closeEventRingBuffer");
+			}
+			if (ProfileEvents.Instance != null && address != IntPtr.Zero) {
+				DrainWithOverflow(ProfileEvents.Instance, overflow);
+			}
+			address = IntPtr.Zero;
+			buffer.Dispose();
+			buffer = null;
+		}
+
+		/// <summary>
+		/// Dispatches all the events written to the ring since the last call, then the ones
+		/// the native side queued because they didn't fit.
+		/// </summary>
+		public static void Drain(ProfileEvents handler) {
+			if (address == IntPtr.Zero) {
+				return;
+			}
+
+			if (Marshal.ReadInt32(address, OVERFLOW_OFFSET) == 0) {
+				DrainRing(handler, Marshal.ReadInt32(address, WRITE_OFFSET));
+				return;
+			}
+			string[] overflow;
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				overflow = ProfileJNIHandler.CallStatic<string[]>(jniSoomlaProfile, "pollEventRingOverflow");
+			}
+			DrainWithOverflow(handler, overflow);
+		}
+
+		/// <summary>
+		/// Reads the ring up to the write offset the overflow was taken at, which comes first
+		/// in <c>overflow</c>, then dispatches the overflow's events. Anything written to the
+		/// ring after that offset is newer and waits for the next call.
+		/// </summary>
+		private static void DrainWithOverflow(ProfileEvents handler, string[] overflow) {
+			if (overflow == null || overflow.Length == 0) {
+				DrainRing(handler, Marshal.ReadInt32(address, WRITE_OFFSET));
+				return;
+			}
+			DrainRing(handler, int.Parse(overflow[0]));
+			for (int i = 1; i + 1 < overflow.Length; i += 2) {
+				handler.dispatchEvent(overflow[i], overflow[i + 1]);
+			}
+		}
+
+		private static void DrainRing(ProfileEvents handler, int write) {
+			int read = Marshal.ReadInt32(address, READ_OFFSET);
+			if (read == write) {
+				return;
+			}
+			int capacity = Marshal.ReadInt32(address, CAPACITY_OFFSET);
+
+			// pairs with the native side publishing the write offset after the record
+			Thread.MemoryBarrier();
+
+			while (read != write) {
+				if (capacity - read < 4) {
+					read = 0;
+					continue;
+				}
+
+				int recordPos = HEADER_SIZE + read;
+				int recordLength = Marshal.ReadInt32(address, recordPos);
+				if (recordLength == -1) {
+					read = 0;
+					continue;
+				}
+
+				int recipientLength = Marshal.ReadInt32(address, recordPos + 4);
+				int messageLength = recordLength - 4 - recipientLength;
+				if (scratch.Length < recipientLength || scratch.Length < messageLength) {
+					scratch = new byte[Math.Max(recipientLength, messageLength)];
+				}
+
+				Marshal.Copy(new IntPtr(address.ToInt64() + recordPos + 8), scratch, 0, recipientLength);
+				string recipient = Encoding.ASCII.GetString(scratch, 0, recipientLength);
+				Marshal.Copy(new IntPtr(address.ToInt64() + recordPos + 8 + recipientLength), scratch, 0, messageLength);
+				string message = Encoding.UTF8.GetString(scratch, 0, messageLength);
+
+				read += 4 + recordLength;
+				if (read == capacity) {
+					read = 0;
+				}
+
+				// the record must be fully read before the native side may reuse its space
+				Thread.MemoryBarrier();
+				Marshal.WriteInt32(address, READ_OFFSET, read);
+
+				handler.dispatchEvent(recipient, message);
+			}
+		}
+#endif
+	}
+}
@@ -0,0 +1,113 @@
+/// Copyright (C) 2012-2014 Soomla Inc.
+///
+/// Licensed under the Apache License, Version 2.0 (the "License");
+/// you may not use this file except in compliance with the License.
+/// You may obtain a copy of the License at
+///
+///      http://www.apache.org/licenses/LICENSE-2.0
+///
+/// Unless required by applicable law or agreed to in writing, software
+/// distributed under the License is distributed on an "AS IS" BASIS,
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+/// See the License for the specific language governing permissions and
+/// limitations under the License.
+
+using UnityEngine;
+using System;
+using System.Collections.Generic;
+using System.Threading;
+
+namespace Soomla.Profile {
+
+#if UNITY_ANDROID && !UNITY_EDITOR
+
+	/// <summary>
+	/// Implements <c>com.soomla.profile.unity.ProfileEventSink</c>, so profile events are
+	/// handed to Unity directly instead of through <c>UnitySendMessage</c>.
+	/// Events fired on Unity's main thread are dispatched right away; events fired on other
+	/// threads are dispatched by <c>ProfileEvents</c> on its next <c>Update</c>.
+	/// </summary>
+	public class ProfileEventSinkAndroid : AndroidJavaProxy {
+
+		private const string TAG = "SOOMLA ProfileEventSinkAndroid";
+
+		private static ProfileEventSinkAndroid sink = null;
+
+		private readonly int mainThreadId;
+		private readonly Queue<KeyValuePair<int, string>> pending = new Queue<KeyValuePair<int, string>>();
+
+		private ProfileEventSinkAndroid() : base("com.soomla.profile.unity.ProfileEventSink") {
+			mainThreadId = Thread.CurrentThread.ManagedThreadId;
+		}
+
+		/// <summary>
+		/// Registers the sink with the native side. Must be called from Unity's main thread.
+		/// </summary>
+		public static void Register() {
+			if (sink != null) {
+				return;
+			}
+
+			sink = new ProfileEventSinkAndroid();
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setEventSink", sink);
+			}
+		}
+
+		/// <summary>
+		/// Delivers whatever is still pending and goes back to <c>UnitySendMessage</c>.
+		/// </summary>
+		public static void Unregister() {
+			if (sink == null) {
+				return;
+			}
+
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				jniSoomlaProfile.CallStatic("setEventSink", new object[] { null });
+				ProfileJNIHandler.checkExceptions();
+			}
+			if (ProfileEvents.Instance != null) {
+				Drain(ProfileEvents.Instance);
+			}
+			sink = null;
+		}
+
+		/// <summary>
+		/// Dispatches the events that were fired off Unity's main thread since the last call.
+		/// </summary>
+		public static void Drain(ProfileEvents handler) {
+			if (sink == null) {
+				return;
+			}
+
+			while (true) {
+				KeyValuePair<int, string> evt;
+				lock (sink.pending) {
+					if (sink.pending.Count == 0) {
+						return;
+					}
+					evt = sink.pending.Dequeue();
+				}
+				handler.dispatchEvent(evt.Key, evt.Value);
+			}
+		}
+
+		/// <summary>
+		/// Called by the native side for every profile event.
+		/// </summary>
+		/// <param name="provider">Value of the event's provider, <c>-1</c> if the event has none.</param>
+		/// <param name="eventId">Index of the event's handler in <c>ProfileEvents.EVENT_NAMES</c>.</param>
+		/// <param name="payload">The event message.</param>
+		public void onEvent(int provider, int eventId, string payload) {
+			lock (pending) {
+				// events queued earlier go first, to keep the order they were fired in
+				if (Thread.CurrentThread.ManagedThreadId != mainThreadId || pending.Count > 0 || ProfileEvents.Instance == null) {
+					pending.Enqueue(new KeyValuePair<int, string>(eventId, payload));
+					return;
+				}
+			}
+			ProfileEvents.Instance.dispatchEvent(eventId, payload);
+		}
+	}
+#endif
+}
@@ -14,6 +14,7 @@
 
 using UnityEngine;
 using System;
+using System.Collections.Generic;
 
 namespace Soomla.Profile {
 
@@ -29,6 +30,7 @@ namespace Soomla.Profile {
 		/// </summary>
 		public static void CallStaticVoid(AndroidJavaClass jniObject, string method, params object[] args) {
 			if(!Application.isEditor){
+				FlushBatch();
 				jniObject.CallStatic(method, args);
 
 				checkExceptions();
@@ -44,6 +46,7 @@ namespace Soomla.Profile {
 		/// <returns>Return value of the function called.</returns>
 		public static T CallStatic<T>(AndroidJavaClass jniObject, string method, params object[] args) {
 			if (!Application.isEditor) {
+				FlushBatch();
 				T retVal = jniObject.CallStatic<T>(method, args);
 
 				checkExceptions();
@@ -54,6 +57,218 @@ namespace Soomla.Profile {
 			return default(T);
 		}
 
+		// Opcodes of UnitySoomlaProfile.dispatch, see ProfileBridgeCodes in android-profile.
+		public const int OP_LOGIN = 0;
+		public const int OP_LOGOUT = 1;
+		public const int OP_IS_LOGGED_IN = 2;
+		public const int OP_UPDATE_STATUS = 3;
+		public const int OP_GET_CONTACTS = 4;
+		public const int OP_GET_FEED = 5;
+		public const int OP_GET_LEADERBOARDS = 6;
+		public const int OP_GET_SCORES_BY_ID = 7;
+		public const int OP_SUBMIT_SCORE_BY_ID = 8;
+
+		// Opcodes only UnitySoomlaProfile.executeBatch takes.
+		public const int OP_PUSH_SOCIAL_ACTION = 9;
+		public const int OP_PUSH_LOGIN = 10;
+		public const int OP_PUSH_LOGOUT = 11;
+
+		// Event codes of ProfileEventHandler.pushEventSocialAction.
+		public const int EVENT_STARTED = 0;
+		public const int EVENT_FINISHED = 1;
+		public const int EVENT_CANCELLED = 2;
+		public const int EVENT_FAILED = 3;
+
+		/// <summary>
+		/// Calls android-profile's compact <c>dispatch</c> entry point, which takes the provider
+		/// as its int code instead of its name. While a batch is open, the operation is queued
+		/// (except for <c>OP_IS_LOGGED_IN</c>) and <c>true</c> is returned.
+		/// </summary>
+		/// <param name="jniObject">The <c>UnitySoomlaProfile</c> class.</param>
+		/// <param name="opcode">One of the <c>OP_*</c> codes.</param>
+		/// <param name="provider">The provider to perform the operation with.</param>
+		/// <param name="fromStart">Whether paged operations should start over.</param>
+		/// <param name="score">The score to submit.</param>
+		/// <param name="arg">The status, or the leaderboard's ID.</param>
+		/// <param name="payload">The payload of the operation.</param>
+		/// <param name="fallback">Called if the operation returns <c>false</c>, once the batch is
+		/// sent for queued operations.</param>
+		/// <returns>The result of operations that have one, <c>true</c> otherwise.</returns>
+		public static bool Dispatch(AndroidJavaClass jniObject, int opcode, Provider provider,
+		                            bool fromStart = false, long score = 0, string arg = "", string payload = "",
+		                            Action fallback = null) {
+			if (batch != null && opcode != OP_IS_LOGGED_IN) {
+				Enqueue(opcode, provider, fromStart ? 1 : 0, score, arg, payload, fallback);
+				return true;
+			}
+			bool result = CallStatic<int>(jniObject, "dispatch", opcode, provider.toInt(), fromStart, score, arg, payload) != 0;
+			if (!result && fallback != null) {
+				fallback();
+			}
+			return result;
+		}
+
+		/// <summary>
+		/// Pushes a social action event through android-profile's compact <c>pushEventSocialAction</c>,
+		/// or queues it while a batch is open.
+		/// </summary>
+		/// <param name="jniObject">The <c>ProfileEventHandler</c> class.</param>
+		/// <param name="eventCode">One of the <c>EVENT_*</c> codes.</param>
+		public static void PushEventSocialAction(AndroidJavaClass jniObject, int eventCode, Provider provider,
+		                                         SocialActionType actionType, string message, string payload) {
+			if (batch != null) {
+				Enqueue(OP_PUSH_SOCIAL_ACTION, provider, eventCode, actionType.toInt(), message, payload, null);
+				return;
+			}
+			CallStaticVoid(jniObject, "pushEventSocialAction", eventCode, provider.toInt(), actionType.toInt(), message, payload);
+		}
+
+		/// <summary>
+		/// Pushes a login event, or queues it while a batch is open.
+		/// </summary>
+		/// <param name="jniObject">The <c>ProfileEventHandler</c> class.</param>
+		/// <param name="eventCode">One of the <c>EVENT_*</c> codes.</param>
+		/// <param name="arg">The user profile's JSON for <c>EVENT_FINISHED</c>, the message for <c>EVENT_FAILED</c>.</param>
+		public static void PushEventLogin(AndroidJavaClass jniObject, int eventCode, Provider provider,
+		                                  bool autoLogin, string arg, string payload) {
+			if (batch != null) {
+				Enqueue(OP_PUSH_LOGIN, provider, eventCode, autoLogin ? 1 : 0, arg, payload, null);
+				return;
+			}
+			switch (eventCode) {
+			case EVENT_STARTED:
+				CallStaticVoid(jniObject, "pushEventLoginStarted", provider.ToString(), autoLogin, payload);
+				break;
+			case EVENT_FINISHED:
+				CallStaticVoid(jniObject, "pushEventLoginFinished", arg, autoLogin, payload);
+				break;
+			case EVENT_CANCELLED:
+				CallStaticVoid(jniObject, "pushEventLoginCancelled", provider.ToString(), autoLogin, payload);
+				break;
+			case EVENT_FAILED:
+				CallStaticVoid(jniObject, "pushEventLoginFailed", provider.ToString(), arg, autoLogin, payload);
+				break;
+			}
+		}
+
+		/// <summary>
+		/// Pushes a logout event, or queues it while a batch is open.
+		/// </summary>
+		/// <param name="jniObject">The <c>ProfileEventHandler</c> class.</param>
+		/// <param name="eventCode">One of <c>EVENT_STARTED</c>, <c>EVENT_FINISHED</c> or <c>EVENT_FAILED</c>.</param>
+		public static void PushEventLogout(AndroidJavaClass jniObject, int eventCode, Provider provider, string message) {
+			if (batch != null) {
+				Enqueue(OP_PUSH_LOGOUT, provider, eventCode, 0, message, "", null);
+				return;
+			}
+			switch (eventCode) {
+			case EVENT_STARTED:
+				CallStaticVoid(jniObject, "pushEventLogoutStarted", provider.ToString());
+				break;
+			case EVENT_FINISHED:
+				CallStaticVoid(jniObject, "pushEventLogoutFinished", provider.ToString());
+				break;
+			case EVENT_FAILED:
+				CallStaticVoid(jniObject, "pushEventLogoutFailed", provider.ToString(), message);
+				break;
+			}
+		}
+
+		/// <summary>
+		/// Starts queueing compact operations and pushed events, to send them to android-profile
+		/// in a single <c>executeBatch</c> call. Any other call sends what's queued first, so
+		/// operations still reach android-profile in order. Does nothing if a batch is open.
+		/// </summary>
+		public static void BeginBatch() {
+			if (batch == null) {
+				batch = new List<BatchCommand>();
+				batchResults = new List<int>();
+			}
+		}
+
+		/// <summary>
+		/// Sends what's queued and closes the batch.
+		/// </summary>
+		/// <returns>The result of every operation queued since <c>BeginBatch</c>, in order: 1 for
+		/// <c>true</c>, 0 for <c>false</c> and -1 for operations that failed.</returns>
+		public static int[] EndBatch() {
+			if (batch == null) {
+				return new int[0];
+			}
+			FlushBatch();
+			int[] results = batchResults.ToArray();
+			batch = null;
+			batchResults = null;
+			return results;
+		}
+
+		private static void Enqueue(int opcode, Provider provider, int flag, long number, string arg, string payload, Action fallback) {
+			BatchCommand command = new BatchCommand();
+			command.Opcode = opcode;
+			command.ProviderCode = provider.toInt();
+			command.Flag = flag;
+			command.Number = number;
+			// JNI string arrays can't hold nulls
+			command.Arg = arg ?? "";
+			command.Payload = payload ?? "";
+			command.Fallback = fallback;
+			batch.Add(command);
+		}
+
+		private static void FlushBatch() {
+			if (batch == null || batch.Count == 0 || Application.isEditor) {
+				return;
+			}
+			List<BatchCommand> commands = batch;
+			batch = new List<BatchCommand>();
+
+			int count = commands.Count;
+			int[] opcodes = new int[count];
+			int[] providerCodes = new int[count];
+			int[] flags = new int[count];
+			long[] numbers = new long[count];
+			string[] args = new string[count];
+			string[] payloads = new string[count];
+			for (int i = 0; i < count; i++) {
+				opcodes[i] = commands[i].Opcode;
+				providerCodes[i] = commands[i].ProviderCode;
+				flags[i] = commands[i].Flag;
+				numbers[i] = commands[i].Number;
+				args[i] = commands[i].Arg;
+				payloads[i] = commands[i].Payload;
+			}
+
+			int[] results;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				results = jniSoomlaProfile.CallStatic<int[]>("executeBatch", opcodes, providerCodes, flags, numbers, args, payloads);
+				checkExceptions();
+
+				for (int i = 0; i < count; i++) {
+					int result = results != null && i < results.Length ? results[i] : -1;
+					batchResults.Add(result);
+					if (result == 0 && commands[i].Fallback != null) {
+						commands[i].Fallback();
+					}
+				}
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		private class BatchCommand {
+			public int Opcode;
+			public int ProviderCode;
+			public int Flag;
+			public long Number;
+			public string Arg;
+			public string Payload;
+			public Action Fallback;
+		}
+
+		// null while no batch is open
+		private static List<BatchCommand> batch;
+		private static List<int> batchResults;
+
 		/// <summary>
 		/// Throws one of the exceptions (<c>UserProfileNotFoundException</c> or <c>ProviderNotFoundException</c> if needed. 
 		/// </summary>
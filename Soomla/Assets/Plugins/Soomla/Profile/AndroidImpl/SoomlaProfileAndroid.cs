@@ -14,6 +14,7 @@
 
 using UnityEngine;
 using System;
+using System.Collections.Generic;
 using System.Runtime.InteropServices;
 using Soomla;
 
@@ -41,22 +42,30 @@ namespace Soomla.Profile {
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
 
-		protected override void _login(Provider provider, string payload){
+		protected override void _initializeParallel(string customParamsJson, string lazyProvidersJson) {
 			AndroidJNI.PushLocalFrame(100);
 			using (AndroidJavaClass unityActivityClass = new AndroidJavaClass("com.unity3d.player.UnityPlayer")) {
 				using(AndroidJavaObject unityActivity = unityActivityClass.GetStatic<AndroidJavaObject>("currentActivity")) {
 					using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-						ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "login", unityActivity, provider.ToString(), payload);
+						ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "initializeParallel", unityActivity, customParamsJson, lazyProvidersJson);
 					}
 				}
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
 
+		protected override void _login(Provider provider, string payload){
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.Dispatch(jniSoomlaProfile, ProfileJNIHandler.OP_LOGIN, provider, payload: payload);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
 		protected override void _logout (Provider provider){
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "logout", provider.ToString());
+				ProfileJNIHandler.Dispatch(jniSoomlaProfile, ProfileJNIHandler.OP_LOGOUT, provider);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -64,12 +73,8 @@ namespace Soomla.Profile {
 		protected override bool _isLoggedIn(Provider provider) {
 			bool loggedIn;
 			AndroidJNI.PushLocalFrame(100);
-			using (AndroidJavaClass unityActivityClass = new AndroidJavaClass("com.unity3d.player.UnityPlayer")) {
-				using(AndroidJavaObject unityActivity = unityActivityClass.GetStatic<AndroidJavaObject>("currentActivity")) {
-					using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-						loggedIn = ProfileJNIHandler.CallStatic<bool>(jniSoomlaProfile, "isLoggedIn", unityActivity, provider.ToString());
-					}
-				}
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				loggedIn = ProfileJNIHandler.Dispatch(jniSoomlaProfile, ProfileJNIHandler.OP_IS_LOGGED_IN, provider);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 			return loggedIn;
@@ -79,7 +84,11 @@ namespace Soomla.Profile {
 		                                      bool showConfirmation, string customMessage) {
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "updateStatus", provider.ToString(), status, payload, showConfirmation, customMessage);
+				if (!showConfirmation) {
+					ProfileJNIHandler.Dispatch(jniSoomlaProfile, ProfileJNIHandler.OP_UPDATE_STATUS, provider, arg: status, payload: payload);
+				} else {
+					ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "updateStatus", provider.ToString(), status, payload, showConfirmation, customMessage);
+				}
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -118,8 +127,20 @@ namespace Soomla.Profile {
 		                                     bool showConfirmation, string customMessage) {
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-				string base64Str = Convert.ToBase64String(imageBytes);
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "uploadImage", provider.ToString(), message, fileName, base64Str, jpegQuality, payload, showConfirmation, customMessage);
+				using(AndroidJavaObject imageBuffer = ProfileJNIHandler.CallStatic<AndroidJavaObject>(jniSoomlaProfile, "allocateImageBuffer", imageBytes.Length)) {
+					IntPtr address = AndroidJNI.GetDirectBufferAddress(imageBuffer.GetRawObject());
+					Marshal.Copy(imageBytes, 0, address, imageBytes.Length);
+					ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "uploadImageFromBuffer", provider.ToString(), message, fileName, imageBuffer, jpegQuality, payload, showConfirmation, customMessage);
+				}
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _uploadImageFromFile(Provider provider, string message, string filePath, long offset, long length,
+		                                             int jpegQuality, string payload) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "uploadImageFromFile", provider.ToString(), message, filePath, offset, length, jpegQuality, payload, false, "");
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -127,7 +148,7 @@ namespace Soomla.Profile {
 		protected override void _getContacts(Provider provider, bool fromStart, string payload) {
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "getContacts", provider.ToString(), fromStart, payload);
+				ProfileJNIHandler.Dispatch(jniSoomlaProfile, ProfileJNIHandler.OP_GET_CONTACTS, provider, fromStart, payload: payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -135,7 +156,7 @@ namespace Soomla.Profile {
 		protected override void _getFeed(Provider provider, bool fromStart, string payload) {
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "getFeed", provider.ToString(), fromStart, payload);
+				ProfileJNIHandler.Dispatch(jniSoomlaProfile, ProfileJNIHandler.OP_GET_FEED, provider, fromStart, payload: payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -166,6 +187,32 @@ namespace Soomla.Profile {
 			}
 		}
 
+		protected override void _beginBatch() {
+			ProfileJNIHandler.BeginBatch();
+		}
+
+		protected override int[] _endBatch() {
+			return ProfileJNIHandler.EndBatch();
+		}
+
+		protected override ProfileSnapshot _getProfileSnapshot(int sinceVersion) {
+			JSONObject snapshotObj = null;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				string snapshotJSON = ProfileJNIHandler.CallStatic<string>(jniSoomlaProfile, "getProfileSnapshot", sinceVersion);
+				if (snapshotJSON != null) {
+					snapshotObj = new JSONObject(snapshotJSON);
+				}
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+
+			if (snapshotObj) {
+				return new ProfileSnapshot(snapshotObj);
+			} else {
+				return null;
+			}
+		}
+
 		protected override void _storeUserProfile(UserProfile userProfile, bool notify) {
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
@@ -209,7 +256,7 @@ namespace Soomla.Profile {
 		protected override void _getLeaderboards(Soomla.Profile.Provider provider, string payload) {
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "getLeaderboards", provider.ToString(), payload);
+				ProfileJNIHandler.Dispatch(jniSoomlaProfile, ProfileJNIHandler.OP_GET_LEADERBOARDS, provider, payload: payload);
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -217,7 +264,14 @@ namespace Soomla.Profile {
 		protected override void _getScores(Soomla.Profile.Provider provider, Soomla.Profile.Leaderboard from, bool fromStart, string payload) {
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "getScores", provider.ToString(), from.toJSONObject().ToString(), fromStart, payload);
+				// leaderboards returned by GetLeaderboards are known natively by their ID
+				ProfileJNIHandler.Dispatch(jniSoomlaProfile, ProfileJNIHandler.OP_GET_SCORES_BY_ID, provider, fromStart, arg: from.ID, payload: payload,
+				                           fallback: () => {
+					// the dispatch may have been batched, so this can run after jniSoomlaProfile is disposed
+					using(AndroidJavaClass jniFallback = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+						ProfileJNIHandler.CallStaticVoid(jniFallback, "getScores", provider.ToString(), from.toJSONObject().ToString(), fromStart, payload);
+					}
+				});
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -225,7 +279,12 @@ namespace Soomla.Profile {
 		protected override void _submitScore(Soomla.Profile.Provider provider, Soomla.Profile.Leaderboard to, int score, string payload) {
 			AndroidJNI.PushLocalFrame(100);
 			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
-				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "submitScore", provider.ToString(), to.toJSONObject().ToString(), score, payload);
+				ProfileJNIHandler.Dispatch(jniSoomlaProfile, ProfileJNIHandler.OP_SUBMIT_SCORE_BY_ID, provider, score: score, arg: to.ID, payload: payload,
+				                           fallback: () => {
+					using(AndroidJavaClass jniFallback = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+						ProfileJNIHandler.CallStaticVoid(jniFallback, "submitScore", provider.ToString(), to.toJSONObject().ToString(), score, payload);
+					}
+				});
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
@@ -241,6 +300,318 @@ namespace Soomla.Profile {
 			}
 			AndroidJNI.PopLocalFrame(IntPtr.Zero);
 		}
+
+		protected override void _setEventBatching(bool enabled, int flushIntervalMs) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setEventBatching", enabled, flushIntervalMs);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setStreamingSerialization(bool enabled) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setStreamingSerialization", enabled);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setBackgroundSerialization(bool enabled) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setBackgroundSerialization", enabled);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _flushBackgroundSerialization() {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "flushBackgroundSerialization");
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override int _getSerializationQueueDepth() {
+			int depth = 0;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				depth = ProfileJNIHandler.CallStatic<int>(jniSoomlaProfile, "getSerializationQueueDepth");
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+			return depth;
+		}
+
+		protected override void _setImageMaxDimension(int maxDimension) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setImageMaxDimension", maxDimension);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setImageMemoryBudget(int memoryBudget) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setImageMemoryBudget", memoryBudget);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setChunkedResults(int chunkSize) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setChunkedResults", chunkSize);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setLoginStateCache(bool enabled, long ttlMs) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setLoginStateCache", enabled, ttlMs);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setContactsCacheEnabled(bool enabled) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setContactsCacheEnabled", enabled);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _configureContactsCache(int maxContacts, long ttlMs) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "configureContactsCache", maxContacts, ttlMs);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _invalidateContactsCache(Provider provider) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "invalidateContactsCache", provider != null ? provider.ToString() : "");
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override JSONObject _getContactsCacheStats() {
+			JSONObject statsObj = null;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				string statsJSON = ProfileJNIHandler.CallStatic<string>(jniSoomlaProfile, "getContactsCacheStats");
+				if (statsJSON != null) {
+					statsObj = new JSONObject(statsJSON);
+				}
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+			return statsObj;
+		}
+
+		protected override void _setContactsStore(bool enabled) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setContactsStore", enabled);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override SocialPageData<UserProfile> _searchStoredContacts(Provider provider, string prefix, int offset, int limit) {
+			JSONObject resultObj = null;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				string resultJSON = ProfileJNIHandler.CallStatic<string>(jniSoomlaProfile, "searchContacts",
+				                                                          provider.ToString(), prefix, offset, limit);
+				if (resultJSON != null) {
+					resultObj = new JSONObject(resultJSON);
+				}
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+
+			if (!resultObj) {
+				return null;
+			}
+			List<UserProfile> contacts = new List<UserProfile>();
+			foreach (JSONObject contactJson in resultObj["contacts"].list) {
+				contacts.Add(new UserProfile(contactJson));
+			}
+			SocialPageData<UserProfile> data = new SocialPageData<UserProfile>();
+			data.PageData = contacts;
+			data.PageNumber = limit > 0 ? offset / limit : 0;
+			data.HasMore = offset + contacts.Count < (int)resultObj["total"].n;
+			return data;
+		}
+
+		protected override UserProfile _getStoredContact(Provider provider, string profileId) {
+			JSONObject contactObj = null;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				string contactJSON = ProfileJNIHandler.CallStatic<string>(jniSoomlaProfile, "getContact", provider.ToString(), profileId);
+				if (contactJSON != null) {
+					contactObj = new JSONObject(contactJSON);
+				}
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+
+			if (contactObj) {
+				return new UserProfile(contactObj);
+			} else {
+				return null;
+			}
+		}
+
+		protected override int _getStoredContactsCount(Provider provider) {
+			int count = 0;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				count = ProfileJNIHandler.CallStatic<int>(jniSoomlaProfile, "getStoredContactsCount", provider.ToString());
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+			return count;
+		}
+
+		protected override void _setScoreSubmissionQueue(bool enabled, int flushIntervalMs, bool lowerIsBetter) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setScoreQueue", enabled, flushIntervalMs, lowerIsBetter);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _flushScoreSubmissions() {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "flushScoreQueue");
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setScoreDeltas(bool enabled) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setScoreDeltas", enabled);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override JSONObject _resyncScores(Provider provider, Leaderboard leaderboard, int page) {
+			JSONObject pageObj = null;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				string pageJSON = ProfileJNIHandler.CallStatic<string>(jniSoomlaProfile, "resyncScores",
+				                                                        provider.ToString(), leaderboard.ID, page);
+				if (pageJSON != null) {
+					pageObj = new JSONObject(pageJSON);
+				}
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+			return pageObj;
+		}
+
+		protected override void _setActionJournal(bool enabled, int commitIntervalMs, int maxAttempts, long baseBackoffMs) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setActionJournalRetryPolicy", maxAttempts, baseBackoffMs);
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setActionJournal", enabled, commitIntervalMs);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setEventRingBuffer(bool enabled, int capacity) {
+			if (enabled) {
+				ProfileEventRingAndroid.Open(capacity);
+			} else {
+				ProfileEventRingAndroid.Close();
+			}
+		}
+
+		protected override void _setEventSink(bool enabled) {
+			if (enabled) {
+				ProfileEventSinkAndroid.Register();
+			} else {
+				ProfileEventSinkAndroid.Unregister();
+			}
+		}
+
+		protected override void _setEventDispatchMode(int mode) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setEventDispatchMode", mode);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setEventSubscriptions(long eventMask, int providerMask) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setEventSubscriptions", eventMask, providerMask);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override void _setMetricsEnabled(bool enabled, int dumpIntervalMs) {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "setMetricsEnabled", enabled, dumpIntervalMs);
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override JSONObject _getMetricsSnapshot() {
+			JSONObject snapshotObj = null;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				string snapshotJSON = ProfileJNIHandler.CallStatic<string>(jniSoomlaProfile, "getMetricsSnapshot");
+				if (snapshotJSON != null) {
+					snapshotObj = new JSONObject(snapshotJSON);
+				}
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+			return snapshotObj;
+		}
+
+		protected override void _resetMetrics() {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "resetMetrics");
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override string _startTraceRecording(string fileName) {
+			string path = null;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				path = ProfileJNIHandler.CallStatic<string>(jniSoomlaProfile, "startTraceRecording", fileName != null ? fileName : "");
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+			return path;
+		}
+
+		protected override void _stopTraceRecording() {
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				ProfileJNIHandler.CallStaticVoid(jniSoomlaProfile, "stopTraceRecording");
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+		}
+
+		protected override JSONObject _getInitializationTimings() {
+			JSONObject timingsObj = null;
+			AndroidJNI.PushLocalFrame(100);
+			using(AndroidJavaClass jniSoomlaProfile = new AndroidJavaClass("com.soomla.profile.unity.UnitySoomlaProfile")) {
+				string timingsJSON = ProfileJNIHandler.CallStatic<string>(jniSoomlaProfile, "getInitializationTimings");
+				if (timingsJSON != null) {
+					timingsObj = new JSONObject(timingsJSON);
+				}
+			}
+			AndroidJNI.PopLocalFrame(IntPtr.Zero);
+			return timingsObj;
+		}
 #endif
 	}
 }
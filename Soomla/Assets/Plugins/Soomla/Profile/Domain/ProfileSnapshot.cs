@@ -0,0 +1,75 @@
+/// Copyright (C) 2012-2014 Soomla Inc.
+///
+/// Licensed under the Apache License, Version 2.0 (the "License");
+/// you may not use this file except in compliance with the License.
+/// You may obtain a copy of the License at
+///
+///      http://www.apache.org/licenses/LICENSE-2.0
+///
+/// Unless required by applicable law or agreed to in writing, software
+/// distributed under the License is distributed on an "AS IS" BASIS,
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+/// See the License for the specific language governing permissions and
+/// limitations under the License.
+
+using System;
+using System.Collections.Generic;
+
+namespace Soomla.Profile {
+
+	/// <summary>
+	/// The stored profiles and login states of the natively implemented providers,
+	/// as returned by <c>SoomlaProfile.GetProfileSnapshot</c>.
+	/// </summary>
+	public class ProfileSnapshot {
+
+		/// <summary>
+		/// Pass this to <c>SoomlaProfile.GetProfileSnapshot</c> to only get the providers that changed since.
+		/// </summary>
+		public readonly int Version;
+
+		/// <summary>
+		/// <c>true</c> if every initialized provider is listed, <c>false</c> if only the ones that changed are.
+		/// </summary>
+		public readonly bool Full;
+
+		/// <summary>
+		/// Whether the user is logged into each listed provider.
+		/// </summary>
+		public readonly Dictionary<Provider, bool> LoggedIn = new Dictionary<Provider, bool>();
+
+		/// <summary>
+		/// The stored profile of each listed provider, <c>null</c> for providers without one.
+		/// </summary>
+		public readonly Dictionary<Provider, UserProfile> StoredProfiles = new Dictionary<Provider, UserProfile>();
+
+		/// <summary>
+		/// Generates an instance of <c>ProfileSnapshot</c> from the given <c>JSONObject</c>.
+		/// </summary>
+		/// <param name="jsonSnapshot">A JSONObject representation of the wanted <c>ProfileSnapshot</c>.</param>
+		public ProfileSnapshot(JSONObject jsonSnapshot) {
+			this.Version = (int)jsonSnapshot["version"].n;
+			this.Full = jsonSnapshot["full"].b;
+
+			JSONObject providersJSON = jsonSnapshot["providers"];
+			if (providersJSON == null || providersJSON.type != JSONObject.Type.OBJECT) {
+				return;
+			}
+			foreach (String providerStr in providersJSON.keys) {
+				Provider provider = Provider.fromString(providerStr);
+				if (provider == null) {
+					continue;
+				}
+				JSONObject entryJSON = providersJSON[providerStr];
+				this.LoggedIn[provider] = entryJSON["loggedIn"].b;
+
+				JSONObject upJSON = entryJSON["userProfile"];
+				if (upJSON != null && upJSON.type == JSONObject.Type.OBJECT) {
+					this.StoredProfiles[provider] = new UserProfile(upJSON);
+				} else {
+					this.StoredProfiles[provider] = null;
+				}
+			}
+		}
+	}
+}
@@ -22,11 +22,12 @@ namespace Soomla.Profile
 	public sealed class Provider
 	{
 		private readonly string name;
+		private readonly int code;
 
-		public static readonly Provider FACEBOOK = new Provider ("facebook");
-		public static readonly Provider GOOGLE = new Provider ("google");
-		public static readonly Provider TWITTER = new Provider ("twitter");
-		public static readonly Provider GAME_CENTER = new Provider ("gameCenter");
+		public static readonly Provider FACEBOOK = new Provider ("facebook", 0);
+		public static readonly Provider GOOGLE = new Provider ("google", 2);
+		public static readonly Provider TWITTER = new Provider ("twitter", 5);
+		public static readonly Provider GAME_CENTER = new Provider ("gameCenter", 13);
 
 		public static readonly int NUM_OF_PROVIDERS = 14; // Must be last provider (currently twitter) + 1
 
@@ -34,8 +35,10 @@ namespace Soomla.Profile
 		/// Constructor.
 		/// </summary>
 		/// <param name="name">Name of the social provider.</param>
-		private Provider(string name){
+		/// <param name="code">Code of the social provider, matching the native provider's value.</param>
+		private Provider(string name, int code){
 			this.name = name;
+			this.code = code;
 		}
 
 		//// <summary>
@@ -51,18 +54,7 @@ namespace Soomla.Profile
 		/// </summary>
 		/// <returns>A int representation of the current <c>Provider</c>.</returns>
 		public int toInt(){
-			switch(name) {
-			case("facebook"):
-				return 0;
-			case("google"):
-				return 2;
-			case("twitter"):
-				return 5;
-			case("gameCenter"):
-				return 13;
-			default:
-				return -1;
-			}
+			return code;
 		}
 
 		/// <summary>
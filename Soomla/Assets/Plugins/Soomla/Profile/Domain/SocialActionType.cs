@@ -21,20 +21,23 @@ namespace Soomla.Profile
 	public sealed class SocialActionType
 	{
 		private readonly string name;
+		private readonly int code;
 		
-		public static readonly SocialActionType UPDATE_STATUS = new SocialActionType ("UPDATE_STATUS");
-		public static readonly SocialActionType UPDATE_STORY = new SocialActionType ("UPDATE_STORY");
-		public static readonly SocialActionType UPLOAD_IMAGE = new SocialActionType ("UPLOAD_IMAGE");
-		public static readonly SocialActionType GET_CONTACTS = new SocialActionType ("GET_CONTACTS");
-		public static readonly SocialActionType GET_FEED = new SocialActionType ("GET_FEED");
-		public static readonly SocialActionType INVITE = new SocialActionType ("INVITE");
+		public static readonly SocialActionType UPDATE_STATUS = new SocialActionType ("UPDATE_STATUS", 0);
+		public static readonly SocialActionType UPDATE_STORY = new SocialActionType ("UPDATE_STORY", 1);
+		public static readonly SocialActionType UPLOAD_IMAGE = new SocialActionType ("UPLOAD_IMAGE", 2);
+		public static readonly SocialActionType GET_CONTACTS = new SocialActionType ("GET_CONTACTS", 3);
+		public static readonly SocialActionType GET_FEED = new SocialActionType ("GET_FEED", 4);
+		public static readonly SocialActionType INVITE = new SocialActionType ("INVITE", 5);
 
 		/// <summary>
 		/// Constructor.
 		/// </summary>
 		/// <param name="name">Name of the social action.</param>
-		private SocialActionType(string name){
+		/// <param name="code">Code of the social action, matching the native action type's value.</param>
+		private SocialActionType(string name, int code){
 			this.name = name;
+			this.code = code;
 		}
 
 		/// <summary>
@@ -45,6 +48,14 @@ namespace Soomla.Profile
 			return name;
 		}
 
+		//// <summary>
+		/// Converts this social action into an int.
+		/// </summary>
+		/// <returns>A int representation of the current <c>SocialActionType</c>.</returns>
+		public int toInt(){
+			return code;
+		}
+
 		/// <summary>
 		/// Converts the given string into a <c>SocialActionType</c>
 		/// </summary>
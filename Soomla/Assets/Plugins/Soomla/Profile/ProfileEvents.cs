@@ -50,11 +50,33 @@ namespace Soomla.Profile {
 #endif
         }
 
+#if UNITY_ANDROID && !UNITY_EDITOR
+		void Update() {
+			ProfileEventRingAndroid.Drain(this);
+			ProfileEventSinkAndroid.Drain(this);
+		}
+
+		void OnApplicationPause(bool paused) {
+			if (paused) {
+				SoomlaProfile.FlushScoreSubmissions();
+				SoomlaProfile.FlushBackgroundSerialization();
+			}
+		}
+#endif
+
         //		private static ProfileEvents instance = null;
 #pragma warning disable 414
         private static ProfileEventPusher pep = null;
 		#pragma warning restore 414
 
+		// whether chunked results are also put together into OnGetContactsFinished and OnGetFeedFinished
+		internal static bool AssembleChunks = false;
+		private Dictionary<Provider, List<UserProfile>> assembledContacts = new Dictionary<Provider, List<UserProfile>>();
+		private Dictionary<Provider, List<String>> assembledFeeds = new Dictionary<Provider, List<String>>();
+
+		// the last scores page of every provider, leaderboard and page, that deltas apply to
+		private Dictionary<string, ScoresPage> scoresPages = new Dictionary<string, ScoresPage>();
+
 
 		public static void Initialize() {
 			if (Instance == null) {
@@ -144,6 +166,7 @@ namespace Soomla.Profile {
 			JSONObject eventJson = new JSONObject(message);
 
 			UserProfile userProfile = new UserProfile (eventJson ["userProfile"]);
+			SoomlaProfile.MirrorLoginState(userProfile.Provider, true);
 
 			bool autoLogin = eventJson["autoLogin"].b;
 
@@ -171,6 +194,7 @@ namespace Soomla.Profile {
 			JSONObject eventJson = new JSONObject(message);
 
 			Provider provider = Provider.fromInt((int)(eventJson["provider"].n));
+			SoomlaProfile.ForgetLoginState(provider);
 
 			bool autoLogin = eventJson["autoLogin"].b;
 
@@ -193,6 +217,7 @@ namespace Soomla.Profile {
 			JSONObject eventJson = new JSONObject(message);
 
 			Provider provider = Provider.fromInt((int)(eventJson["provider"].n));
+			SoomlaProfile.ForgetLoginState(provider);
 			String errorMessage = eventJson["message"].str;
 
 			bool autoLogin = eventJson["autoLogin"].b;
@@ -232,6 +257,7 @@ namespace Soomla.Profile {
 			JSONObject eventJson = new JSONObject(message);
 			
 			Provider provider = Provider.fromInt ((int)(eventJson["provider"].n));
+			SoomlaProfile.MirrorLoginState(provider, false);
 
 			ProfileEvents.OnLogoutFinished(provider);
 			//ProfileEvents.OnLogoutFinished(new LogoutFinishedEvent(provider));
@@ -250,6 +276,7 @@ namespace Soomla.Profile {
 			JSONObject eventJson = new JSONObject(message);
 
 			Provider provider = Provider.fromInt ((int)(eventJson["provider"].n));
+			SoomlaProfile.ForgetLoginState(provider);
 			String errorMessage = eventJson["message"].str;
 
 			ProfileEvents.OnLogoutFailed (provider, errorMessage);
@@ -374,7 +401,8 @@ namespace Soomla.Profile {
 		/// </summary>
 		/// <param name="message">
 		/// Will contain a numeric representation of <c>Provider</c>, 
-		/// JSON array of <c>UserProfile</c>s and payload</param>
+		/// JSON array of <c>UserProfile</c>s and payload. The array is empty while the native contacts
+		/// store is on (see <c>SoomlaProfile.SetContactsStore</c>)</param>
 		public void onGetContactsFinished(String message)
 		{
 			SoomlaUtils.LogDebug(TAG, "SOOMLA/UNITY onGetContactsFinished");
@@ -402,6 +430,52 @@ namespace Soomla.Profile {
 			//ProfileEvents.OnGetContactsFinished(new GetContactsFinishedEvent(provider, data, ProfilePayload.GetUserPayload(payloadJSON)) );
 		}
 
+		/// <summary>
+		/// Handles an <c>onGetContactsChunk</c> event, one part of a contacts result sent in chunks
+		/// (see <c>SoomlaProfile.SetChunkedResults</c>)
+		/// </summary>
+		/// <param name="message">
+		/// Will contain a numeric representation of <c>Provider</c>, the chunk's sequence number,
+		/// whether it's the last one, JSON array of <c>UserProfile</c>s and payload</param>
+		public void onGetContactsChunk(String message)
+		{
+			SoomlaUtils.LogDebug(TAG, "SOOMLA/UNITY onGetContactsChunk");
+
+			JSONObject eventJson = new JSONObject(message);
+
+			Provider provider = Provider.fromInt ((int)eventJson["provider"].n);
+			int sequence = (int)eventJson["sequence"].n;
+			bool last = eventJson["last"].b;
+			bool hasMore = eventJson["hasMore"].b;
+
+			JSONObject payloadJSON = new JSONObject(eventJson ["payload"].str);
+			string userPayload = ProfilePayload.GetUserPayload(payloadJSON);
+
+			JSONObject userProfilesArray = eventJson ["contacts"];
+			List<UserProfile> userProfiles = new List<UserProfile>();
+			foreach (JSONObject userProfileJson in userProfilesArray.list) {
+				userProfiles.Add(new UserProfile(userProfileJson));
+			}
+
+			SocialPageData<UserProfile> data = new SocialPageData<UserProfile>();
+			data.PageData = userProfiles;
+			data.PageNumber = sequence;
+			data.HasMore = hasMore;
+			ProfileEvents.OnGetContactsChunk(provider, data, last, userPayload);
+
+			if (AssembleChunks) {
+				List<UserProfile> assembled = appendChunk(assembledContacts, provider, sequence, userProfiles);
+				if (last) {
+					assembledContacts.Remove(provider);
+					SocialPageData<UserProfile> result = new SocialPageData<UserProfile>();
+					result.PageData = assembled;
+					result.PageNumber = 0;
+					result.HasMore = hasMore;
+					ProfileEvents.OnGetContactsFinished(provider, result, userPayload);
+				}
+			}
+		}
+
 		/// <summary>
 		/// Handles an <c>onGetContactsFailed</c> event
 		/// </summary>
@@ -473,6 +547,58 @@ namespace Soomla.Profile {
 			//ProfileEvents.OnGetFeedFinished (new GetFeedFinishedEvent(provider, result));
 		}
 
+		/// <summary>
+		/// Handles an <c>onGetFeedChunk</c> event, one part of a feed result sent in chunks
+		/// (see <c>SoomlaProfile.SetChunkedResults</c>)
+		/// </summary>
+		/// <param name="message">
+		/// Will contain a numeric representation of <c>Provider</c>, the chunk's sequence number,
+		/// whether it's the last one and json array of feeds</param>
+		public void onGetFeedChunk(String message)
+		{
+			SoomlaUtils.LogDebug(TAG, "SOOMLA/UNITY onGetFeedChunk");
+
+			JSONObject eventJson = new JSONObject(message);
+			Provider provider = Provider.fromInt ((int)eventJson["provider"].n);
+			int sequence = (int)eventJson["sequence"].n;
+			bool last = eventJson["last"].b;
+			bool hasMore = eventJson["hasMore"].b;
+
+			JSONObject feedsJson = eventJson ["feeds"];
+			List<String> feeds = new List<String>();
+			foreach (JSONObject feedVal in feedsJson.list) {
+				feeds.Add(feedVal.str);
+			}
+
+			SocialPageData<String> data = new SocialPageData<String>();
+			data.PageData = feeds;
+			data.PageNumber = sequence;
+			data.HasMore = hasMore;
+			ProfileEvents.OnGetFeedChunk(provider, data, last);
+
+			if (AssembleChunks) {
+				List<String> assembled = appendChunk(assembledFeeds, provider, sequence, feeds);
+				if (last) {
+					assembledFeeds.Remove(provider);
+					SocialPageData<String> result = new SocialPageData<String>();
+					result.PageData = assembled;
+					result.PageNumber = 0;
+					result.HasMore = hasMore;
+					ProfileEvents.OnGetFeedFinished(provider, result);
+				}
+			}
+		}
+
+		private static List<T> appendChunk<T>(Dictionary<Provider, List<T>> assembling, Provider provider, int sequence, List<T> items) {
+			List<T> assembled;
+			if (sequence == 0 || !assembling.TryGetValue(provider, out assembled)) {
+				assembled = new List<T>();
+				assembling[provider] = assembled;
+			}
+			assembled.AddRange(items);
+			return assembled;
+		}
+
 		/// <summary>
 		/// Handles an <c>onGetFeedFailed</c> event
 		/// </summary>
@@ -679,7 +805,8 @@ namespace Soomla.Profile {
 		/// </summary>
 		/// <param name="message">
 		/// Will contain a numeric representation of <c>Provider</c>,
-		/// and payload</param>
+		/// and payload. With score deltas on (see <c>SoomlaProfile.SetScoreDeltas</c>), it also
+		/// holds the page's version and may hold only the scores that changed since an earlier one</param>
 		public void onGetScoresFinished(String message) {
 			SoomlaUtils.LogDebug(TAG, "SOOMLA/UNITY onGetScoresFinished");
 
@@ -692,10 +819,16 @@ namespace Soomla.Profile {
 
 			JSONObject payloadJSON = new JSONObject(eventJson ["payload"].str);
 
-			JSONObject scoresArray = eventJson ["scores"];
-			List<Score> scores = new List<Score>();
-			foreach (JSONObject scoreJson in scoresArray.list) {
-				scores.Add(new Score(scoreJson));
+			List<Score> scores;
+			if (eventJson["version"] != null) {
+				scores = applyScoresPage(provider, owner, eventJson);
+				if (scores == null) {
+					ProfileEvents.OnGetScoresFailed(new GetScoresFailedEvent(provider, owner, false,
+						"Scores page is out of sync", ProfilePayload.GetUserPayload(payloadJSON)));
+					return;
+				}
+			} else {
+				scores = parseScores(eventJson["scores"]);
 			}
 
 			SocialPageData<Score> data = new SocialPageData<Score>();
@@ -706,6 +839,69 @@ namespace Soomla.Profile {
 			ProfileEvents.OnGetScoresFinished(new GetScoresFinishedEvent(provider, owner, data, ProfilePayload.GetUserPayload(payloadJSON)));
 		}
 
+		/// <summary>
+		/// Keeps a versioned scores page, applying it to the kept one when it's a delta and fetching
+		/// it whole from the native side when the delta was made for another version.
+		/// </summary>
+		/// <returns>The whole page, or <c>null</c> if the native side doesn't have it anymore.</returns>
+		private List<Score> applyScoresPage(Provider provider, Leaderboard owner, JSONObject eventJson) {
+			int page = (int)eventJson["page"].n;
+			string key = provider.toInt() + ":" + owner.ID + ":" + page;
+			if (!eventJson["delta"].b) {
+				return keepScoresPage(key, (int)eventJson["version"].n, parseScores(eventJson["scores"]));
+			}
+
+			ScoresPage kept;
+			if (!scoresPages.TryGetValue(key, out kept) || kept.Version != (int)eventJson["baseVersion"].n) {
+				SoomlaUtils.LogDebug(TAG, "Scores page " + key + " is out of sync, fetching it whole");
+				JSONObject pageJson = SoomlaProfile.ResyncScores(provider, owner, page);
+				if (pageJson == null) {
+					scoresPages.Remove(key);
+					return null;
+				}
+				return keepScoresPage(key, (int)pageJson["version"].n, parseScores(pageJson["scores"]));
+			}
+
+			Dictionary<string, Score> byPlayer = new Dictionary<string, Score>();
+			foreach (Score score in kept.Scores) {
+				byPlayer[score.Player.ProfileId] = score;
+			}
+			foreach (JSONObject playerId in eventJson["removed"].list) {
+				byPlayer.Remove(JSONObject.DecodeJsString(playerId.str));
+			}
+			foreach (Score score in parseScores(eventJson["changed"])) {
+				byPlayer[score.Player.ProfileId] = score;
+			}
+			foreach (Score score in parseScores(eventJson["inserted"])) {
+				byPlayer[score.Player.ProfileId] = score;
+			}
+			List<Score> scores = new List<Score>(byPlayer.Values);
+			scores.Sort((a, b) => a.Rank.CompareTo(b.Rank));
+			return keepScoresPage(key, (int)eventJson["version"].n, scores);
+		}
+
+		private List<Score> keepScoresPage(string key, int version, List<Score> scores) {
+			ScoresPage page = new ScoresPage();
+			page.Version = version;
+			page.Scores = scores;
+			scoresPages[key] = page;
+			// the kept list is never handed out, so handlers may change theirs
+			return new List<Score>(scores);
+		}
+
+		private static List<Score> parseScores(JSONObject scoresArray) {
+			List<Score> scores = new List<Score>();
+			foreach (JSONObject scoreJson in scoresArray.list) {
+				scores.Add(new Score(scoreJson));
+			}
+			return scores;
+		}
+
+		private class ScoresPage {
+			public int Version;
+			public List<Score> Scores;
+		}
+
 		/// <summary>
 		/// Handles an <c>onGetScoresFailed</c> event
 		/// </summary>
@@ -803,6 +999,145 @@ namespace Soomla.Profile {
 			ProfileEvents.OnShowLeaderboards(new ShowLeaderboardsEvent(provider, ProfilePayload.GetUserPayload(payloadJSON)));
 		}
 
+		/// <summary>
+		/// Handles an <c>onEventBatch</c> event, which carries all the events
+		/// the native side collected during one flush interval
+		/// </summary>
+		/// <param name="message">
+		/// Will contain frames of the form <c>recipient:length:message</c>,
+		/// one per event, in the order they were fired</param>
+		public void onEventBatch(String message)
+		{
+			int pos = 0;
+			while (pos < message.Length) {
+				int recipientEnd = message.IndexOf(':', pos);
+				if (recipientEnd < 0) {
+					SoomlaUtils.LogError(TAG, "Malformed event batch, dropping the rest of it");
+					return;
+				}
+
+				int length = 0;
+				int lengthPos = recipientEnd + 1;
+				while (lengthPos < message.Length && message[lengthPos] != ':') {
+					length = length * 10 + (message[lengthPos] - '0');
+					lengthPos++;
+				}
+
+				string recipient = message.Substring(pos, recipientEnd - pos);
+				string eventMessage = message.Substring(lengthPos + 1, length);
+				pos = lengthPos + 1 + length;
+
+				dispatchEvent(recipient, eventMessage);
+			}
+		}
+
+		/// <summary>
+		/// Names of the event handlers, indexed by the event ids the native side uses
+		/// (<c>com.soomla.profile.unity.ProfileEventIds</c>).
+		/// </summary>
+		internal static readonly string[] EVENT_NAMES = {
+			"onSoomlaProfileInitialized",
+			"onUserRatingEvent",
+			"onUserProfileUpdated",
+			"onLoginStarted",
+			"onLoginFinished",
+			"onLoginCancelled",
+			"onLoginFailed",
+			"onLogoutStarted",
+			"onLogoutFinished",
+			"onLogoutFailed",
+			"onSocialActionStarted",
+			"onSocialActionFinished",
+			"onSocialActionCancelled",
+			"onSocialActionFailed",
+			"onGetContactsStarted",
+			"onGetContactsFinished",
+			"onGetContactsFailed",
+			"onGetFeedStarted",
+			"onGetFeedFinished",
+			"onGetFeedFailed",
+			"onInviteStarted",
+			"onInviteFinished",
+			"onInviteCancelled",
+			"onInviteFailed",
+			"onGetLeaderboardsStarted",
+			"onGetLeaderboardsFinished",
+			"onGetLeaderboardsFailed",
+			"onGetScoresStarted",
+			"onGetScoresFinished",
+			"onGetScoresFailed",
+			"onSubmitScoreStarted",
+			"onSubmitScoreFinished",
+			"onSubmitScoreFailed",
+			"onShowLeaderboards",
+			"onGetContactsChunk",
+			"onGetFeedChunk",
+		};
+
+		/// <summary>
+		/// Routes a single event message to its handler by the event's id.
+		/// </summary>
+		/// <param name="eventId">Index of the handler in <c>EVENT_NAMES</c>.</param>
+		/// <param name="message">The event message.</param>
+		internal void dispatchEvent(int eventId, string message)
+		{
+			if (eventId < 0 || eventId >= EVENT_NAMES.Length) {
+				SoomlaUtils.LogError(TAG, "Got an event with an unknown id: " + eventId);
+				return;
+			}
+			dispatchEvent(EVENT_NAMES[eventId], message);
+		}
+
+		/// <summary>
+		/// Routes a single event message to its handler by the handler's name.
+		/// </summary>
+		/// <param name="recipient">Name of the handler, as sent by the native side.</param>
+		/// <param name="message">The event message.</param>
+		internal void dispatchEvent(string recipient, string message)
+		{
+			switch (recipient) {
+			case "onSoomlaProfileInitialized": onSoomlaProfileInitialized(); break;
+			case "onUserRatingEvent": onUserRatingEvent(); break;
+			case "onUserProfileUpdated": onUserProfileUpdated(message); break;
+			case "onLoginStarted": onLoginStarted(message); break;
+			case "onLoginFinished": onLoginFinished(message); break;
+			case "onLoginCancelled": onLoginCancelled(message); break;
+			case "onLoginFailed": onLoginFailed(message); break;
+			case "onLogoutStarted": onLogoutStarted(message); break;
+			case "onLogoutFinished": onLogoutFinished(message); break;
+			case "onLogoutFailed": onLogoutFailed(message); break;
+			case "onSocialActionStarted": onSocialActionStarted(message); break;
+			case "onSocialActionFinished": onSocialActionFinished(message); break;
+			case "onSocialActionCancelled": onSocialActionCancelled(message); break;
+			case "onSocialActionFailed": onSocialActionFailed(message); break;
+			case "onGetContactsStarted": onGetContactsStarted(message); break;
+			case "onGetContactsFinished": onGetContactsFinished(message); break;
+			case "onGetContactsFailed": onGetContactsFailed(message); break;
+			case "onGetFeedStarted": onGetFeedStarted(message); break;
+			case "onGetFeedFinished": onGetFeedFinished(message); break;
+			case "onGetFeedFailed": onGetFeedFailed(message); break;
+			case "onInviteStarted": onInviteStarted(message); break;
+			case "onInviteFinished": onInviteFinished(message); break;
+			case "onInviteCancelled": onInviteCancelled(message); break;
+			case "onInviteFailed": onInviteFailed(message); break;
+			case "onGetLeaderboardsStarted": onGetLeaderboardsStarted(message); break;
+			case "onGetLeaderboardsFinished": onGetLeaderboardsFinished(message); break;
+			case "onGetLeaderboardsFailed": onGetLeaderboardsFailed(message); break;
+			case "onGetScoresStarted": onGetScoresStarted(message); break;
+			case "onGetScoresFinished": onGetScoresFinished(message); break;
+			case "onGetScoresFailed": onGetScoresFailed(message); break;
+			case "onSubmitScoreStarted": onSubmitScoreStarted(message); break;
+			case "onSubmitScoreFinished": onSubmitScoreFinished(message); break;
+			case "onSubmitScoreFailed": onSubmitScoreFailed(message); break;
+			case "onShowLeaderboards": onShowLeaderboards(message); break;
+			case "onGetContactsChunk": onGetContactsChunk(message); break;
+			case "onGetFeedChunk": onGetFeedChunk(message); break;
+			default:
+				SoomlaUtils.LogError(TAG, "Got an event for an unknown handler: " + recipient);
+				break;
+			}
+		}
+
 		public delegate void Action();
 		public delegate void Action<T1, T2, T3, T4, T5>(T1 arg1, T2 arg2, T3 arg3, T4 arg4, T5 arg5);
 
@@ -854,6 +1189,12 @@ namespace Soomla.Profile {
 		public static Action<Provider, SocialPageData<UserProfile>, string> OnGetContactsFinished = delegate {};
 		//public static Action<GetContactsFinishedEvent> OnGetContactsFinished = delegate {};
 
+		/// <summary>
+		/// Called for every chunk of a contacts result sent in chunks: the chunk's contacts,
+		/// its sequence number as <c>PageNumber</c>, whether it's the last one, and the payload.
+		/// </summary>
+		public static Action<Provider, SocialPageData<UserProfile>, bool, string> OnGetContactsChunk = delegate {};
+
 		public static Action<Provider, bool, string> OnGetContactsStarted = delegate {};
 		//public static Action<GetContactsStartedEvent> OnGetContactsStarted = delegate {};
 
@@ -863,6 +1204,12 @@ namespace Soomla.Profile {
 		public static Action<Provider, SocialPageData<String>> OnGetFeedFinished = delegate {};
 		//public static Action<GetFeedFinishedEvent> OnGetFeedFinished = delegate {};
 
+		/// <summary>
+		/// Called for every chunk of a feed result sent in chunks: the chunk's posts,
+		/// its sequence number as <c>PageNumber</c>, and whether it's the last one.
+		/// </summary>
+		public static Action<Provider, SocialPageData<String>, bool> OnGetFeedChunk = delegate {};
+
 		public static Action<Provider> OnGetFeedStarted = delegate {};
 		//public static Action<GetFeedStartedEvent> OnGetFeedStarted = delegate {};
 
@@ -58,6 +58,44 @@ namespace Soomla.Profile
 
 		static private int unreadyProviders = 0;
 
+		static private bool parallelInitialization = false;
+		static private Provider[] lazyProviders = new Provider[0];
+
+		static private long subscribedEventMask = -1L;
+		static private int subscribedProviderMask = -1;
+
+		private const int DEFAULT_LOGIN_STATE_TTL_MS = 5 * 60 * 1000;
+		private const int LOGIN_STATE_UNKNOWN = 0;
+		private const int LOGIN_STATE_LOGGED_OUT = 1;
+		private const int LOGIN_STATE_LOGGED_IN = 2;
+		private static readonly string[] LOGIN_STATE_EVENTS = {
+			"onLoginFinished", "onLoginFailed", "onLoginCancelled", "onLogoutFinished", "onLogoutFailed"
+		};
+		// rewards are given on these, the native side sends them whatever the subscriptions
+		private static readonly string[] ALWAYS_SENT_EVENTS = {
+			"onSoomlaProfileInitialized", "onLoginFinished", "onSocialActionFinished", "onInviteFinished"
+		};
+		static private bool loginStateMirror = false;
+		static private float loginStateTtl = DEFAULT_LOGIN_STATE_TTL_MS / 1000f;
+		static private int[] mirroredLoginStates = new int[Provider.NUM_OF_PROVIDERS];
+		static private float[] mirroredLoginStateTimes = new float[Provider.NUM_OF_PROVIDERS];
+
+		/// <summary>
+		/// Makes the native side load the classes of the providers needed at launch in parallel
+		/// before initializing, and read their stored profiles in parallel in the background after,
+		/// sending <c>OnSoomlaProfileInitialized</c> once they're ready. Must be called before <c>Initialize</c>.
+		/// <c>Initialize</c> still blocks until the classes are loaded and the native side is initialized,
+		/// only the stored profiles are read in the background.
+		/// Per-provider durations are available from <c>GetInitializationTimings</c>.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, the native side is initialized in parallel.</param>
+		/// <param name="lazy">Providers that aren't needed at launch, their setup is done on first use.</param>
+		public static void SetParallelInitialization(bool enabled, params Provider[] lazy) {
+			parallelInitialization = enabled;
+			lazyProviders = lazy ?? new Provider[0];
+		}
+
 		/// <summary>
 		/// Initializes the SOOMLA Profile Module.
 		///
@@ -67,7 +105,15 @@ namespace Soomla.Profile
 			ProfileEvents.Initialize();
 			Dictionary<Provider, Dictionary<string, string>> customParams = GetCustomParamsDict();
 
-			instance._initialize(GetCustomParamsJson(customParams)); //add parameters
+			if (parallelInitialization) {
+				JSONObject lazyProvidersJson = new JSONObject(JSONObject.Type.ARRAY);
+				foreach (Provider provider in lazyProviders) {
+					lazyProvidersJson.Add(provider.ToString());
+				}
+				instance._initializeParallel(GetCustomParamsJson(customParams), lazyProvidersJson.ToString());
+			} else {
+				instance._initialize(GetCustomParamsJson(customParams)); //add parameters
+			}
 
 			/// NOTE: we splitted `unreadyProviders` incrementation with adding to `providers` dictionary
 			/// because other case produces firing of OnSoomlaProfileInitialized several times,
@@ -264,8 +310,14 @@ namespace Soomla.Profile
 
 			if (targetProvider.IsNativelyImplemented ())
 			{
+				bool loggedIn;
+				if (TryGetMirroredLoginState(provider, out loggedIn)) {
+					return loggedIn;
+				}
 				//fallback to native
-				return instance._isLoggedIn(provider);
+				loggedIn = instance._isLoggedIn(provider);
+				MirrorLoginState(provider, loggedIn);
+				return loggedIn;
 			}
 
 			return targetProvider.IsLoggedIn ();
@@ -680,6 +732,163 @@ namespace Soomla.Profile
 			}
 		}
 
+		/// <summary>
+		/// Uploads an image file, or a part of it, to the user's social page on the given Provider.
+		/// On Android the file is read and decoded natively, so its bytes never pass through Unity.
+		/// Supported platforms: Facebook, Twitter, Google+
+		///
+		/// NOTE: This operation requires a successful login.
+		/// </summary>
+		/// <param name="provider">The <c>Provider</c> the given image should be uploaded to.</param>
+		/// <param name="message">Message to post with the image.</param>
+		/// <param name="filePath">Path of the image file.</param>
+		/// <param name="offset">Where the image starts within the file.</param>
+		/// <param name="length">Length of the image in bytes, <c>-1</c> for the rest of the file.</param>
+		/// <param name="jpegQuality">Image quality, number from 0 to 100.</param>
+		/// <param name="payload">A string to receive when the function returns.</param>
+		/// <param name="reward">A <c>Reward</c> to give the user after a successful upload.</param>
+		public static void UploadImageFromFile(Provider provider, string message, string filePath, long offset = 0, long length = -1,
+		                                       int jpegQuality = 100, string payload="", Reward reward = null) {
+			ISocialProvider targetProvider = (ISocialProvider)GetProviderImplementation(provider);
+			string userPayload = (payload == null) ? "" : payload;
+			if (targetProvider == null)
+				return;
+
+			if (targetProvider.IsNativelyImplemented())
+			{
+				string rewardId = reward != null ? reward.ID: "";
+				instance._uploadImageFromFile(provider, message, filePath, offset, length, jpegQuality,
+				                              ProfilePayload.ToJSONObj(userPayload, rewardId).ToString());
+			}
+
+			else
+			{
+				byte[] imageBytes;
+				using (FileStream stream = File.OpenRead(filePath)) {
+					long count = length >= 0 ? length : stream.Length - offset;
+					imageBytes = new byte[count];
+					stream.Seek(offset, SeekOrigin.Begin);
+					int read = 0;
+					while (read < imageBytes.Length) {
+						int n = stream.Read(imageBytes, read, imageBytes.Length - read);
+						if (n <= 0) {
+							break;
+						}
+						read += n;
+					}
+				}
+				UploadImage(provider, message, Path.GetFileName(filePath), imageBytes, jpegQuality, payload, reward);
+			}
+		}
+
+		/// <summary>
+		/// Sets the largest width or height an uploaded image is decoded to natively.
+		/// Larger images are sampled down, which keeps memory use bounded while sharing.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="maxDimension">Largest width or height in pixels, <c>0</c> for no limit.</param>
+		public static void SetImageMaxDimension(int maxDimension) {
+			instance._setImageMaxDimension(maxDimension);
+		}
+
+		/// <summary>
+		/// Sets how much memory natively decoded images may take while they wait to be uploaded.
+		/// Uploads that don't fit are decoded once earlier ones have finished.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="memoryBudget">Budget in bytes, <c>0</c> for the native default (64MB).</param>
+		public static void SetImageMemoryBudget(int memoryBudget) {
+			instance._setImageMemoryBudget(memoryBudget);
+		}
+
+		/// <summary>
+		/// Turns the native contacts cache on or off. While it is on, <c>GetContacts</c> is answered
+		/// from memory when possible, and stale pages are fetched again in the background.
+		/// It is off by default. Turning it off clears it, and requests still waiting for a page fail.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, contacts are cached.</param>
+		public static void SetContactsCacheEnabled(bool enabled) {
+			instance._setContactsCacheEnabled(enabled);
+		}
+
+		/// <summary>
+		/// Configures the native contacts cache.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="maxContacts">How many contacts may be cached over all providers, <c>0</c> for the default (5000).</param>
+		/// <param name="ttlMs">How long (in milliseconds) a page is served before it's fetched again, <c>0</c> for the default (5 minutes).</param>
+		public static void ConfigureContactsCache(int maxContacts = 0, long ttlMs = 0) {
+			instance._configureContactsCache(maxContacts, ttlMs);
+		}
+
+		/// <summary>
+		/// Drops the cached contacts of the given provider, or of all providers.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="provider">The <c>Provider</c> to drop the contacts of, <c>null</c> for all of them.</param>
+		public static void InvalidateContactsCache(Provider provider = null) {
+			instance._invalidateContactsCache(provider);
+		}
+
+		/// <summary>
+		/// Fetches the native contacts cache's counters.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <returns>A <c>JSONObject</c> with <c>hits</c>, <c>misses</c>, <c>pages</c> and <c>contacts</c>,
+		/// or <c>null</c> on unsupported platforms.</returns>
+		public static JSONObject GetContactsCacheStats() {
+			return instance._getContactsCacheStats();
+		}
+
+		/// <summary>
+		/// Turns the native contacts store on or off. While it is on, the contacts returned by
+		/// <c>GetContacts</c> are kept on the native side, and <c>OnGetContactsFinished</c> gets pages
+		/// without their contacts; query them with <c>SearchStoredContacts</c> and <c>GetStoredContact</c>.
+		/// A request from the start replaces the provider's stored contacts, and logging in or out
+		/// drops them. Turning it off clears it.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, contacts are stored natively.</param>
+		public static void SetContactsStore(bool enabled) {
+			instance._setContactsStore(enabled);
+		}
+
+		/// <summary>
+		/// Fetches a page of the stored contacts whose first name, last name, full name or username
+		/// starts with <c>prefix</c>, ignoring case, in the order they were received.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <returns>The matching contacts from <c>offset</c> on, with <c>HasMore</c> set if more
+		/// match, or <c>null</c> on unsupported platforms.</returns>
+		/// <param name="provider">The <c>Provider</c> whose contacts to search.</param>
+		/// <param name="prefix">The prefix to look for, <c>null</c> or empty for all contacts.</param>
+		/// <param name="offset">How many matching contacts to skip.</param>
+		/// <param name="limit">The most contacts to return.</param>
+		public static SocialPageData<UserProfile> SearchStoredContacts(Provider provider, string prefix, int offset, int limit) {
+			return instance._searchStoredContacts(provider, prefix, offset, limit);
+		}
+
+		/// <summary>
+		/// Fetches a stored contact by its profile ID.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <returns>The contact, or <c>null</c> if it isn't stored.</returns>
+		/// <param name="provider">The <c>Provider</c> the contact belongs to.</param>
+		/// <param name="profileId">The contact's profile ID.</param>
+		public static UserProfile GetStoredContact(Provider provider, string profileId) {
+			return instance._getStoredContact(provider, profileId);
+		}
+
+		/// <summary>
+		/// Fetches how many contacts of the given provider are stored.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="provider">The <c>Provider</c> to count the contacts of.</param>
+		public static int GetStoredContactsCount(Provider provider) {
+			return instance._getStoredContactsCount(provider);
+		}
+
 		/// <summary>
 		/// Uploads the current screen shot image to the user's social page on the given Provider.
 		/// Supported platforms: Facebook
@@ -883,6 +1092,53 @@ namespace Soomla.Profile
 			return instance._getStoredUserProfile(provider);
 		}
 
+		/// <summary>The batched call returned <c>false</c>, e.g. the user isn't logged in.</summary>
+		public const int BATCH_FALSE = 0;
+		/// <summary>The batched call returned <c>true</c>, or has no result.</summary>
+		public const int BATCH_TRUE = 1;
+		/// <summary>The batched call failed on the native side, e.g. its provider isn't initialized.</summary>
+		public const int BATCH_ERROR = -1;
+
+		/// <summary>
+		/// Starts collecting calls to the native side, to send them together when <c>EndBatch</c>
+		/// is called: logins and logouts, status updates without confirmation, contacts, feed,
+		/// leaderboards and scores, and the login and social action events of providers implemented
+		/// in Unity. Any other call sends what's collected first, so calls keep their order.
+		/// Supported platforms: Android.
+		/// </summary>
+		public static void BeginBatch() {
+			instance._beginBatch();
+		}
+
+		/// <summary>
+		/// Sends the calls collected since <c>BeginBatch</c> in a single native call.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <returns>One of <c>BATCH_TRUE</c>, <c>BATCH_FALSE</c> or <c>BATCH_ERROR</c> per call, in order.</returns>
+		public static int[] EndBatch() {
+			return instance._endBatch();
+		}
+
+		/// <summary>
+		/// Fetches the stored profiles and login states of all the natively implemented providers
+		/// in a single call, instead of calling <c>GetStoredUserProfile</c> and <c>IsLoggedIn</c>
+		/// for each of them.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <returns>The snapshot, or <c>null</c> on unsupported platforms.</returns>
+		/// <param name="sinceVersion">The <c>Version</c> of an earlier snapshot to only get the providers
+		/// whose profile or login state changed since, <c>0</c> to get all of them. Changes made outside
+		/// of SOOMLA's login, logout and profile events are only seen in full snapshots.</param>
+		public static ProfileSnapshot GetProfileSnapshot(int sinceVersion = 0) {
+			ProfileSnapshot snapshot = instance._getProfileSnapshot(sinceVersion);
+			if (snapshot != null) {
+				foreach (KeyValuePair<Provider, bool> entry in snapshot.LoggedIn) {
+					MirrorLoginState(entry.Key, entry.Value);
+				}
+			}
+			return snapshot;
+		}
+
 		/// <summary>
 		/// Stores the given user profile in the relevant provider (contained internally in the UserProfile).
 		///
@@ -1059,6 +1315,334 @@ namespace Soomla.Profile
 			}
 		}
 
+		/// <summary>
+		/// Makes the native side collect profile events and deliver them in a single
+		/// message per flush interval, instead of sending every event on its own.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, events are batched.</param>
+		/// <param name="flushIntervalMs">How long (in milliseconds) to collect events before delivering them.</param>
+		public static void SetEventBatching(bool enabled, int flushIntervalMs = 16) {
+			instance._setEventBatching(enabled, flushIntervalMs);
+		}
+
+		/// <summary>
+		/// Switches the native side between its streaming event serializer and the
+		/// JSON object based one. Both produce the same messages.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, the streaming serializer is used.</param>
+		public static void SetStreamingSerialization(bool enabled) {
+			instance._setStreamingSerialization(enabled);
+		}
+
+		/// <summary>
+		/// Makes the native side build profile events' messages on a background thread instead of
+		/// the thread the event was fired on. Events still reach Unity in the order they were fired.
+		/// Pending events are sent when the app is paused.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, messages are built in the background.</param>
+		public static void SetBackgroundSerialization(bool enabled) {
+			instance._setBackgroundSerialization(enabled);
+		}
+
+		/// <summary>
+		/// Builds and sends all the events waiting for background serialization right away.
+		/// Supported platforms: Android.
+		/// </summary>
+		public static void FlushBackgroundSerialization() {
+			instance._flushBackgroundSerialization();
+		}
+
+		/// <summary>
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <returns>How many events are waiting for background serialization, <c>0</c> on unsupported platforms.</returns>
+		public static int GetSerializationQueueDepth() {
+			return instance._getSerializationQueueDepth();
+		}
+
+		/// <summary>
+		/// Makes the native side write profile events into a buffer shared with Unity,
+		/// which is read once per frame, instead of sending them with <c>UnitySendMessage</c>.
+		/// Events that don't fit in the buffer wait on the native side and are read right after it,
+		/// so events are always delivered in the order they were sent.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, events go through the shared buffer.</param>
+		/// <param name="capacity">Size of the shared buffer in bytes, <c>0</c> for the native default (1MB).</param>
+		public static void SetEventRingBuffer(bool enabled, int capacity = 0) {
+			instance._setEventRingBuffer(enabled, capacity);
+		}
+
+		/// <summary>
+		/// Makes the native side send only the given events, and only for the given providers.
+		/// Other events are dropped before their message is built. Can be called again at any time.
+		/// <c>onSoomlaProfileInitialized</c> is always sent, since initialization depends on it, and so are
+		/// <c>onLoginFinished</c>, <c>onSocialActionFinished</c> and <c>onInviteFinished</c> for every
+		/// provider, since rewards are given on them.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="events">Names of the <c>ProfileEvents</c> handlers to send events to
+		/// (e.g. <c>"onLoginFinished"</c>), <c>null</c> for all of them.</param>
+		/// <param name="providers">Providers to send events of, <c>null</c> for all of them.</param>
+		public static void SetEventSubscriptions(IEnumerable<string> events, IEnumerable<Provider> providers = null) {
+			long eventMask = -1L;
+			if (events != null) {
+				eventMask = 0L;
+				foreach (string eventName in ALWAYS_SENT_EVENTS) {
+					eventMask |= 1L << Array.IndexOf(ProfileEvents.EVENT_NAMES, eventName);
+				}
+				foreach (string eventName in events) {
+					int eventId = Array.IndexOf(ProfileEvents.EVENT_NAMES, eventName);
+					if (eventId < 0) {
+						SoomlaUtils.LogError(TAG, "Unknown event, can't subscribe to it: " + eventName);
+						continue;
+					}
+					eventMask |= 1L << eventId;
+				}
+			}
+
+			int providerMask = -1;
+			if (providers != null) {
+				providerMask = 0;
+				foreach (Provider provider in providers) {
+					providerMask |= 1 << provider.toInt();
+				}
+			}
+
+			subscribedEventMask = eventMask;
+			subscribedProviderMask = providerMask;
+			ApplyEventSubscriptions();
+		}
+
+		private static void ApplyEventSubscriptions() {
+			long eventMask = subscribedEventMask;
+			if (loginStateMirror) {
+				// the mirror is kept up to date by these
+				foreach (string eventName in LOGIN_STATE_EVENTS) {
+					eventMask |= 1L << Array.IndexOf(ProfileEvents.EVENT_NAMES, eventName);
+				}
+			}
+			instance._setEventSubscriptions(eventMask, subscribedProviderMask);
+		}
+
+		/// <summary>
+		/// Makes the native side send contacts and feed results in chunks of up to <c>chunkSize</c>
+		/// items, delivered one by one to <c>ProfileEvents.OnGetContactsChunk</c> and
+		/// <c>ProfileEvents.OnGetFeedChunk</c>, so the first items can be shown before the whole
+		/// result is parsed and no message holds more than a chunk.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="chunkSize">The most items per chunk, 0 to send results whole.</param>
+		/// <param name="assemble">If set to <c>true</c>, chunks are also put together and sent to
+		/// <c>OnGetContactsFinished</c> and <c>OnGetFeedFinished</c> once the last one arrives;
+		/// otherwise those aren't called for chunked results.</param>
+		public static void SetChunkedResults(int chunkSize, bool assemble) {
+			ProfileEvents.AssembleChunks = assemble;
+			instance._setChunkedResults(chunkSize);
+		}
+
+		/// <summary>
+		/// Turns the native login state cache on or off. While it is on, <c>IsLoggedIn</c> is answered
+		/// from a table kept up to date by login and logout events, and the provider is only asked
+		/// when a state is unknown or older than <c>ttlMs</c>.
+		/// With <c>mirror</c>, the table is also kept on this side, so polling <c>IsLoggedIn</c>
+		/// doesn't call the native side at all. Mirrored states are only kept for providers whose
+		/// events are subscribed to (see <c>SetEventSubscriptions</c>).
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, login states are cached.</param>
+		/// <param name="ttlMs">How long a state is trusted, 0 for 5 minutes.</param>
+		/// <param name="mirror">If set to <c>true</c>, login states are also cached on this side.</param>
+		public static void SetLoginStateCache(bool enabled, int ttlMs = 0, bool mirror = false) {
+			instance._setLoginStateCache(enabled, ttlMs);
+
+			bool mirrorWasOn = loginStateMirror;
+			loginStateMirror = enabled && mirror;
+			loginStateTtl = (ttlMs > 0 ? ttlMs : DEFAULT_LOGIN_STATE_TTL_MS) / 1000f;
+			for (int i = 0; i < mirroredLoginStates.Length; i++) {
+				mirroredLoginStates[i] = LOGIN_STATE_UNKNOWN;
+			}
+			if (loginStateMirror != mirrorWasOn && subscribedEventMask != -1L) {
+				ApplyEventSubscriptions();
+			}
+		}
+
+		internal static void MirrorLoginState(Provider provider, bool loggedIn) {
+			if (!loginStateMirror || provider == null || (subscribedProviderMask & (1 << provider.toInt())) == 0) {
+				return;
+			}
+			mirroredLoginStates[provider.toInt()] = loggedIn ? LOGIN_STATE_LOGGED_IN : LOGIN_STATE_LOGGED_OUT;
+			mirroredLoginStateTimes[provider.toInt()] = Time.realtimeSinceStartup;
+		}
+
+		internal static void ForgetLoginState(Provider provider) {
+			if (provider != null) {
+				mirroredLoginStates[provider.toInt()] = LOGIN_STATE_UNKNOWN;
+			}
+		}
+
+		private static bool TryGetMirroredLoginState(Provider provider, out bool loggedIn) {
+			loggedIn = false;
+			if (!loginStateMirror) {
+				return false;
+			}
+			int state = mirroredLoginStates[provider.toInt()];
+			if (state == LOGIN_STATE_UNKNOWN || Time.realtimeSinceStartup - mirroredLoginStateTimes[provider.toInt()] >= loginStateTtl) {
+				return false;
+			}
+			loggedIn = state == LOGIN_STATE_LOGGED_IN;
+			return true;
+		}
+
+		/// <summary>
+		/// Makes the native side record latency histograms and call counters for its bridge calls
+		/// and for the events it sends. While off, recording costs close to nothing.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, calls and events are recorded.</param>
+		/// <param name="dumpIntervalMs">How often (in milliseconds) to write a snapshot to the app's files
+		/// dir (<c>soomla_profile_metrics.json</c>), <c>0</c> for never.</param>
+		public static void SetMetricsEnabled(bool enabled, int dumpIntervalMs = 0) {
+			instance._setMetricsEnabled(enabled, dumpIntervalMs);
+		}
+
+		/// <summary>
+		/// Fetches everything the native side recorded since metrics were enabled or reset.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <returns>A <c>JSONObject</c> with a <c>metrics</c> object holding <c>calls</c>, <c>totalUs</c>,
+		/// <c>maxUs</c>, <c>payloadSize</c> and <c>buckets</c> per method or event, or <c>null</c> on
+		/// unsupported platforms. Bucket <c>i</c> counts calls that took less than <c>2^i</c> microseconds.</returns>
+		public static JSONObject GetMetricsSnapshot() {
+			return instance._getMetricsSnapshot();
+		}
+
+		/// <summary>
+		/// Clears everything the native side recorded.
+		/// Supported platforms: Android.
+		/// </summary>
+		public static void ResetMetrics() {
+			instance._resetMetrics();
+		}
+
+		/// <summary>
+		/// Starts recording the native bridge's traffic (calls from Unity and the events sent back,
+		/// with their times) into a binary trace in the app's files dir, to be replayed by the
+		/// replay tool of the <c>unity-android-profile-benchmarks</c> project.
+		/// A recording in progress is stopped first.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="fileName">Name of the trace file, empty for <c>soomla_profile_trace.bin</c>.</param>
+		/// <returns>The trace's path on the device, or <c>null</c> if it couldn't be created or on
+		/// unsupported platforms.</returns>
+		public static string StartTraceRecording(string fileName = "") {
+			return instance._startTraceRecording(fileName);
+		}
+
+		/// <summary>
+		/// Stops recording the native bridge's traffic and closes the trace.
+		/// Supported platforms: Android.
+		/// </summary>
+		public static void StopTraceRecording() {
+			instance._stopTraceRecording();
+		}
+
+		/// <summary>
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <returns>How long the native side's initialization took, in microseconds: <c>totalUs</c>,
+		/// <c>sdkUs</c> and per provider <c>warmUpUs</c> and <c>prefetchUs</c> (<c>-1</c> for steps
+		/// that didn't run yet), or <c>null</c> on unsupported platforms.</returns>
+		public static JSONObject GetInitializationTimings() {
+			return instance._getInitializationTimings();
+		}
+
+		/// <summary>
+		/// Makes the native side hand profile events to Unity directly, instead of sending them
+		/// with <c>UnitySendMessage</c>. Events fired on Unity's main thread are handled right away,
+		/// others on the next frame. Takes precedence over the event ring buffer and batching.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, events are handed to Unity directly.</param>
+		public static void SetEventSink(bool enabled) {
+			instance._setEventSink(enabled);
+		}
+
+		/// <summary>Events pushed to the native side are dispatched on the pushing thread.</summary>
+		public const int EVENT_DISPATCH_CALLER = 0;
+		/// <summary>Events pushed to the native side are dispatched on native worker threads.</summary>
+		public const int EVENT_DISPATCH_BACKGROUND = 1;
+		/// <summary>Events pushed to the native side are dispatched on the Android main thread.</summary>
+		public const int EVENT_DISPATCH_MAIN = 2;
+
+		/// <summary>
+		/// Sets where the native side dispatches the events Unity pushes to it (e.g. from the
+		/// Facebook SDK). A provider's events are always dispatched in order, different providers'
+		/// events may be dispatched concurrently.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="mode">One of the <c>EVENT_DISPATCH_*</c> constants.</param>
+		public static void SetEventDispatchMode(int mode) {
+			instance._setEventDispatchMode(mode);
+		}
+
+		/// <summary>
+		/// Makes the native side collect submitted scores and submit only the best pending score
+		/// of every leaderboard, once per flush interval. Pending scores are also submitted when
+		/// the app is paused. Scores replaced by a better one fire no events.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, scores are queued.</param>
+		/// <param name="flushIntervalMs">How long (in milliseconds) to collect scores before submitting them.</param>
+		/// <param name="lowerIsBetter">If set to <c>true</c>, a lower score beats a higher one.</param>
+		public static void SetScoreSubmissionQueue(bool enabled, int flushIntervalMs = 30000, bool lowerIsBetter = false) {
+			instance._setScoreSubmissionQueue(enabled, flushIntervalMs, lowerIsBetter);
+		}
+
+		/// <summary>
+		/// Submits all the scores queued natively right away.
+		/// Supported platforms: Android.
+		/// </summary>
+		public static void FlushScoreSubmissions() {
+			instance._flushScoreSubmissions();
+		}
+
+		/// <summary>
+		/// Makes the native side send refreshed scores pages as the scores inserted, changed or
+		/// removed since the page was last delivered, instead of the whole page. The pages are put
+		/// back together on this side, so <c>ProfileEvents.OnGetScoresFinished</c> still gets whole
+		/// pages; when a delta doesn't apply to the page kept here, the page is fetched from the
+		/// native side whole.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, scores pages are sent as deltas.</param>
+		public static void SetScoreDeltas(bool enabled) {
+			instance._setScoreDeltas(enabled);
+		}
+
+		internal static JSONObject ResyncScores(Provider provider, Leaderboard leaderboard, int page) {
+			return instance._resyncScores(provider, leaderboard, page);
+		}
+
+		/// <summary>
+		/// Makes the native side journal status updates, stories, image uploads from files and
+		/// score submissions to disk before performing them. Failed actions are retried with
+		/// backoff (their intermediate failure events are not fired), and actions interrupted
+		/// by the app being killed are performed again when the journal is next enabled.
+		/// Actions that show a confirmation or a dialog are not journaled.
+		/// Supported platforms: Android.
+		/// </summary>
+		/// <param name="enabled">If set to <c>true</c>, actions are journaled.</param>
+		/// <param name="commitIntervalMs">How often (in milliseconds) journaled actions are flushed to disk.</param>
+		/// <param name="maxAttempts">How many times an action is tried before its failure is fired.</param>
+		/// <param name="baseBackoffMs">Delay (in milliseconds) before the first retry, doubled for every further one.</param>
+		public static void SetActionJournal(bool enabled, int commitIntervalMs = 1000, int maxAttempts = 5, long baseBackoffMs = 2000) {
+			instance._setActionJournal(enabled, commitIntervalMs, maxAttempts, baseBackoffMs);
+		}
+
 		/// <summary>
 		/// Checks if all the social providers finished their initialization
 		/// </summary>
@@ -1110,6 +1694,41 @@ namespace Soomla.Profile
 		                                    int jpegQuality, string payload,
 		                                    bool showConfirmation, string customMessage) { }
 
+		protected virtual void _uploadImageFromFile(Provider provider, string message, string filePath, long offset, long length,
+		                                            int jpegQuality, string payload) { }
+
+		protected virtual void _setImageMaxDimension(int maxDimension) { }
+
+		protected virtual void _setImageMemoryBudget(int memoryBudget) { }
+
+		protected virtual void _setContactsCacheEnabled(bool enabled) { }
+
+		protected virtual void _configureContactsCache(int maxContacts, long ttlMs) { }
+
+		protected virtual void _setLoginStateCache(bool enabled, long ttlMs) { }
+
+		protected virtual void _setChunkedResults(int chunkSize) { }
+
+		protected virtual void _invalidateContactsCache(Provider provider) { }
+
+		protected virtual JSONObject _getContactsCacheStats() {
+			return null;
+		}
+
+		protected virtual void _setContactsStore(bool enabled) { }
+
+		protected virtual SocialPageData<UserProfile> _searchStoredContacts(Provider provider, string prefix, int offset, int limit) {
+			return null;
+		}
+
+		protected virtual UserProfile _getStoredContact(Provider provider, string profileId) {
+			return null;
+		}
+
+		protected virtual int _getStoredContactsCount(Provider provider) {
+			return 0;
+		}
+
 		protected virtual void _getContacts(Provider provider, bool fromStart, string payload) { }
 
 		protected virtual void _getFeed(Provider provider, bool fromStart, string payload) { }
@@ -1128,6 +1747,70 @@ namespace Soomla.Profile
 
 		protected virtual void _showLeaderboards(Provider provider, string payload) { }
 
+		protected virtual void _setEventBatching(bool enabled, int flushIntervalMs) { }
+
+		protected virtual void _setStreamingSerialization(bool enabled) { }
+
+		protected virtual void _setBackgroundSerialization(bool enabled) { }
+
+		protected virtual void _flushBackgroundSerialization() { }
+
+		protected virtual int _getSerializationQueueDepth() {
+			return 0;
+		}
+
+		protected virtual void _setEventRingBuffer(bool enabled, int capacity) { }
+
+		protected virtual void _setEventSink(bool enabled) { }
+
+		protected virtual void _setEventDispatchMode(int mode) { }
+
+		protected virtual void _setEventSubscriptions(long eventMask, int providerMask) { }
+
+		protected virtual void _setMetricsEnabled(bool enabled, int dumpIntervalMs) { }
+
+		protected virtual JSONObject _getMetricsSnapshot() {
+			return null;
+		}
+
+		protected virtual void _resetMetrics() { }
+
+		protected virtual string _startTraceRecording(string fileName) {
+			return null;
+		}
+
+		protected virtual void _stopTraceRecording() { }
+
+		protected virtual void _initializeParallel(string customParamsJson, string lazyProvidersJson) {
+			_initialize(customParamsJson);
+		}
+
+		protected virtual JSONObject _getInitializationTimings() {
+			return null;
+		}
+
+		protected virtual ProfileSnapshot _getProfileSnapshot(int sinceVersion) {
+			return null;
+		}
+
+		protected virtual void _beginBatch() { }
+
+		protected virtual int[] _endBatch() {
+			return new int[0];
+		}
+
+		protected virtual void _setScoreSubmissionQueue(bool enabled, int flushIntervalMs, bool lowerIsBetter) { }
+
+		protected virtual void _flushScoreSubmissions() { }
+
+		protected virtual void _setScoreDeltas(bool enabled) { }
+
+		protected virtual JSONObject _resyncScores(Provider provider, Leaderboard leaderboard, int page) {
+			return null;
+		}
+
+		protected virtual void _setActionJournal(bool enabled, int commitIntervalMs, int maxAttempts, long baseBackoffMs) { }
+
 
 		protected virtual UserProfile _getStoredUserProfile(Provider provider) {
 			#if UNITY_EDITOR
@@ -0,0 +1,79 @@
+package android.os;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for Android's <code>Handler</code>. Posted runnables run in order on one daemon
+ * thread, which plays the part of the main thread for the bridge's delayed flushes and retries.
+ */
+public class Handler {
+
+    public Handler() {
+        this(Looper.myLooper());
+    }
+
+    public Handler(Looper looper) {
+        mLooper = looper;
+    }
+
+    public final Looper getLooper() {
+        return mLooper;
+    }
+
+    public final boolean post(Runnable r) {
+        return postDelayed(r, 0);
+    }
+
+    public final boolean postDelayed(final Runnable r, long delayMillis) {
+        final Object token = new Object();
+        Pending pending = new Pending(r);
+        mPending.put(token, pending);
+        pending.future = EXECUTOR.schedule(new Runnable() {
+            @Override
+            public void run() {
+                // removed means removeCallbacks() got here first
+                if (mPending.remove(token) != null) {
+                    r.run();
+                }
+            }
+        }, Math.max(delayMillis, 0), TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    public final void removeCallbacks(Runnable r) {
+        for (Map.Entry<Object, Pending> entry : mPending.entrySet()) {
+            Pending pending = entry.getValue();
+            if (pending.runnable == r && mPending.remove(entry.getKey()) != null && pending.future != null) {
+                pending.future.cancel(false);
+            }
+        }
+    }
+
+    private static class Pending {
+
+        Pending(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        final Runnable runnable;
+        volatile ScheduledFuture<?> future;
+    }
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "main");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final Looper mLooper;
+    private final Map<Object, Pending> mPending = new ConcurrentHashMap<Object, Pending>();
+}
@@ -0,0 +1,25 @@
+package android.os;
+
+/**
+ * Stand-in for Android's <code>Looper</code>. There is a single looper and every thread
+ * is treated as its thread, so Otto's main thread check passes on JMH's worker threads.
+ */
+public final class Looper {
+
+    public static Looper getMainLooper() {
+        return MAIN;
+    }
+
+    public static Looper myLooper() {
+        return MAIN;
+    }
+
+    public Thread getThread() {
+        return Thread.currentThread();
+    }
+
+    private Looper() {
+    }
+
+    private static final Looper MAIN = new Looper();
+}
@@ -0,0 +1,49 @@
+package android.util;
+
+/**
+ * Stand-in for Android's <code>Log</code>. Silent unless the <code>soomla.log</code>
+ * system property is set, so logging doesn't skew the measurements.
+ */
+public final class Log {
+
+    public static int v(String tag, String msg) {
+        return println("V", tag, msg);
+    }
+
+    public static int d(String tag, String msg) {
+        return println("D", tag, msg);
+    }
+
+    public static int i(String tag, String msg) {
+        return println("I", tag, msg);
+    }
+
+    public static int w(String tag, String msg) {
+        return println("W", tag, msg);
+    }
+
+    public static int w(String tag, String msg, Throwable tr) {
+        return println("W", tag, msg + '\n' + tr);
+    }
+
+    public static int e(String tag, String msg) {
+        return println("E", tag, msg);
+    }
+
+    public static int e(String tag, String msg, Throwable tr) {
+        return println("E", tag, msg + '\n' + tr);
+    }
+
+    private static int println(String level, String tag, String msg) {
+        if (!ENABLED) {
+            return 0;
+        }
+        System.err.println(level + "/" + tag + ": " + msg);
+        return msg.length();
+    }
+
+    private Log() {
+    }
+
+    private static final boolean ENABLED = System.getProperty("soomla.log") != null;
+}
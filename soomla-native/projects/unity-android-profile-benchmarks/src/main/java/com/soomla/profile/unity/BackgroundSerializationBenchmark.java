@@ -0,0 +1,76 @@
+package com.soomla.profile.unity;
+
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.events.social.GetContactsFinishedEvent;
+import com.soomla.profile.social.ISocialProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What <code>ProfileSerializationStage</code> leaves on the bus's thread: <code>handlerThread</code>
+ * is the handler's cost with the stage on, compare with <code>OutboundEventBenchmark</code>.
+ * <code>flushed</code> also waits for the event to be sent, so it's the handler's cost plus the
+ * stage's overhead. The queue is flushed after every invocation, so sizes small enough for that
+ * to cost more than the handler aren't worth measuring here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BackgroundSerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ProfileEventWriter.setEnabled(true);
+        ProfileSerializationStage.getInstance().setEnabled(true);
+        mHandler = new ProfileEventHandler();
+
+        IProvider.Provider provider = IProvider.Provider.getEnum(BenchmarkData.PROVIDER);
+        mContactsEvent = new GetContactsFinishedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS,
+                BenchmarkData.contacts(size), "", false);
+    }
+
+    // keeps the queue from growing without bounds while handlerThread outpaces the worker
+    @TearDown(Level.Invocation)
+    public void flush() {
+        ProfileSerializationStage.getInstance().flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ProfileSerializationStage.getInstance().setEnabled(false);
+    }
+
+    @Benchmark
+    public void handlerThread() {
+        mHandler.onGetContactsFinished(mContactsEvent);
+    }
+
+    @Benchmark
+    public void flushed() {
+        mHandler.onGetContactsFinished(mContactsEvent);
+        ProfileSerializationStage.getInstance().flush();
+    }
+
+    private ProfileEventHandler mHandler;
+    private GetContactsFinishedEvent mContactsEvent;
+}
@@ -0,0 +1,121 @@
+package com.soomla.profile.unity;
+
+import com.soomla.profile.domain.UserProfile;
+import com.soomla.profile.domain.gameservices.Leaderboard;
+import com.soomla.profile.domain.gameservices.Score;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the payloads the benchmarks work on: JSON the way Unity sends it to the
+ * <code>pushEvent*</code> methods, and the domain objects parsed from it.
+ */
+final class BenchmarkData {
+
+    static final String PROVIDER = "google";
+
+    static JSONObject userProfile(int i) {
+        try {
+            JSONObject json = new JSONObject();
+            json.put("provider", PROVIDER);
+            json.put("profileId", String.valueOf(100000000L + i));
+            json.put("username", "player" + i);
+            json.put("email", "player" + i + "@example.com");
+            json.put("firstName", "First" + i);
+            json.put("lastName", "Last" + i);
+            json.put("avatarLink", "https://example.com/avatars/" + i + ".png");
+            json.put("location", "Tel Aviv");
+            json.put("gender", i % 2 == 0 ? "female" : "male");
+            json.put("language", "en");
+            json.put("birthday", "01/01/1990");
+            json.put("extra", new JSONObject());
+            return json;
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static JSONObject leaderboard(int i) {
+        try {
+            JSONObject json = new JSONObject();
+            json.put("identifier", "leaderboard_" + i);
+            json.put("provider", PROVIDER);
+            json.put("name", "Leaderboard " + i);
+            json.put("iconUrl", "https://example.com/leaderboards/" + i + ".png");
+            return json;
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static JSONObject score(JSONObject leaderboard, int i, int count) {
+        try {
+            JSONObject json = new JSONObject();
+            json.put("leaderboard", leaderboard);
+            json.put("userProfile", userProfile(i));
+            json.put("scoreRank", i + 1);
+            json.put("scoreValue", (long) (count - i) * 100);
+            return json;
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String contactsJson(int count) {
+        JSONArray json = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            json.put(userProfile(i));
+        }
+        return json.toString();
+    }
+
+    static String leaderboardsJson(int count) {
+        JSONArray json = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            json.put(leaderboard(i));
+        }
+        return json.toString();
+    }
+
+    static String scoresJson(int count) {
+        JSONObject leaderboard = leaderboard(0);
+        JSONArray json = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            json.put(score(leaderboard, i, count));
+        }
+        return json.toString();
+    }
+
+    static List<UserProfile> contacts(int count) throws JSONException {
+        List<UserProfile> contacts = new ArrayList<UserProfile>(count);
+        for (int i = 0; i < count; i++) {
+            contacts.add(new UserProfile(userProfile(i)));
+        }
+        return contacts;
+    }
+
+    static List<Leaderboard> leaderboards(int count) throws JSONException {
+        List<Leaderboard> leaderboards = new ArrayList<Leaderboard>(count);
+        for (int i = 0; i < count; i++) {
+            leaderboards.add(new Leaderboard(leaderboard(i)));
+        }
+        return leaderboards;
+    }
+
+    static List<Score> scores(int count) throws JSONException {
+        JSONObject leaderboard = leaderboard(0);
+        List<Score> scores = new ArrayList<Score>(count);
+        for (int i = 0; i < count; i++) {
+            scores.add(new Score(score(leaderboard, i, count)));
+        }
+        return scores;
+    }
+
+    private BenchmarkData() {
+    }
+}
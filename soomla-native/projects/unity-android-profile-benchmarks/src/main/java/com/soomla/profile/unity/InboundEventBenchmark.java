@@ -0,0 +1,83 @@
+package com.soomla.profile.unity;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the events Unity pushes to the native side, through the <code>pushEvent*</code>
+ * methods of <code>ProfileEventHandler</code>. The handler isn't registered with the bus in
+ * these runs, so this measures parsing and posting the event, not sending it back to Unity.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InboundEventBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Payloads {
+
+        @Param({"10", "100", "1000", "10000"})
+        public int size;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            contactsJson = BenchmarkData.contactsJson(size);
+            leaderboardsJson = BenchmarkData.leaderboardsJson(size);
+            scoresJson = BenchmarkData.scoresJson(size);
+            leaderboardJson = BenchmarkData.leaderboard(0).toString();
+        }
+
+        String contactsJson;
+        String leaderboardsJson;
+        String scoresJson;
+        String leaderboardJson;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Profile {
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            JSONObject json = BenchmarkData.userProfile(0);
+            userProfileJson = json.toString();
+        }
+
+        String userProfileJson;
+    }
+
+    @Benchmark
+    public void getContactsFinished(Payloads payloads) {
+        ProfileEventHandler.pushEventGetContactsFinished(BenchmarkData.PROVIDER, payloads.contactsJson, "", false);
+    }
+
+    @Benchmark
+    public void getLeaderboardsFinished(Payloads payloads) {
+        ProfileEventHandler.pushEventGetLeaderboardsFinished(BenchmarkData.PROVIDER, payloads.leaderboardsJson, "");
+    }
+
+    @Benchmark
+    public void getScoresFinished(Payloads payloads) {
+        ProfileEventHandler.pushEventGetScoresFinished(BenchmarkData.PROVIDER, payloads.leaderboardJson,
+                payloads.scoresJson, false, "");
+    }
+
+    @Benchmark
+    public void loginFinished(Profile profile) throws Exception {
+        ProfileEventHandler.pushEventLoginFinished(profile.userProfileJson, false, "");
+    }
+}
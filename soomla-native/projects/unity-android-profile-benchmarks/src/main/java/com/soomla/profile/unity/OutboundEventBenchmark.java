@@ -0,0 +1,84 @@
+package com.soomla.profile.unity;
+
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.gameservices.Leaderboard;
+import com.soomla.profile.events.gameservices.GetLeaderboardsFinishedEvent;
+import com.soomla.profile.events.gameservices.GetScoresFinishedEvent;
+import com.soomla.profile.events.social.GetContactsFinishedEvent;
+import com.soomla.profile.social.ISocialProvider;
+import com.unity3d.player.UnityPlayer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the big events sent to Unity: a handler of <code>ProfileEventHandler</code>
+ * is called with a ready event, and builds and sends its message. <code>streaming</code> switches
+ * between <code>ProfileEventWriter</code> and the <code>org.json</code> path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutboundEventBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean streaming;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ProfileEventWriter.setEnabled(streaming);
+        mHandler = new ProfileEventHandler();
+
+        IProvider.Provider provider = IProvider.Provider.getEnum(BenchmarkData.PROVIDER);
+        mContactsEvent = new GetContactsFinishedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS,
+                BenchmarkData.contacts(size), "", false);
+        mLeaderboardsEvent = new GetLeaderboardsFinishedEvent(provider, BenchmarkData.leaderboards(size), "");
+        mScoresEvent = new GetScoresFinishedEvent(provider, new Leaderboard(BenchmarkData.leaderboard(0)),
+                BenchmarkData.scores(size), false, "");
+
+        // make sure the events actually reach UnitySendMessage
+        long sent = UnityPlayer.getMessageCount();
+        getContactsFinished();
+        if (UnityPlayer.getMessageCount() == sent) {
+            throw new IllegalStateException("onGetContactsFinished didn't send a message");
+        }
+    }
+
+    @Benchmark
+    public void getContactsFinished() {
+        mHandler.onGetContactsFinished(mContactsEvent);
+    }
+
+    @Benchmark
+    public void getLeaderboardsFinished() {
+        mHandler.onGetLeaderboardsFinished(mLeaderboardsEvent);
+    }
+
+    @Benchmark
+    public void getScoresFinished() {
+        mHandler.onGetScoresFinished(mScoresEvent);
+    }
+
+    private ProfileEventHandler mHandler;
+    private GetContactsFinishedEvent mContactsEvent;
+    private GetLeaderboardsFinishedEvent mLeaderboardsEvent;
+    private GetScoresFinishedEvent mScoresEvent;
+}
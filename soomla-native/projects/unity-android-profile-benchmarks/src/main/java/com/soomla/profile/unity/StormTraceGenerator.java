@@ -0,0 +1,156 @@
+package com.soomla.profile.unity;
+
+import com.soomla.BusProvider;
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.UserProfile;
+import com.soomla.profile.events.auth.LoginFinishedEvent;
+import com.soomla.profile.events.auth.LoginStartedEvent;
+import com.soomla.profile.events.social.GetContactsFinishedEvent;
+import com.soomla.profile.events.social.GetContactsStartedEvent;
+import com.soomla.profile.events.social.GetFeedFinishedEvent;
+import com.soomla.profile.events.social.GetFeedStartedEvent;
+import com.soomla.profile.social.ISocialProvider;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records a synthetic trace of the traffic that's hard to reproduce on a device: several
+ * providers logging in at once, followed by contacts and feed paging on all of them.
+ *
+ * Google and Game Center answer like native provider SDKs, by posting to the bus; Twitter
+ * answers through the <code>pushEvent*</code> methods, like providers implemented in Unity.
+ *
+ * Usage: <code>StormTraceGenerator trace-file [--pages=N] [--page-size=N] [--gap-ms=N]</code>,
+ * defaults: 5 pages of 200 entries, 2ms between requests and answers.
+ */
+public class StormTraceGenerator {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: StormTraceGenerator trace-file [--pages=N] [--page-size=N] [--gap-ms=N]");
+            System.exit(1);
+        }
+        File trace = null;
+        int pages = 5;
+        int pageSize = 200;
+        long gapMs = 2;
+        for (String arg : args) {
+            if (arg.startsWith("--pages=")) {
+                pages = Integer.parseInt(arg.substring("--pages=".length()));
+            } else if (arg.startsWith("--page-size=")) {
+                pageSize = Integer.parseInt(arg.substring("--page-size=".length()));
+            } else if (arg.startsWith("--gap-ms=")) {
+                gapMs = Long.parseLong(arg.substring("--gap-ms=".length()));
+            } else {
+                trace = new File(arg);
+            }
+        }
+
+        ProfileEventHandler.getInstance();
+        if (ProfileTraceRecorder.start(trace) == null) {
+            System.exit(1);
+        }
+        try {
+            new StormTraceGenerator(pageSize, gapMs).generate(pages);
+        } finally {
+            ProfileTraceRecorder.stop();
+        }
+        System.out.println("Recorded " + trace.getAbsolutePath() + " (" + trace.length() + " bytes)");
+    }
+
+    StormTraceGenerator(int pageSize, long gapMs) {
+        mPageSize = pageSize;
+        mGapMs = gapMs;
+    }
+
+    void generate(int pages) throws Exception {
+        for (IProvider.Provider provider : PROVIDERS) {
+            call("login", null, provider.toString(), "");
+        }
+        pause();
+        for (IProvider.Provider provider : PROVIDERS) {
+            if (provider == PUSHED) {
+                ProfileEventHandler.pushEventLoginStarted(provider.toString(), false, "");
+            } else {
+                post(new LoginStartedEvent(provider, false, ""));
+            }
+        }
+        pause();
+        for (IProvider.Provider provider : PROVIDERS) {
+            JSONObject userProfile = userProfile(provider, 0);
+            if (provider == PUSHED) {
+                ProfileEventHandler.pushEventLoginFinished(userProfile.toString(), false, "");
+            } else {
+                post(new LoginFinishedEvent(new UserProfile(userProfile), false, ""));
+            }
+        }
+
+        for (int page = 0; page < pages; page++) {
+            boolean hasMore = page < pages - 1;
+            for (IProvider.Provider provider : PROVIDERS) {
+                call("getContacts", provider.toString(), page == 0, "");
+                call("getFeed", provider.toString(), page == 0, "");
+            }
+            pause();
+            for (IProvider.Provider provider : PROVIDERS) {
+                JSONArray contacts = new JSONArray();
+                for (int i = 0; i < mPageSize; i++) {
+                    contacts.put(userProfile(provider, page * mPageSize + i + 1));
+                }
+                if (provider == PUSHED) {
+                    ProfileEventHandler.pushEventGetContactsStarted(provider.toString(), page == 0, "");
+                    ProfileEventHandler.pushEventGetContactsFinished(provider.toString(), contacts.toString(), "", hasMore);
+                } else {
+                    List<UserProfile> userProfiles = new ArrayList<UserProfile>();
+                    for (int i = 0; i < contacts.length(); i++) {
+                        userProfiles.add(new UserProfile(contacts.getJSONObject(i)));
+                    }
+                    post(new GetContactsStartedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS, page == 0, ""));
+                    post(new GetContactsFinishedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS,
+                            userProfiles, "", hasMore));
+                }
+
+                List<String> feed = new ArrayList<String>();
+                for (int i = 0; i < mPageSize; i++) {
+                    feed.add("Post " + (page * mPageSize + i) + " from " + provider);
+                }
+                post(new GetFeedStartedEvent(provider, ISocialProvider.SocialActionType.GET_FEED, page == 0, ""));
+                post(new GetFeedFinishedEvent(provider, ISocialProvider.SocialActionType.GET_FEED, feed, "", hasMore));
+            }
+            pause();
+        }
+    }
+
+    private static void call(String method, Object... args) {
+        ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, method, args);
+    }
+
+    private static void post(Object event) {
+        BusProvider.getInstance().post(event);
+    }
+
+    private static JSONObject userProfile(IProvider.Provider provider, int i) throws Exception {
+        JSONObject json = BenchmarkData.userProfile(i);
+        json.put("provider", provider.toString());
+        return json;
+    }
+
+    private void pause() throws InterruptedException {
+        if (mGapMs > 0) {
+            Thread.sleep(mGapMs);
+        }
+    }
+
+    private static final IProvider.Provider[] PROVIDERS = {
+            IProvider.Provider.GOOGLE, IProvider.Provider.TWITTER, IProvider.Provider.GAME_CENTER
+    };
+    private static final IProvider.Provider PUSHED = IProvider.Provider.TWITTER;
+
+    private final int mPageSize;
+    private final long mGapMs;
+}
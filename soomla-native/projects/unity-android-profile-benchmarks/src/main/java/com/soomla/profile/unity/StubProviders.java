@@ -0,0 +1,195 @@
+package com.soomla.profile.unity;
+
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.UserProfile;
+import com.soomla.profile.domain.gameservices.Leaderboard;
+import com.soomla.profile.domain.gameservices.Score;
+import com.soomla.profile.events.ProfileInitializedEvent;
+import com.soomla.profile.events.UserProfileUpdatedEvent;
+import com.soomla.profile.events.UserRatingEvent;
+import com.soomla.profile.events.auth.LoginCancelledEvent;
+import com.soomla.profile.events.auth.LoginFailedEvent;
+import com.soomla.profile.events.auth.LoginFinishedEvent;
+import com.soomla.profile.events.auth.LoginStartedEvent;
+import com.soomla.profile.events.auth.LogoutFailedEvent;
+import com.soomla.profile.events.auth.LogoutFinishedEvent;
+import com.soomla.profile.events.auth.LogoutStartedEvent;
+import com.soomla.profile.events.gameservices.GetLeaderboardsFailedEvent;
+import com.soomla.profile.events.gameservices.GetLeaderboardsFinishedEvent;
+import com.soomla.profile.events.gameservices.GetLeaderboardsStartedEvent;
+import com.soomla.profile.events.gameservices.GetScoresFailedEvent;
+import com.soomla.profile.events.gameservices.GetScoresFinishedEvent;
+import com.soomla.profile.events.gameservices.GetScoresStartedEvent;
+import com.soomla.profile.events.gameservices.ShowLeaderboardsEvent;
+import com.soomla.profile.events.gameservices.SubmitScoreFailedEvent;
+import com.soomla.profile.events.gameservices.SubmitScoreFinishedEvent;
+import com.soomla.profile.events.gameservices.SubmitScoreStartedEvent;
+import com.soomla.profile.events.social.GetContactsFailedEvent;
+import com.soomla.profile.events.social.GetContactsFinishedEvent;
+import com.soomla.profile.events.social.GetContactsStartedEvent;
+import com.soomla.profile.events.social.GetFeedFailedEvent;
+import com.soomla.profile.events.social.GetFeedFinishedEvent;
+import com.soomla.profile.events.social.GetFeedStartedEvent;
+import com.soomla.profile.events.social.InviteCancelledEvent;
+import com.soomla.profile.events.social.InviteFailedEvent;
+import com.soomla.profile.events.social.InviteFinishedEvent;
+import com.soomla.profile.events.social.InviteStartedEvent;
+import com.soomla.profile.events.social.SocialActionCancelledEvent;
+import com.soomla.profile.events.social.SocialActionFailedEvent;
+import com.soomla.profile.events.social.SocialActionFinishedEvent;
+import com.soomla.profile.events.social.SocialActionStartedEvent;
+import com.soomla.profile.social.ISocialProvider;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stands in for the provider SDKs when a trace is replayed on a JVM: instead of talking to
+ * Facebook or Google, a provider posts the events it posted when the trace was recorded.
+ *
+ * Events are rebuilt from the messages the bridge sent to Unity, which carry everything the
+ * bus events did.
+ */
+final class StubProviders {
+
+    /**
+     * @return the bus event that made the bridge send the recorded event
+     */
+    static Object toBusEvent(ProfileTraceReader.Record record) throws Exception {
+        JSONObject json = new JSONObject(record.message);
+        IProvider.Provider provider = record.provider >= 0 ? ProfileBridgeCodes.provider(record.provider) : null;
+        String payload = json.optString("payload");
+        String message = json.optString("message");
+        switch (record.eventId) {
+            case ProfileEventIds.SOOMLA_PROFILE_INITIALIZED:
+                return new ProfileInitializedEvent();
+            case ProfileEventIds.USER_RATING:
+                return new UserRatingEvent();
+            case ProfileEventIds.USER_PROFILE_UPDATED:
+                return new UserProfileUpdatedEvent(new UserProfile(json.getJSONObject("userProfile")));
+
+            case ProfileEventIds.LOGIN_STARTED:
+                return new LoginStartedEvent(provider, json.optBoolean("autoLogin"), payload);
+            case ProfileEventIds.LOGIN_FINISHED:
+                return new LoginFinishedEvent(new UserProfile(json.getJSONObject("userProfile")),
+                        json.optBoolean("autoLogin"), payload);
+            case ProfileEventIds.LOGIN_CANCELLED:
+                return new LoginCancelledEvent(provider, json.optBoolean("autoLogin"), payload);
+            case ProfileEventIds.LOGIN_FAILED:
+                return new LoginFailedEvent(provider, message, json.optBoolean("autoLogin"), payload);
+            case ProfileEventIds.LOGOUT_STARTED:
+                return new LogoutStartedEvent(provider);
+            case ProfileEventIds.LOGOUT_FINISHED:
+                return new LogoutFinishedEvent(provider);
+            case ProfileEventIds.LOGOUT_FAILED:
+                return new LogoutFailedEvent(provider, message);
+
+            case ProfileEventIds.SOCIAL_ACTION_STARTED:
+                return new SocialActionStartedEvent(provider, socialActionType(json), payload);
+            case ProfileEventIds.SOCIAL_ACTION_FINISHED:
+                return new SocialActionFinishedEvent(provider, socialActionType(json), payload);
+            case ProfileEventIds.SOCIAL_ACTION_CANCELLED:
+                return new SocialActionCancelledEvent(provider, socialActionType(json), payload);
+            case ProfileEventIds.SOCIAL_ACTION_FAILED:
+                return new SocialActionFailedEvent(provider, socialActionType(json), message, payload);
+
+            case ProfileEventIds.GET_CONTACTS_STARTED:
+                return new GetContactsStartedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS,
+                        json.optBoolean("fromStart"), payload);
+            case ProfileEventIds.GET_CONTACTS_FINISHED:
+                return new GetContactsFinishedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS,
+                        userProfiles(json.getJSONArray("contacts")), payload, json.optBoolean("hasMore"));
+            case ProfileEventIds.GET_CONTACTS_FAILED:
+                return new GetContactsFailedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS,
+                        message, false, payload);
+
+            case ProfileEventIds.GET_FEED_STARTED:
+                return new GetFeedStartedEvent(provider, ISocialProvider.SocialActionType.GET_FEED,
+                        json.optBoolean("fromStart"), payload);
+            case ProfileEventIds.GET_FEED_FINISHED:
+                return new GetFeedFinishedEvent(provider, ISocialProvider.SocialActionType.GET_FEED,
+                        strings(json.getJSONArray("feeds")), payload, json.optBoolean("hasMore"));
+            case ProfileEventIds.GET_FEED_FAILED:
+                return new GetFeedFailedEvent(provider, ISocialProvider.SocialActionType.GET_FEED,
+                        message, false, payload);
+
+            case ProfileEventIds.INVITE_STARTED:
+                return new InviteStartedEvent(provider, socialActionType(json), payload);
+            case ProfileEventIds.INVITE_FINISHED:
+                return new InviteFinishedEvent(provider, socialActionType(json), json.optString("requestId"),
+                        strings(json.getJSONArray("invitedIds")), payload);
+            case ProfileEventIds.INVITE_CANCELLED:
+                return new InviteCancelledEvent(provider, socialActionType(json), payload);
+            case ProfileEventIds.INVITE_FAILED:
+                return new InviteFailedEvent(provider, socialActionType(json), message, payload);
+
+            case ProfileEventIds.GET_LEADERBOARDS_STARTED:
+                return new GetLeaderboardsStartedEvent(provider, payload);
+            case ProfileEventIds.GET_LEADERBOARDS_FINISHED:
+                List<Leaderboard> leaderboards = new ArrayList<Leaderboard>();
+                JSONArray leaderboardsJson = json.getJSONArray("leaderboards");
+                for (int i = 0; i < leaderboardsJson.length(); i++) {
+                    leaderboards.add(new Leaderboard(leaderboardsJson.getJSONObject(i)));
+                }
+                return new GetLeaderboardsFinishedEvent(provider, leaderboards, payload);
+            case ProfileEventIds.GET_LEADERBOARDS_FAILED:
+                return new GetLeaderboardsFailedEvent(provider, message, payload);
+
+            case ProfileEventIds.GET_SCORES_STARTED:
+                return new GetScoresStartedEvent(provider, leaderboard(json), json.optBoolean("fromStart"), payload);
+            case ProfileEventIds.GET_SCORES_FINISHED:
+                List<Score> scores = new ArrayList<Score>();
+                JSONArray scoresJson = json.getJSONArray("scores");
+                for (int i = 0; i < scoresJson.length(); i++) {
+                    scores.add(new Score(scoresJson.getJSONObject(i)));
+                }
+                return new GetScoresFinishedEvent(provider, leaderboard(json), scores, json.optBoolean("hasMore"), payload);
+            case ProfileEventIds.GET_SCORES_FAILED:
+                return new GetScoresFailedEvent(provider, leaderboard(json), json.optBoolean("fromStart"), message, payload);
+
+            case ProfileEventIds.SUBMIT_SCORE_STARTED:
+                return new SubmitScoreStartedEvent(provider, leaderboard(json), payload);
+            case ProfileEventIds.SUBMIT_SCORE_FINISHED:
+                return new SubmitScoreFinishedEvent(provider, leaderboard(json),
+                        new Score(json.getJSONObject("scores")), payload);
+            case ProfileEventIds.SUBMIT_SCORE_FAILED:
+                return new SubmitScoreFailedEvent(provider, leaderboard(json), message, payload);
+            case ProfileEventIds.SHOW_LEADERBOARDS:
+                return new ShowLeaderboardsEvent(provider, payload);
+
+            default:
+                throw new IllegalArgumentException("Unknown event: " + record.eventId);
+        }
+    }
+
+    private static ISocialProvider.SocialActionType socialActionType(JSONObject json) throws JSONException {
+        return ProfileBridgeCodes.socialActionType(json.getInt("socialActionType"));
+    }
+
+    private static Leaderboard leaderboard(JSONObject json) throws JSONException {
+        return new Leaderboard(json.getJSONObject("leaderboard"));
+    }
+
+    private static List<UserProfile> userProfiles(JSONArray json) throws JSONException {
+        List<UserProfile> userProfiles = new ArrayList<UserProfile>(json.length());
+        for (int i = 0; i < json.length(); i++) {
+            userProfiles.add(new UserProfile(json.getJSONObject(i)));
+        }
+        return userProfiles;
+    }
+
+    private static List<String> strings(JSONArray json) throws JSONException {
+        List<String> strings = new ArrayList<String>(json.length());
+        for (int i = 0; i < json.length(); i++) {
+            strings.add(json.getString(i));
+        }
+        return strings;
+    }
+
+    private StubProviders() {
+    }
+}
@@ -0,0 +1,218 @@
+package com.soomla.profile.unity;
+
+import com.soomla.BusProvider;
+import com.unity3d.player.UnityPlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Replays a trace recorded by <code>ProfileTraceRecorder</code> through the bridge, and reports
+ * throughput and latency per replayed call and event.
+ *
+ * <ul>
+ * <li><code>pushEvent*</code> calls are made again, the events they caused come out of the bridge
+ * on their own.</li>
+ * <li>Events the provider SDKs caused are posted to the bus by {@link StubProviders}.</li>
+ * <li>Calls into <code>UnitySoomlaProfile</code> are only counted: they'd reach the provider SDKs,
+ * whose answers are the events above.</li>
+ * </ul>
+ *
+ * Usage: <code>TraceReplay trace-file [--speed=N] [--repeat=N]</code>. <code>--speed</code> scales
+ * the recorded time, <code>0</code> replays as fast as possible. Defaults: speed 1, repeat 1.
+ */
+public class TraceReplay {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: TraceReplay trace-file [--speed=N] [--repeat=N]");
+            System.exit(1);
+        }
+        File trace = null;
+        double speed = 1;
+        int repeat = 1;
+        for (String arg : args) {
+            if (arg.startsWith("--speed=")) {
+                speed = Double.parseDouble(arg.substring("--speed=".length()));
+            } else if (arg.startsWith("--repeat=")) {
+                repeat = Integer.parseInt(arg.substring("--repeat=".length()));
+            } else {
+                trace = new File(arg);
+            }
+        }
+
+        TraceReplay replay = new TraceReplay(speed);
+        replay.load(trace);
+        ProfileEventHandler.getInstance();
+        for (int i = 0; i < repeat; i++) {
+            replay.run();
+        }
+        replay.report(System.out);
+    }
+
+    TraceReplay(double speed) {
+        mSpeed = speed;
+    }
+
+    /**
+     * Reads the trace and prepares its steps, so parsing it isn't part of the measurements.
+     */
+    void load(File trace) throws Exception {
+        ProfileTraceReader reader = new ProfileTraceReader(trace);
+        try {
+            ProfileTraceReader.Record record;
+            while ((record = reader.next()) != null) {
+                if (record.isCall()) {
+                    if (record.target == ProfileTraceRecorder.TARGET_EVENT_HANDLER) {
+                        mSteps.add(new Step(record.timeMicros, record.method, findMethod(record), record.args, null));
+                    } else {
+                        mSkippedCalls++;
+                    }
+                } else if (!record.fromCall) {
+                    mSteps.add(new Step(record.timeMicros, ProfileEventIds.NAMES[record.eventId],
+                            null, null, StubProviders.toBusEvent(record)));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    void run() throws Exception {
+        long sentBefore = UnityPlayer.getMessageCount();
+        long started = System.nanoTime();
+        for (Step step : mSteps) {
+            if (mSpeed > 0) {
+                long due = started + (long) (step.timeMicros * 1000 / mSpeed);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+                } else {
+                    mMaxLagNanos = Math.max(mMaxLagNanos, -wait);
+                }
+            }
+
+            long stepStarted = System.nanoTime();
+            if (step.method != null) {
+                try {
+                    step.method.invoke(null, step.args);
+                } catch (InvocationTargetException e) {
+                    mFailures++;
+                }
+            } else {
+                BusProvider.getInstance().post(step.event);
+            }
+            latencies(step.name).add(System.nanoTime() - stepStarted);
+        }
+        mElapsedNanos += System.nanoTime() - started;
+        mStepsRun += mSteps.size();
+        mCallsSkipped += mSkippedCalls;
+        mEventsSent += UnityPlayer.getMessageCount() - sentBefore;
+    }
+
+    void report(Appendable out) throws IOException {
+        double seconds = mElapsedNanos / 1e9;
+        out.append(String.format(Locale.US, "steps: %d, events sent: %d, skipped UnitySoomlaProfile calls: %d, failed calls: %d%n",
+                mStepsRun, mEventsSent, mCallsSkipped, mFailures));
+        out.append(String.format(Locale.US, "elapsed: %.3fs, throughput: %.1f steps/s, %.1f events/s%n",
+                seconds, mStepsRun / seconds, mEventsSent / seconds));
+        if (mSpeed > 0) {
+            out.append(String.format(Locale.US, "max lag behind the recorded schedule: %.3fms%n", mMaxLagNanos / 1e6));
+        }
+        out.append(String.format(Locale.US, "%n%-36s %8s %10s %10s %10s %10s%n", "step", "count", "mean us", "p50 us", "p99 us", "max us"));
+        for (Map.Entry<String, Latencies> entry : mLatencies.entrySet()) {
+            Latencies latencies = entry.getValue();
+            out.append(String.format(Locale.US, "%-36s %8d %10.1f %10.1f %10.1f %10.1f%n", entry.getKey(),
+                    latencies.count, latencies.mean() / 1e3, latencies.percentile(0.5) / 1e3,
+                    latencies.percentile(0.99) / 1e3, latencies.percentile(1) / 1e3));
+        }
+    }
+
+    private static Method findMethod(ProfileTraceReader.Record record) throws NoSuchMethodException {
+        for (Method method : ProfileEventHandler.class.getDeclaredMethods()) {
+            if (method.getName().equals(record.method) && method.getParameterTypes().length == record.args.length) {
+                method.setAccessible(true);
+                return method;
+            }
+        }
+        throw new NoSuchMethodException("ProfileEventHandler." + record.method + " with " + record.args.length + " arguments");
+    }
+
+    private Latencies latencies(String name) {
+        Latencies latencies = mLatencies.get(name);
+        if (latencies == null) {
+            latencies = new Latencies();
+            mLatencies.put(name, latencies);
+        }
+        return latencies;
+    }
+
+    private static class Step {
+
+        Step(long timeMicros, String name, Method method, Object[] args, Object event) {
+            this.timeMicros = timeMicros;
+            this.name = name;
+            this.method = method;
+            this.args = args;
+            this.event = event;
+        }
+
+        final long timeMicros;
+        final String name;
+        final Method method;
+        final Object[] args;
+        final Object event;
+    }
+
+    private static class Latencies {
+
+        void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+            total += nanos;
+            sorted = false;
+        }
+
+        double mean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        long percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(values, 0, count);
+                sorted = true;
+            }
+            int index = Math.max((int) Math.ceil(p * count) - 1, 0);
+            return values[Math.min(index, count - 1)];
+        }
+
+        long[] values = new long[64];
+        int count;
+        long total;
+        boolean sorted;
+    }
+
+    private final double mSpeed;
+    private final List<Step> mSteps = new ArrayList<Step>();
+    private final Map<String, Latencies> mLatencies = new TreeMap<String, Latencies>();
+    private int mSkippedCalls;
+    private int mFailures;
+    private long mStepsRun;
+    private long mCallsSkipped;
+    private long mEventsSent;
+    private long mElapsedNanos;
+    private long mMaxLagNanos;
+}
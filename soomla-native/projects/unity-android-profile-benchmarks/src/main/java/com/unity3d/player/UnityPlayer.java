@@ -0,0 +1,37 @@
+package com.unity3d.player;
+
+import android.app.Activity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for Unity's <code>UnityPlayer</code>. <code>UnitySendMessage</code> is a JNI call
+ * into the engine on a device, here it only counts the messages and their characters, so
+ * benchmarks measure the bridge's side of sending an event and nothing else.
+ */
+public class UnityPlayer {
+
+    public static Activity currentActivity;
+
+    public static void UnitySendMessage(String gameObject, String methodName, String message) {
+        sMessages.incrementAndGet();
+        sChars.addAndGet(message.length());
+    }
+
+    /**
+     * @return how many messages were sent since the JVM started
+     */
+    public static long getMessageCount() {
+        return sMessages.get();
+    }
+
+    /**
+     * @return the total length of the messages sent since the JVM started
+     */
+    public static long getMessageChars() {
+        return sChars.get();
+    }
+
+    private static final AtomicLong sMessages = new AtomicLong();
+    private static final AtomicLong sChars = new AtomicLong();
+}
@@ -0,0 +1,82 @@
+package com.soomla.profile.unity;
+
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stands in for a provider SDK behind <code>ProfileActionJournal</code>: it records the actions
+ * it's handed, and the test reports them finished or failed the way the provider's events would.
+ */
+class FakeSocialProvider implements ProfileActionJournal.Dispatcher {
+
+    FakeSocialProvider(ProfileActionJournal journal) {
+        mJournal = journal;
+    }
+
+    /**
+     * @param ready whether the provider is set up, actions dispatched before it is fail with
+     *              <code>ProviderNotFoundException</code>
+     */
+    synchronized void setReady(boolean ready) {
+        mReady = ready;
+    }
+
+    @Override
+    public synchronized void dispatch(ProfileActionJournal.Action action) throws ProviderNotFoundException {
+        if (!mReady) {
+            throw new ProviderNotFoundException(action.provider);
+        }
+        mDispatched.add(action);
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void checkProvider(IProvider.Provider provider) throws ProviderNotFoundException {
+        if (!mReady) {
+            throw new ProviderNotFoundException(provider);
+        }
+    }
+
+    @Override
+    public synchronized void fail(ProfileActionJournal.Action action, String errorMessage) {
+        mFailed.add(action);
+    }
+
+    /**
+     * @return the actions the journal gave up on and reported failed itself
+     */
+    synchronized List<ProfileActionJournal.Action> failed() {
+        return new ArrayList<ProfileActionJournal.Action>(mFailed);
+    }
+
+    /**
+     * @return the <code>index</code>th action dispatched, waiting for it for up to a second
+     */
+    synchronized ProfileActionJournal.Action dispatched(int index) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (mDispatched.size() <= index && System.currentTimeMillis() < deadline) {
+            wait(deadline - System.currentTimeMillis());
+        }
+        return index < mDispatched.size() ? mDispatched.get(index) : null;
+    }
+
+    synchronized int dispatchedCount() {
+        return mDispatched.size();
+    }
+
+    void finish(ProfileActionJournal.Action action) {
+        mJournal.onFinished(action.provider, action.type, action.args.optString("payload"));
+    }
+
+    boolean fail(ProfileActionJournal.Action action) {
+        return mJournal.onFailed(action.provider, action.type, action.args.optString("payload"));
+    }
+
+    private final ProfileActionJournal mJournal;
+    private final List<ProfileActionJournal.Action> mDispatched = new ArrayList<ProfileActionJournal.Action>();
+    private final List<ProfileActionJournal.Action> mFailed = new ArrayList<ProfileActionJournal.Action>();
+    private boolean mReady = true;
+}
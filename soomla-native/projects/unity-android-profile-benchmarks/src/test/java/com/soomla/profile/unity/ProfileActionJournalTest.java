@@ -0,0 +1,174 @@
+package com.soomla.profile.unity;
+
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Drives <code>ProfileActionJournal</code> with a {@link FakeSocialProvider} on a journal file
+ * in a temporary directory.
+ */
+public class ProfileActionJournalTest {
+
+    @Before
+    public void setUp() throws Exception {
+        mFile = File.createTempFile("soomla_profile_actions", ".journal");
+        mFile.delete();
+    }
+
+    @After
+    public void tearDown() {
+        mFile.delete();
+    }
+
+    @Test
+    public void overlappingActionsCompleteTheirOwnRecords() throws Exception {
+        ProfileActionJournal journal = new ProfileActionJournal();
+        FakeSocialProvider provider = new FakeSocialProvider(journal);
+        journal.setDispatcher(provider);
+        journal.onProfileInitialized();
+        journal.setEnabled(true, 0, mFile);
+
+        journal.execute(status("first"));
+        journal.execute(status("second"));
+        ProfileActionJournal.Action first = provider.dispatched(0);
+        ProfileActionJournal.Action second = provider.dispatched(1);
+        assertEquals(2, journal.getPendingCount());
+
+        // the second one finishes first
+        provider.finish(second);
+        assertEquals(1, journal.getPendingCount());
+        provider.finish(second);
+        assertEquals(1, journal.getPendingCount());
+        provider.finish(first);
+        assertEquals(0, journal.getPendingCount());
+        journal.setEnabled(false, 0, null);
+    }
+
+    @Test
+    public void failuresAreRetriedAndOthersForwarded() throws Exception {
+        ProfileActionJournal journal = new ProfileActionJournal();
+        FakeSocialProvider provider = new FakeSocialProvider(journal);
+        journal.setDispatcher(provider);
+        journal.setRetryPolicy(2, 0);
+        journal.onProfileInitialized();
+        journal.setEnabled(true, 0, mFile);
+
+        assertFalse("a failure of an action the journal didn't dispatch",
+                journal.onFailed(IProvider.Provider.FACEBOOK, ProfileActionJournal.UPDATE_STATUS, payload("other")));
+
+        journal.execute(status("flaky"));
+        assertTrue(provider.fail(provider.dispatched(0)));
+        ProfileActionJournal.Action retried = provider.dispatched(1);
+        assertNotNull("the failed action is dispatched again", retried);
+        assertFalse("out of attempts, the failure goes to Unity", provider.fail(retried));
+        assertEquals(0, journal.getPendingCount());
+        journal.setEnabled(false, 0, null);
+    }
+
+    @Test
+    public void replayWaitsForProfileInitialization() throws Exception {
+        ProfileActionJournal journal = new ProfileActionJournal();
+        FakeSocialProvider provider = new FakeSocialProvider(journal);
+        journal.setDispatcher(provider);
+        journal.onProfileInitialized();
+        journal.setEnabled(true, 0, mFile);
+        journal.execute(status("first"));
+        journal.execute(status("second"));
+        // the process dies before the provider reports back
+        journal.setEnabled(false, 0, null);
+
+        ProfileActionJournal restarted = new ProfileActionJournal();
+        FakeSocialProvider restartedProvider = new FakeSocialProvider(restarted);
+        restartedProvider.setReady(false);
+        restarted.setDispatcher(restartedProvider);
+        restarted.setEnabled(true, 0, mFile);
+        assertEquals(2, restarted.getPendingCount());
+        assertEquals(0, restartedProvider.dispatchedCount());
+
+        restartedProvider.setReady(true);
+        restarted.onProfileInitialized();
+        ProfileActionJournal.Action first = restartedProvider.dispatched(0);
+        ProfileActionJournal.Action second = restartedProvider.dispatched(1);
+        assertEquals("first", new JSONObject(first.args.getString("payload")).getString("userPayload"));
+        assertEquals("second", new JSONObject(second.args.getString("payload")).getString("userPayload"));
+        assertNull(restartedProvider.dispatched(2));
+
+        restartedProvider.finish(first);
+        restartedProvider.finish(second);
+        assertEquals(0, restarted.getPendingCount());
+        restarted.setEnabled(false, 0, null);
+    }
+
+    @Test
+    public void missingProviderFailsAsWithoutTheJournal() throws Exception {
+        ProfileActionJournal journal = new ProfileActionJournal();
+        FakeSocialProvider provider = new FakeSocialProvider(journal);
+        provider.setReady(false);
+        journal.setDispatcher(provider);
+        journal.onProfileInitialized();
+        journal.setEnabled(true, 0, mFile);
+
+        try {
+            journal.execute(status("nowhere"));
+            fail("the call must throw, as it does with the journal off");
+        } catch (ProviderNotFoundException e) {
+            // expected
+        }
+        assertEquals(0, journal.getPendingCount());
+        journal.setEnabled(false, 0, null);
+    }
+
+    @Test
+    public void replayedActionWithoutProviderIsReportedFailed() throws Exception {
+        ProfileActionJournal journal = new ProfileActionJournal();
+        FakeSocialProvider provider = new FakeSocialProvider(journal);
+        journal.setDispatcher(provider);
+        journal.onProfileInitialized();
+        journal.setEnabled(true, 0, mFile);
+        journal.execute(status("orphan"));
+        journal.setEnabled(false, 0, null);
+
+        ProfileActionJournal restarted = new ProfileActionJournal();
+        FakeSocialProvider restartedProvider = new FakeSocialProvider(restarted);
+        restartedProvider.setReady(false);
+        restarted.setDispatcher(restartedProvider);
+        restarted.setEnabled(true, 0, mFile);
+        assertEquals(1, restarted.getPendingCount());
+
+        // initialized without the provider, the record can never be performed
+        restarted.onProfileInitialized();
+        assertEquals(0, restarted.getPendingCount());
+        List<ProfileActionJournal.Action> failed = restartedProvider.failed();
+        assertEquals(1, failed.size());
+        assertEquals("orphan", new JSONObject(failed.get(0).args.getString("payload")).getString("userPayload"));
+        restarted.setEnabled(false, 0, null);
+    }
+
+    private static ProfileActionJournal.Action status(String userPayload) throws Exception {
+        JSONObject args = new JSONObject();
+        args.put("status", "Playing");
+        args.put("payload", payload(userPayload));
+        return new ProfileActionJournal.Action(ProfileActionJournal.UPDATE_STATUS, IProvider.Provider.FACEBOOK, args);
+    }
+
+    private static String payload(String userPayload) throws Exception {
+        return new JSONObject().put("userPayload", userPayload).toString();
+    }
+
+    private File mFile;
+}
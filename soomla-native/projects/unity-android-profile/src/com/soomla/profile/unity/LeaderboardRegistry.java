@@ -0,0 +1,112 @@
+package com.soomla.profile.unity;
+
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.gameservices.Leaderboard;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the leaderboards a game works with, so bridge calls can refer to them by id
+ * instead of sending and parsing their JSON every time.
+ *
+ * Leaderboards are registered from <code>GetLeaderboardsFinishedEvent</code>, and
+ * leaderboards that do arrive as JSON are parsed once per distinct JSON string.
+ */
+public class LeaderboardRegistry {
+
+    private static LeaderboardRegistry sInstance;
+
+    public static synchronized LeaderboardRegistry getInstance() {
+        if (sInstance == null) {
+            sInstance = new LeaderboardRegistry();
+        }
+        return sInstance;
+    }
+
+    private LeaderboardRegistry() {
+    }
+
+    public synchronized void register(IProvider.Provider provider, List<Leaderboard> leaderboards) {
+        Map<String, Leaderboard> byId = mById.get(provider);
+        if (byId == null) {
+            byId = new HashMap<String, Leaderboard>();
+            mById.put(provider, byId);
+        }
+        for (Leaderboard leaderboard : leaderboards) {
+            String leaderboardId = leaderboard.toJSONObject().optString(IDENTIFIER);
+            Leaderboard old = byId.put(leaderboardId, leaderboard);
+            if (old != null) {
+                mIds.remove(old);
+            }
+            mIds.put(leaderboard, leaderboardId);
+        }
+    }
+
+    /**
+     * @return the registered leaderboard, or <code>null</code> if the provider
+     * didn't return it yet
+     */
+    public synchronized Leaderboard get(IProvider.Provider provider, String leaderboardId) {
+        Map<String, Leaderboard> byId = mById.get(provider);
+        return byId == null ? null : byId.get(leaderboardId);
+    }
+
+    /**
+     * Parses a leaderboard sent from Unity, reusing the instance parsed from the same JSON before.
+     */
+    public Leaderboard parse(String json) throws JSONException {
+        synchronized (this) {
+            Leaderboard leaderboard = mByJson.get(json);
+            if (leaderboard != null) {
+                return leaderboard;
+            }
+        }
+
+        JSONObject jsonObject = new JSONObject(json);
+        Leaderboard leaderboard = new Leaderboard(jsonObject);
+        synchronized (this) {
+            if (mByJson.size() >= MAX_PARSED) {
+                for (Leaderboard parsed : mByJson.values()) {
+                    mIds.remove(parsed);
+                }
+                mByJson.clear();
+            }
+            mByJson.put(json, leaderboard);
+            mIds.put(leaderboard, jsonObject.optString(IDENTIFIER));
+        }
+        return leaderboard;
+    }
+
+    /**
+     * @return the identifier of a leaderboard returned by this registry
+     */
+    public String getId(Leaderboard leaderboard) {
+        synchronized (this) {
+            String leaderboardId = mIds.get(leaderboard);
+            if (leaderboardId != null) {
+                return leaderboardId;
+            }
+        }
+        return leaderboard.toJSONObject().optString(IDENTIFIER);
+    }
+
+    public synchronized void clear() {
+        mById.clear();
+        mByJson.clear();
+        mIds.clear();
+    }
+
+    private static final String IDENTIFIER = "identifier";
+    private static final int MAX_PARSED = 64;
+
+    private final Map<IProvider.Provider, Map<String, Leaderboard>> mById =
+            new HashMap<IProvider.Provider, Map<String, Leaderboard>>();
+    private final Map<String, Leaderboard> mByJson = new HashMap<String, Leaderboard>();
+    private final Map<Leaderboard, String> mIds = new IdentityHashMap<Leaderboard, String>();
+}
@@ -0,0 +1,135 @@
+package com.soomla.profile.unity;
+
+import android.app.Activity;
+
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.SoomlaProfile;
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps every provider's login state, so polling <code>isLoggedIn</code> doesn't ask the
+ * provider's SDK each time.
+ *
+ * The table is kept up to date from login and logout events: a finished login or logout
+ * sets the state, a failed or cancelled one makes it unknown. Unknown and expired states
+ * are checked with <code>SoomlaProfile.isLoggedIn</code>. Reads don't lock: every entry is
+ * a single <code>long</code> holding the state and when it was set.
+ */
+public class LoginStateCache {
+
+    public static final long DEFAULT_TTL_MS = 5 * 60 * 1000;
+
+    private static LoginStateCache sInstance;
+
+    public static synchronized LoginStateCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new LoginStateCache();
+        }
+        return sInstance;
+    }
+
+    private LoginStateCache() {
+        mEntries = new AtomicLongArray(IProvider.Provider.values().length);
+    }
+
+    /**
+     * @param ttlMs how long a state is trusted before the SDK is asked again,
+     *              <code>0</code> or less means {@link #DEFAULT_TTL_MS}
+     */
+    public void setEnabled(boolean enabled, long ttlMs) {
+        SoomlaUtils.LogDebug(TAG, "Login state cache " + (enabled ? "enabled" : "disabled"));
+        mTtlMs = ttlMs > 0 ? ttlMs : DEFAULT_TTL_MS;
+        invalidateAll();
+        mEnabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * @return whether the user is logged into the provider, asking the SDK if the cache is off
+     * or the state is unknown or expired
+     */
+    public boolean isLoggedIn(Activity activity, IProvider.Provider provider) throws ProviderNotFoundException {
+        if (!mEnabled) {
+            return SoomlaProfile.getInstance().isLoggedIn(activity, provider);
+        }
+        int index = provider.ordinal();
+        long entry = mEntries.get(index);
+        long now = now();
+        if (state(entry) != UNKNOWN && now - time(entry) < mTtlMs) {
+            return state(entry) == LOGGED_IN;
+        }
+
+        boolean loggedIn = SoomlaProfile.getInstance().isLoggedIn(activity, provider);
+        // an event that came in while the SDK was asked is newer than its answer
+        if (!mEntries.compareAndSet(index, entry, entry(loggedIn ? LOGGED_IN : LOGGED_OUT, now))) {
+            long current = mEntries.get(index);
+            if (state(current) != UNKNOWN) {
+                return state(current) == LOGGED_IN;
+            }
+        }
+        return loggedIn;
+    }
+
+    public void onLoggedIn(IProvider.Provider provider) {
+        set(provider, LOGGED_IN);
+    }
+
+    public void onLoggedOut(IProvider.Provider provider) {
+        set(provider, LOGGED_OUT);
+    }
+
+    /**
+     * Makes the provider's state unknown, e.g. after a failed login, so it's checked on the next read.
+     */
+    public void invalidate(IProvider.Provider provider) {
+        set(provider, UNKNOWN);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < mEntries.length(); i++) {
+            mEntries.set(i, 0);
+        }
+    }
+
+    private void set(IProvider.Provider provider, int state) {
+        if (provider == null || !mEnabled) {
+            return;
+        }
+        mEntries.set(provider.ordinal(), state == UNKNOWN ? 0 : entry(state, now()));
+    }
+
+    private static long entry(int state, long time) {
+        return (time << STATE_BITS) | state;
+    }
+
+    private static int state(long entry) {
+        return (int) (entry & STATE_MASK);
+    }
+
+    private static long time(long entry) {
+        return entry >>> STATE_BITS;
+    }
+
+    private static long now() {
+        return (System.nanoTime() - START_NANOS) / 1000000;
+    }
+
+    private static final String TAG = "SOOMLA LoginStateCache";
+
+    private static final int UNKNOWN = 0;
+    private static final int LOGGED_OUT = 1;
+    private static final int LOGGED_IN = 2;
+    private static final int STATE_BITS = 2;
+    private static final long STATE_MASK = (1 << STATE_BITS) - 1;
+    private static final long START_NANOS = System.nanoTime();
+
+    private final AtomicLongArray mEntries;
+    private volatile boolean mEnabled = false;
+    private volatile long mTtlMs = DEFAULT_TTL_MS;
+}
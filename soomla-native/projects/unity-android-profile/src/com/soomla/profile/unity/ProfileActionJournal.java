@@ -0,0 +1,749 @@
+package com.soomla.profile.unity;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.soomla.BusProvider;
+import com.soomla.SoomlaApp;
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.SoomlaProfile;
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.gameservices.Leaderboard;
+import com.soomla.profile.events.gameservices.SubmitScoreFailedEvent;
+import com.soomla.profile.events.social.SocialActionFailedEvent;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
+import com.soomla.profile.exceptions.UserProfileNotFoundException;
+import com.soomla.profile.social.ISocialProvider;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A write-ahead journal of social actions, so actions that fail (e.g. while offline) are
+ * retried with backoff, and actions interrupted by process death are replayed on the next run.
+ *
+ * The journal is an append-only file under the app's files dir, mapped into memory.
+ * Every action is appended before it's dispatched, and marked done in place once the
+ * provider reports it finished or cancelled, or once it ran out of retries. Appends are
+ * plain memory writes; the mapping is forced to disk in groups, once per commit interval.
+ *
+ * Layout:
+ * <pre>
+ * [0]  int magic
+ * [4]  int end of the last record
+ * [8]  records of
+ *      int length | byte state | action JSON (UTF-8)
+ * </pre>
+ *
+ * Completion is tracked through the regular <code>SocialAction*</code> and
+ * <code>SubmitScore*</code> events, which <code>ProfileEventHandler</code> passes
+ * through {@link #onFinished} and {@link #onFailed}. Every record has an ID, which the
+ * journal adds to the payload it dispatches the action with, so an event is matched to the
+ * exact action it belongs to. Failures of actions that will be retried are not forwarded to Unity.
+ *
+ * Actions whose provider isn't ready yet, e.g. when replaying before <code>SoomlaProfile</code>
+ * is initialized, are kept pending and dispatched once it is.
+ */
+public class ProfileActionJournal {
+
+    public static final String UPDATE_STATUS = "UPDATE_STATUS";
+    public static final String UPDATE_STORY = "UPDATE_STORY";
+    public static final String UPLOAD_IMAGE = "UPLOAD_IMAGE";
+    public static final String SUBMIT_SCORE = "SUBMIT_SCORE";
+
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+    public static final int DEFAULT_COMMIT_INTERVAL_MS = 1000;
+
+    /**
+     * Performs journaled actions. Replaceable so the journal can be driven by a fake provider.
+     */
+    public interface Dispatcher {
+        void dispatch(Action action) throws ProviderNotFoundException, JSONException;
+
+        /**
+         * @throws ProviderNotFoundException if the provider isn't set up
+         */
+        void checkProvider(IProvider.Provider provider) throws ProviderNotFoundException;
+
+        /**
+         * Reports an action the journal gave up on before its provider could, with the event
+         * the provider would have posted.
+         */
+        void fail(Action action, String errorMessage);
+    }
+
+    /**
+     * A social action and everything needed to perform it again.
+     */
+    public static class Action {
+
+        public Action(String type, IProvider.Provider provider, JSONObject args) {
+            this.type = type;
+            this.provider = provider;
+            this.args = args;
+        }
+
+        Action(JSONObject json) throws JSONException, ProviderNotFoundException {
+            this(json.getString("type"), IProvider.Provider.getEnum(json.getString("provider")),
+                    json.getJSONObject("args"));
+        }
+
+        JSONObject toJSONObject() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("type", type);
+            json.put("provider", provider.toString());
+            json.put("args", args);
+            return json;
+        }
+
+        public final String type;
+        public final IProvider.Provider provider;
+        public final JSONObject args;
+    }
+
+    private static ProfileActionJournal sInstance;
+
+    public static synchronized ProfileActionJournal getInstance() {
+        if (sInstance == null) {
+            sInstance = new ProfileActionJournal();
+        }
+        return sInstance;
+    }
+
+    // package-private so tests can drive fresh journals
+    ProfileActionJournal() {
+        mMainHandler = new Handler(Looper.getMainLooper());
+        mCommitExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "SoomlaProfileActionJournal");
+            }
+        });
+    }
+
+    /**
+     * Opens the journal and replays the actions left over from previous runs, or closes it.
+     *
+     * @param commitIntervalMs how often appended records are forced to disk,
+     *                         <code>0</code> or less means {@link #DEFAULT_COMMIT_INTERVAL_MS}
+     */
+    public void setEnabled(boolean enabled, int commitIntervalMs) {
+        setEnabled(enabled, commitIntervalMs, enabled && mBuffer == null ?
+                new File(SoomlaApp.getAppContext().getFilesDir(), FILE_NAME) : null);
+    }
+
+    /**
+     * Same as {@link #setEnabled(boolean, int)}, opening the given file, so the journal can be
+     * driven off a device.
+     */
+    void setEnabled(boolean enabled, int commitIntervalMs, File file) {
+        List<Entry> replay = null;
+        MappedByteBuffer toForce = null;
+        synchronized (this) {
+            mCommitIntervalMs = commitIntervalMs > 0 ? commitIntervalMs : DEFAULT_COMMIT_INTERVAL_MS;
+            if (enabled && mBuffer == null) {
+                try {
+                    open(file);
+                    replay = new ArrayList<Entry>(mEntries);
+                    toForce = mBuffer;
+                } catch (IOException e) {
+                    SoomlaUtils.LogError(TAG, "Couldn't open the action journal: " + e.getMessage());
+                    return;
+                }
+            } else if (!enabled && mBuffer != null) {
+                toForce = mBuffer;
+                mBuffer = null;
+                mEntries.clear();
+                mInFlight.clear();
+                mWaitingForProfile.clear();
+            }
+        }
+        force(toForce);
+        SoomlaUtils.LogDebug(TAG, "Action journal " + (enabled ? "enabled" : "disabled"));
+
+        if (replay != null && !replay.isEmpty()) {
+            SoomlaUtils.LogDebug(TAG, "Replaying " + replay.size() + " journaled actions");
+            for (Entry entry : replay) {
+                dispatch(entry);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return mBuffer != null;
+    }
+
+    /**
+     * @return how many actions are journaled and not done yet
+     */
+    synchronized int getPendingCount() {
+        return mEntries.size();
+    }
+
+    public void setDispatcher(Dispatcher dispatcher) {
+        mDispatcher = dispatcher;
+    }
+
+    /**
+     * @param maxAttempts how many times an action is tried before it's given up on
+     * @param baseBackoffMs delay before the first retry, doubled for every further one
+     */
+    public synchronized void setRetryPolicy(int maxAttempts, long baseBackoffMs) {
+        mMaxAttempts = Math.max(maxAttempts, 1);
+        mBaseBackoffMs = Math.max(baseBackoffMs, 0);
+    }
+
+    /**
+     * Journals the action and dispatches it. When the journal is closed, or the action
+     * doesn't fit in it, the action is only dispatched.
+     *
+     * @throws ProviderNotFoundException once <code>SoomlaProfile</code> is initialized, if the
+     * action's provider isn't set up, as without the journal. Before that the action waits
+     * for initialization.
+     */
+    public void execute(Action action) throws ProviderNotFoundException {
+        if (isProfileInitialized()) {
+            mDispatcher.checkProvider(action.provider);
+        }
+        Entry entry = null;
+        synchronized (this) {
+            if (mBuffer != null) {
+                entry = append(action);
+            }
+        }
+
+        if (entry == null) {
+            try {
+                mDispatcher.dispatch(action);
+            } catch (JSONException e) {
+                throw new IllegalStateException(e);
+            }
+            return;
+        }
+        dispatch(entry);
+    }
+
+    public void updateStatus(IProvider.Provider provider, String status, String payload)
+            throws ProviderNotFoundException {
+        if (!isEnabled()) {
+            SoomlaProfile.getInstance().updateStatus(provider, status, payload, null);
+            return;
+        }
+        try {
+            JSONObject args = new JSONObject();
+            args.put("status", status);
+            args.put("payload", payload);
+            execute(new Action(UPDATE_STATUS, provider, args));
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void updateStory(IProvider.Provider provider, String message, String name, String caption,
+                            String description, String link, String pictureUrl, String payload)
+            throws ProviderNotFoundException {
+        if (!isEnabled()) {
+            SoomlaProfile.getInstance().updateStory(provider, message, name, caption, description,
+                    link, pictureUrl, payload, null);
+            return;
+        }
+        try {
+            JSONObject args = new JSONObject();
+            args.put("message", message);
+            args.put("name", name);
+            args.put("caption", caption);
+            args.put("description", description);
+            args.put("link", link);
+            args.put("pictureUrl", pictureUrl);
+            args.put("payload", payload);
+            execute(new Action(UPDATE_STORY, provider, args));
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void uploadImage(IProvider.Provider provider, String message, String filePath, String payload)
+            throws ProviderNotFoundException {
+        if (!isEnabled()) {
+            SoomlaProfile.getInstance().uploadImage(provider, message, filePath, payload, null);
+            return;
+        }
+        try {
+            JSONObject args = new JSONObject();
+            args.put("message", message);
+            args.put("filePath", filePath);
+            args.put("payload", payload);
+            execute(new Action(UPLOAD_IMAGE, provider, args));
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void submitScore(IProvider.Provider provider, Leaderboard leaderboard, long score, String payload)
+            throws ProviderNotFoundException {
+        if (!isEnabled()) {
+            SoomlaProfile.getInstance().submitScore(provider, leaderboard, score, payload, null);
+            return;
+        }
+        try {
+            JSONObject args = new JSONObject();
+            args.put("leaderboard", leaderboard.toJSONObject().toString());
+            args.put("score", score);
+            args.put("payload", payload);
+            execute(new Action(SUBMIT_SCORE, provider, args));
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Called for every finished or cancelled social action and score submission.
+     *
+     * @param payload the event's payload, which tells the journal's own actions apart
+     */
+    public void onFinished(IProvider.Provider provider, String type, String payload) {
+        synchronized (this) {
+            Entry entry = pollInFlight(provider, type, payload);
+            if (entry != null) {
+                complete(entry);
+            }
+        }
+    }
+
+    /**
+     * Called for every failed social action and score submission.
+     *
+     * @param payload the event's payload, which tells the journal's own actions apart
+     * @return <code>true</code> if the action will be retried, and the failure must not be
+     * forwarded to Unity
+     */
+    public boolean onFailed(IProvider.Provider provider, String type, String payload) {
+        final Entry entry;
+        long delay;
+        synchronized (this) {
+            entry = pollInFlight(provider, type, payload);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.attempts >= mMaxAttempts) {
+                SoomlaUtils.LogError(TAG, "Giving up on " + type + " after " + entry.attempts + " attempts");
+                complete(entry);
+                return false;
+            }
+            delay = mBaseBackoffMs << Math.min(entry.attempts - 1, MAX_BACKOFF_SHIFT);
+        }
+
+        SoomlaUtils.LogDebug(TAG, "Retrying " + type + " in " + delay + "ms");
+        mMainHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                dispatch(entry);
+            }
+        }, delay);
+        return true;
+    }
+
+    /**
+     * Dispatches the actions that were waiting for their provider, called once
+     * <code>SoomlaProfile</code> is initialized.
+     */
+    public void onProfileInitialized() {
+        List<Entry> waiting;
+        synchronized (this) {
+            mProfileInitialized = true;
+            waiting = new ArrayList<Entry>(mWaitingForProfile);
+            mWaitingForProfile.clear();
+        }
+        if (!waiting.isEmpty()) {
+            SoomlaUtils.LogDebug(TAG, "Dispatching " + waiting.size() + " journaled actions that waited for initialization");
+        }
+        for (Entry entry : waiting) {
+            dispatch(entry);
+        }
+    }
+
+    private synchronized boolean isProfileInitialized() {
+        return mProfileInitialized;
+    }
+
+    private void dispatch(Entry entry) {
+        Action action;
+        synchronized (this) {
+            if (entry.done || mBuffer == null) {
+                return;
+            }
+            entry.attempts++;
+            String key = key(entry.action.provider, entry.action.type);
+            LinkedList<Entry> inFlight = mInFlight.get(key);
+            if (inFlight == null) {
+                inFlight = new LinkedList<Entry>();
+                mInFlight.put(key, inFlight);
+            }
+            inFlight.add(entry);
+            action = entry.dispatched;
+        }
+
+        try {
+            mDispatcher.dispatch(action);
+        } catch (ProviderNotFoundException e) {
+            synchronized (this) {
+                removeInFlight(entry);
+                if (!mProfileInitialized) {
+                    // the provider isn't set up yet, the record stays pending until it is
+                    SoomlaUtils.LogDebug(TAG, "Journaled " + entry.action.type + " waits for " + entry.action.provider);
+                    entry.attempts--;
+                    mWaitingForProfile.add(entry);
+                    return;
+                }
+                complete(entry);
+            }
+            drop(entry, e);
+        } catch (Exception e) {
+            synchronized (this) {
+                removeInFlight(entry);
+                complete(entry);
+            }
+            drop(entry, e);
+        }
+    }
+
+    /**
+     * Reports a record that was given up on without reaching its provider, so Unity gets
+     * the failure the call would have had without the journal.
+     */
+    private void drop(Entry entry, Exception e) {
+        String errorMessage = "Couldn't dispatch journaled " + entry.action.type + ": " + e.getMessage();
+        SoomlaUtils.LogError(TAG, errorMessage);
+        mDispatcher.fail(entry.action, errorMessage);
+    }
+
+    /**
+     * @return the in-flight action the event with the given payload belongs to, <code>null</code>
+     * if it isn't one of the journal's
+     */
+    private Entry pollInFlight(IProvider.Provider provider, String type, String payload) {
+        LinkedList<Entry> inFlight = mInFlight.get(key(provider, type));
+        if (inFlight == null) {
+            return null;
+        }
+        for (Iterator<Entry> it = inFlight.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.payload.equals(payload != null ? payload : "")) {
+                it.remove();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void removeInFlight(Entry entry) {
+        LinkedList<Entry> inFlight = mInFlight.get(key(entry.action.provider, entry.action.type));
+        if (inFlight != null) {
+            inFlight.remove(entry);
+        }
+    }
+
+    private void open(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            long length = Math.max(raf.length(), DEFAULT_CAPACITY);
+            mBuffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+        } finally {
+            // the mapping stays valid after the file is closed
+            raf.close();
+        }
+
+        mEntries.clear();
+        if (mBuffer.getInt(0) != MAGIC) {
+            mBuffer.putInt(0, MAGIC);
+            mBuffer.putInt(4, HEADER_SIZE);
+            return;
+        }
+
+        List<Action> pending = new ArrayList<Action>();
+        List<Long> pendingIds = new ArrayList<Long>();
+        int end = mBuffer.getInt(4);
+        int pos = HEADER_SIZE;
+        while (pos + RECORD_HEADER_SIZE <= end) {
+            int length = mBuffer.getInt(pos);
+            if (length <= 0 || pos + RECORD_HEADER_SIZE + length > end) {
+                break;
+            }
+            if (mBuffer.get(pos + 4) == STATE_PENDING) {
+                byte[] body = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    body[i] = mBuffer.get(pos + RECORD_HEADER_SIZE + i);
+                }
+                try {
+                    JSONObject json = new JSONObject(new String(body, "UTF-8"));
+                    pending.add(new Action(json));
+                    pendingIds.add(json.optLong(ID));
+                    mNextId = Math.max(mNextId, json.optLong(ID) + 1);
+                } catch (Exception e) {
+                    SoomlaUtils.LogError(TAG, "Dropping unreadable journal record: " + e.getMessage());
+                }
+            }
+            pos += RECORD_HEADER_SIZE + length;
+        }
+
+        // rewrite the journal with the pending actions only
+        mBuffer.putInt(4, HEADER_SIZE);
+        for (int i = 0; i < pending.size(); i++) {
+            append(pending.get(i), pendingIds.get(i));
+        }
+    }
+
+    private Entry append(Action action) {
+        return append(action, mNextId++);
+    }
+
+    private Entry append(Action action, long id) {
+        byte[] body;
+        try {
+            body = action.toJSONObject().put(ID, id).toString().getBytes("UTF-8");
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        int end = mBuffer.getInt(4);
+        if (end + RECORD_HEADER_SIZE + body.length > mBuffer.capacity()) {
+            compact();
+            end = mBuffer.getInt(4);
+            if (end + RECORD_HEADER_SIZE + body.length > mBuffer.capacity()) {
+                SoomlaUtils.LogError(TAG, "Action journal is full, not journaling " + action.type);
+                return null;
+            }
+        }
+
+        mBuffer.putInt(end, body.length);
+        mBuffer.put(end + 4, STATE_PENDING);
+        for (int i = 0; i < body.length; i++) {
+            mBuffer.put(end + RECORD_HEADER_SIZE + i, body[i]);
+        }
+        mBuffer.putInt(4, end + RECORD_HEADER_SIZE + body.length);
+        scheduleCommit();
+
+        Entry entry = new Entry(end, action, tag(action, id));
+        mEntries.add(entry);
+        return entry;
+    }
+
+    private void complete(Entry entry) {
+        entry.done = true;
+        mEntries.remove(entry);
+        if (mBuffer == null) {
+            return;
+        }
+
+        mBuffer.put(entry.offset + 4, STATE_DONE);
+        if (mEntries.isEmpty()) {
+            // nothing left to replay, start over from the top
+            mBuffer.putInt(4, HEADER_SIZE);
+        }
+        scheduleCommit();
+    }
+
+    /**
+     * Moves the pending records to the top of the journal, dropping the done ones.
+     */
+    private void compact() {
+        int pos = HEADER_SIZE;
+        for (Entry entry : mEntries) {
+            int length = RECORD_HEADER_SIZE + mBuffer.getInt(entry.offset);
+            if (entry.offset != pos) {
+                for (int i = 0; i < length; i++) {
+                    mBuffer.put(pos + i, mBuffer.get(entry.offset + i));
+                }
+                entry.offset = pos;
+            }
+            pos += length;
+        }
+        mBuffer.putInt(4, pos);
+        scheduleCommit();
+    }
+
+    private void scheduleCommit() {
+        if (mCommitScheduled) {
+            return;
+        }
+        mCommitScheduled = true;
+        mCommitExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                MappedByteBuffer buffer;
+                synchronized (ProfileActionJournal.this) {
+                    mCommitScheduled = false;
+                    buffer = mBuffer;
+                }
+                // appends keep going while the mapping is written out
+                force(buffer);
+            }
+        }, mCommitIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void force(MappedByteBuffer buffer) {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * @return the action with the record's ID added to its payload, when the payload is a JSON
+     * object, which payloads coming from Unity always are
+     */
+    private static Action tag(Action action, long id) {
+        String payload = action.args.optString("payload");
+        try {
+            JSONObject payloadJSON = new JSONObject(payload);
+            payloadJSON.put(JOURNAL_ID, id);
+            JSONObject args = new JSONObject(action.args.toString());
+            args.put("payload", payloadJSON.toString());
+            return new Action(action.type, action.provider, args);
+        } catch (JSONException e) {
+            return action;
+        }
+    }
+
+    private static String key(IProvider.Provider provider, String type) {
+        return provider.toString() + ":" + type;
+    }
+
+    /**
+     * Default dispatcher, performing actions through <code>SoomlaProfile</code>.
+     */
+    private static class ProfileDispatcher implements Dispatcher {
+
+        ProfileDispatcher() {
+            mHandler = new Handler(Looper.getMainLooper());
+        }
+
+        @Override
+        public void dispatch(Action action) throws ProviderNotFoundException, JSONException {
+            JSONObject args = action.args;
+            String payload = args.optString("payload");
+            if (UPDATE_STATUS.equals(action.type)) {
+                SoomlaProfile.getInstance().updateStatus(action.provider, args.getString("status"), payload, null);
+            } else if (UPDATE_STORY.equals(action.type)) {
+                SoomlaProfile.getInstance().updateStory(action.provider, args.optString("message"),
+                        args.optString("name"), args.optString("caption"), args.optString("description"),
+                        args.optString("link"), args.optString("pictureUrl"), payload, null);
+            } else if (UPLOAD_IMAGE.equals(action.type)) {
+                SoomlaProfile.getInstance().uploadImage(action.provider, args.optString("message"),
+                        args.getString("filePath"), payload, null);
+            } else if (SUBMIT_SCORE.equals(action.type)) {
+                SoomlaProfile.getInstance().submitScore(action.provider,
+                        LeaderboardRegistry.getInstance().parse(args.getString("leaderboard")),
+                        args.getLong("score"), payload, null);
+            } else {
+                SoomlaUtils.LogError(TAG, "Unknown journaled action: " + action.type);
+            }
+        }
+
+        @Override
+        public void checkProvider(IProvider.Provider provider) throws ProviderNotFoundException {
+            try {
+                SoomlaProfile.getInstance().getStoredUserProfile(provider);
+            } catch (UserProfileNotFoundException e) {
+                // the provider is there, just not logged in
+            }
+        }
+
+        @Override
+        public void fail(Action action, String errorMessage) {
+            String payload = action.args.optString("payload");
+            final Object event;
+            if (UPDATE_STATUS.equals(action.type)) {
+                event = new SocialActionFailedEvent(action.provider, ISocialProvider.SocialActionType.UPDATE_STATUS,
+                        errorMessage, payload);
+            } else if (UPDATE_STORY.equals(action.type)) {
+                event = new SocialActionFailedEvent(action.provider, ISocialProvider.SocialActionType.UPDATE_STORY,
+                        errorMessage, payload);
+            } else if (UPLOAD_IMAGE.equals(action.type)) {
+                event = new SocialActionFailedEvent(action.provider, ISocialProvider.SocialActionType.UPLOAD_IMAGE,
+                        errorMessage, payload);
+            } else if (SUBMIT_SCORE.equals(action.type)) {
+                Leaderboard leaderboard;
+                try {
+                    leaderboard = LeaderboardRegistry.getInstance().parse(action.args.getString("leaderboard"));
+                } catch (JSONException e) {
+                    SoomlaUtils.LogError(TAG, "Couldn't report the failed score submission: " + e.getMessage());
+                    return;
+                }
+                event = new SubmitScoreFailedEvent(action.provider, leaderboard, errorMessage, payload);
+            } else {
+                return;
+            }
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    BusProvider.getInstance().post(event);
+                }
+            });
+        }
+
+        private final Handler mHandler;
+    }
+
+    private static class Entry {
+
+        Entry(int offset, Action action, Action dispatched) {
+            this.offset = offset;
+            this.action = action;
+            this.dispatched = dispatched;
+            this.payload = dispatched.args.optString("payload");
+        }
+
+        int offset;
+        final Action action;
+        // the action as dispatched, with its tagged payload
+        final Action dispatched;
+        final String payload;
+        int attempts = 0;
+        boolean done = false;
+    }
+
+    private static final String TAG = "SOOMLA ProfileActionJournal";
+
+    private static final String FILE_NAME = "soomla_profile_actions.journal";
+    private static final int MAGIC = 0x50524a31;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 5;
+    private static final byte STATE_PENDING = 0;
+    private static final byte STATE_DONE = 1;
+    private static final int MAX_BACKOFF_SHIFT = 8;
+    private static final String ID = "id";
+    private static final String JOURNAL_ID = "journalId";
+
+    private final Handler mMainHandler;
+    private final ScheduledExecutorService mCommitExecutor;
+    private final List<Entry> mEntries = new ArrayList<Entry>();
+    private final Map<String, LinkedList<Entry>> mInFlight = new HashMap<String, LinkedList<Entry>>();
+    private final List<Entry> mWaitingForProfile = new ArrayList<Entry>();
+    private volatile Dispatcher mDispatcher = new ProfileDispatcher();
+    private volatile MappedByteBuffer mBuffer;
+    private boolean mCommitScheduled = false;
+    private int mCommitIntervalMs = DEFAULT_COMMIT_INTERVAL_MS;
+    private boolean mProfileInitialized = false;
+    private long mNextId = 1;
+    private int mMaxAttempts = 5;
+    private long mBaseBackoffMs = 2000;
+}
@@ -0,0 +1,84 @@
+package com.soomla.profile.unity;
+
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
+import com.soomla.profile.social.ISocialProvider;
+
+/**
+ * Int codes used by the compact bridge calls ({@link UnitySoomlaProfile#dispatch},
+ * {@link UnitySoomlaProfile#executeBatch} and {@link ProfileEventHandler#pushEventSocialAction}),
+ * and table lookups from codes to enums,
+ * so those calls don't pass strings through JNI or scan enum values.
+ *
+ * Providers and social action types are coded by their <code>getValue()</code>, the same
+ * values Unity's <code>Provider.toInt()</code> and <code>SocialActionType.toInt()</code> return.
+ */
+public class ProfileBridgeCodes {
+
+    public static final int OP_LOGIN = 0;
+    public static final int OP_LOGOUT = 1;
+    public static final int OP_IS_LOGGED_IN = 2;
+    public static final int OP_UPDATE_STATUS = 3;
+    public static final int OP_GET_CONTACTS = 4;
+    public static final int OP_GET_FEED = 5;
+    public static final int OP_GET_LEADERBOARDS = 6;
+    public static final int OP_GET_SCORES_BY_ID = 7;
+    public static final int OP_SUBMIT_SCORE_BY_ID = 8;
+
+    // only in batches, they forward events of providers implemented in Unity
+    public static final int OP_PUSH_SOCIAL_ACTION = 9;
+    public static final int OP_PUSH_LOGIN = 10;
+    public static final int OP_PUSH_LOGOUT = 11;
+
+    public static final int EVENT_STARTED = 0;
+    public static final int EVENT_FINISHED = 1;
+    public static final int EVENT_CANCELLED = 2;
+    public static final int EVENT_FAILED = 3;
+
+    public static final int RESULT_FALSE = 0;
+    public static final int RESULT_TRUE = 1;
+    public static final int RESULT_ERROR = -1;
+
+    public static IProvider.Provider provider(int code) throws ProviderNotFoundException {
+        IProvider.Provider provider = code >= 0 && code < sProviders.length ? sProviders[code] : null;
+        if (provider == null) {
+            throw new ProviderNotFoundException(null);
+        }
+        return provider;
+    }
+
+    public static ISocialProvider.SocialActionType socialActionType(int code) {
+        ISocialProvider.SocialActionType socialActionType =
+                code >= 0 && code < sSocialActionTypes.length ? sSocialActionTypes[code] : null;
+        if (socialActionType == null) {
+            throw new IllegalArgumentException("Unknown social action type: " + code);
+        }
+        return socialActionType;
+    }
+
+    private ProfileBridgeCodes() {
+    }
+
+    private static final IProvider.Provider[] sProviders;
+    private static final ISocialProvider.SocialActionType[] sSocialActionTypes;
+
+    static {
+        int maxValue = 0;
+        for (IProvider.Provider provider : IProvider.Provider.values()) {
+            maxValue = Math.max(maxValue, provider.getValue());
+        }
+        sProviders = new IProvider.Provider[maxValue + 1];
+        for (IProvider.Provider provider : IProvider.Provider.values()) {
+            sProviders[provider.getValue()] = provider;
+        }
+
+        maxValue = 0;
+        for (ISocialProvider.SocialActionType socialActionType : ISocialProvider.SocialActionType.values()) {
+            maxValue = Math.max(maxValue, socialActionType.getValue());
+        }
+        sSocialActionTypes = new ISocialProvider.SocialActionType[maxValue + 1];
+        for (ISocialProvider.SocialActionType socialActionType : ISocialProvider.SocialActionType.values()) {
+            sSocialActionTypes[socialActionType.getValue()] = socialActionType;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.soomla.profile.unity;
+
+import com.soomla.BusProvider;
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.SoomlaProfile;
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.UserProfile;
+import com.soomla.profile.events.social.GetContactsFailedEvent;
+import com.soomla.profile.events.social.GetContactsFinishedEvent;
+import com.soomla.profile.events.social.GetContactsStartedEvent;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
+import com.soomla.profile.social.ISocialProvider;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the pages returned by <code>getContacts</code> in memory, so reopening a friends
+ * screen doesn't go to the provider every time.
+ *
+ * While the cache is enabled, the provider is only ever asked for pages by the cache
+ * itself, and the events of those requests are swallowed (see {@link #consume}). The
+ * game's requests are answered with <code>GetContacts*</code> events built from cached
+ * pages, fetching the missing ones first. Pages older than the TTL are still served,
+ * and fetched again in the background.
+ *
+ * Pages are evicted least recently used first once more than the maximal number of
+ * contacts is cached.
+ */
+public class ProfileContactsCache {
+
+    public static final int DEFAULT_MAX_CONTACTS = 5000;
+    public static final long DEFAULT_TTL_MS = 5 * 60 * 1000;
+
+    private static ProfileContactsCache sInstance;
+
+    public static synchronized ProfileContactsCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new ProfileContactsCache();
+        }
+        return sInstance;
+    }
+
+    private ProfileContactsCache() {
+    }
+
+    /**
+     * Turns the cache on or off, it's off by default. Turning it off clears it and forgets the
+     * requests in flight, so their events reach Unity like uncached ones; the game's requests
+     * still waiting for a page fail.
+     */
+    public void setEnabled(boolean enabled) {
+        SoomlaUtils.LogDebug(TAG, "Contacts cache " + (enabled ? "enabled" : "disabled"));
+        mEnabled = enabled;
+        if (!enabled) {
+            invalidateAll();
+            List<Object> events = new ArrayList<Object>();
+            synchronized (this) {
+                for (Map.Entry<IProvider.Provider, Cursor> entry : mCursors.entrySet()) {
+                    for (Request request : entry.getValue().requests) {
+                        if (request.payload != null) {
+                            events.add(new GetContactsFailedEvent(entry.getKey(), ISocialProvider.SocialActionType.GET_CONTACTS,
+                                    "Contacts cache disabled", request.fromStart, request.payload));
+                        }
+                    }
+                }
+                mCursors.clear();
+            }
+            post(events);
+        }
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * @param maxContacts how many contacts may be cached over all providers,
+     *                    <code>0</code> or less means {@link #DEFAULT_MAX_CONTACTS}
+     * @param ttlMs how long a page is served without being fetched again,
+     *              <code>0</code> or less means {@link #DEFAULT_TTL_MS}
+     */
+    public synchronized void configure(int maxContacts, long ttlMs) {
+        mMaxContacts = maxContacts > 0 ? maxContacts : DEFAULT_MAX_CONTACTS;
+        mTtlMs = ttlMs > 0 ? ttlMs : DEFAULT_TTL_MS;
+        evict();
+    }
+
+    public void invalidate(IProvider.Provider provider) {
+        synchronized (this) {
+            Iterator<Map.Entry<PageKey, Page>> entries = mPages.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<PageKey, Page> entry = entries.next();
+                if (entry.getKey().provider == provider) {
+                    mCachedContacts -= entry.getValue().contacts.size();
+                    entries.remove();
+                }
+            }
+            Cursor cursor = mCursors.get(provider);
+            if (cursor != null) {
+                cursor.lastPage = -1;
+            }
+        }
+        SoomlaUtils.LogDebug(TAG, "Invalidated cached contacts of " + provider);
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            mPages.clear();
+            mCachedContacts = 0;
+            for (Cursor cursor : mCursors.values()) {
+                cursor.lastPage = -1;
+            }
+        }
+        SoomlaUtils.LogDebug(TAG, "Invalidated all cached contacts");
+    }
+
+    /**
+     * @return hit/miss counters and the cache's size, as a JSON string
+     */
+    public synchronized String getStats() {
+        JSONObject stats = new JSONObject();
+        try {
+            stats.put("hits", mHits);
+            stats.put("misses", mMisses);
+            stats.put("pages", mPages.size());
+            stats.put("contacts", mCachedContacts);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+        return stats.toString();
+    }
+
+    /**
+     * Answers the game's <code>getContacts</code> call, from memory when possible.
+     */
+    public void getContacts(IProvider.Provider provider, boolean fromStart, String payload) {
+        List<Object> events = new ArrayList<Object>();
+        events.add(new GetContactsStartedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS, fromStart, payload));
+
+        synchronized (this) {
+            Cursor cursor = cursorFor(provider);
+            if (fromStart) {
+                cursor.readPage = 0;
+            }
+            int index = cursor.readPage;
+
+            Page page = mPages.get(new PageKey(provider, index));
+            if (page != null) {
+                mHits++;
+                cursor.readPage++;
+                events.add(finishedEvent(provider, page, payload));
+                if (System.currentTimeMillis() - page.fetchedAt > mTtlMs && !cursor.isWaitingFor(index)) {
+                    cursor.requests.add(new Request(index, null, fromStart));
+                }
+            } else if (cursor.lastPage >= 0 && index > cursor.lastPage) {
+                mHits++;
+                events.add(finishedEvent(provider, new Page(new ArrayList<UserProfile>(), false), payload));
+            } else {
+                mMisses++;
+                cursor.requests.add(new Request(index, payload, fromStart));
+            }
+        }
+
+        post(events);
+        pump(provider);
+    }
+
+    /**
+     * Called by <code>ProfileEventHandler</code> for every contacts event.
+     *
+     * @return <code>true</code> if the event belongs to a request made by the cache and
+     * must not be forwarded to Unity
+     */
+    public boolean consume(GetContactsStartedEvent event) {
+        synchronized (this) {
+            if (mOwnEvents.remove(event)) {
+                return false;
+            }
+            Cursor cursor = mCursors.get(event.Provider);
+            return cursor != null && cursor.fetching;
+        }
+    }
+
+    public boolean consume(GetContactsFinishedEvent event) {
+        List<Object> events = new ArrayList<Object>();
+        synchronized (this) {
+            if (mOwnEvents.remove(event)) {
+                return false;
+            }
+            Cursor cursor = mCursors.get(event.Provider);
+            if (cursor == null || !cursor.fetching) {
+                return false;
+            }
+            cursor.fetching = false;
+
+            int index = cursor.fetchingFromStart ? 0 : cursor.providerPage;
+            Page page = new Page(new ArrayList<UserProfile>(event.Contacts), event.HasMore);
+            store(new PageKey(event.Provider, index), page);
+            cursor.providerPage = index + 1;
+            if (!event.HasMore) {
+                cursor.lastPage = index;
+            }
+            collectReady(event.Provider, cursor, events);
+        }
+        post(events);
+        pump(event.Provider);
+        return true;
+    }
+
+    public boolean consume(GetContactsFailedEvent event) {
+        List<Object> events = new ArrayList<Object>();
+        synchronized (this) {
+            if (mOwnEvents.remove(event)) {
+                return false;
+            }
+            Cursor cursor = mCursors.get(event.Provider);
+            if (cursor == null || !cursor.fetching) {
+                return false;
+            }
+            cursor.fetching = false;
+            cursor.providerPage = -1;
+
+            for (Request request : cursor.requests) {
+                if (request.payload != null) {
+                    events.add(new GetContactsFailedEvent(event.Provider, ISocialProvider.SocialActionType.GET_CONTACTS,
+                            event.ErrorDescription, request.fromStart, request.payload));
+                }
+            }
+            cursor.requests.clear();
+        }
+        post(events);
+        return true;
+    }
+
+    /**
+     * Asks the provider for the page the first waiting request needs, unless a request
+     * is already in flight.
+     */
+    private void pump(IProvider.Provider provider) {
+        boolean fromStart;
+        synchronized (this) {
+            Cursor cursor = mCursors.get(provider);
+            if (cursor == null || cursor.fetching || cursor.requests.isEmpty()) {
+                return;
+            }
+
+            int index = cursor.requests.getFirst().page;
+            fromStart = index == 0 || cursor.providerPage < 0 || cursor.providerPage > index;
+            cursor.fetching = true;
+            cursor.fetchingFromStart = fromStart;
+        }
+
+        try {
+            SoomlaProfile.getInstance().getContacts(provider, fromStart, "", null);
+        } catch (ProviderNotFoundException e) {
+            consume(new GetContactsFailedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS,
+                    e.getMessage(), fromStart, ""));
+        }
+    }
+
+    /**
+     * Removes the requests whose page has been fetched, adding the events for the game's ones.
+     */
+    private void collectReady(IProvider.Provider provider, Cursor cursor, List<Object> events) {
+        Iterator<Request> requests = cursor.requests.iterator();
+        while (requests.hasNext()) {
+            Request request = requests.next();
+            Page page = mPages.get(new PageKey(provider, request.page));
+            if (page == null || page.fetchedAt < request.createdAt) {
+                continue;
+            }
+
+            requests.remove();
+            if (request.payload != null) {
+                cursor.readPage = request.page + 1;
+                events.add(finishedEvent(provider, page, request.payload));
+            }
+        }
+    }
+
+    private void store(PageKey key, Page page) {
+        Page old = mPages.put(key, page);
+        if (old != null) {
+            mCachedContacts -= old.contacts.size();
+        }
+        mCachedContacts += page.contacts.size();
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Page> pages = mPages.values().iterator();
+        while (mCachedContacts > mMaxContacts && mPages.size() > 1 && pages.hasNext()) {
+            mCachedContacts -= pages.next().contacts.size();
+            pages.remove();
+        }
+    }
+
+    private Cursor cursorFor(IProvider.Provider provider) {
+        Cursor cursor = mCursors.get(provider);
+        if (cursor == null) {
+            cursor = new Cursor();
+            mCursors.put(provider, cursor);
+        }
+        return cursor;
+    }
+
+    private GetContactsFinishedEvent finishedEvent(IProvider.Provider provider, Page page, String payload) {
+        return new GetContactsFinishedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS,
+                new ArrayList<UserProfile>(page.contacts), payload, page.hasMore);
+    }
+
+    /**
+     * Posts events for the game, marked so that {@link #consume} lets them through.
+     */
+    private void post(List<Object> events) {
+        for (Object event : events) {
+            synchronized (this) {
+                mOwnEvents.add(event);
+            }
+            BusProvider.getInstance().post(event);
+        }
+    }
+
+    private static class PageKey {
+
+        PageKey(IProvider.Provider provider, int page) {
+            this.provider = provider;
+            this.page = page;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PageKey)) {
+                return false;
+            }
+            PageKey other = (PageKey) o;
+            return provider == other.provider && page == other.page;
+        }
+
+        @Override
+        public int hashCode() {
+            return provider.hashCode() * 31 + page;
+        }
+
+        final IProvider.Provider provider;
+        final int page;
+    }
+
+    private static class Page {
+
+        Page(List<UserProfile> contacts, boolean hasMore) {
+            this.contacts = contacts;
+            this.hasMore = hasMore;
+            this.fetchedAt = System.currentTimeMillis();
+        }
+
+        final List<UserProfile> contacts;
+        final boolean hasMore;
+        final long fetchedAt;
+    }
+
+    /**
+     * A page someone is waiting for. Requests without a payload are background refreshes.
+     */
+    private static class Request {
+
+        Request(int page, String payload, boolean fromStart) {
+            this.page = page;
+            this.payload = payload;
+            this.fromStart = fromStart;
+            this.createdAt = System.currentTimeMillis();
+        }
+
+        final int page;
+        final String payload;
+        final boolean fromStart;
+        final long createdAt;
+    }
+
+    private static class Cursor {
+        // next page the game reads
+        int readPage = 0;
+        // next page the provider returns when not asked from start, -1 if unknown
+        int providerPage = -1;
+        // index of the provider's last page, -1 if not known yet
+        int lastPage = -1;
+        boolean fetching = false;
+        boolean fetchingFromStart = false;
+        final LinkedList<Request> requests = new LinkedList<Request>();
+
+        boolean isWaitingFor(int page) {
+            for (Request request : requests) {
+                if (request.page == page) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final String TAG = "SOOMLA ProfileContactsCache";
+
+    private final LinkedHashMap<PageKey, Page> mPages = new LinkedHashMap<PageKey, Page>(16, 0.75f, true);
+    private final Map<IProvider.Provider, Cursor> mCursors = new HashMap<IProvider.Provider, Cursor>();
+    private final Set<Object> mOwnEvents = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    private int mCachedContacts = 0;
+    private int mMaxContacts = DEFAULT_MAX_CONTACTS;
+    private long mTtlMs = DEFAULT_TTL_MS;
+    private long mHits = 0;
+    private long mMisses = 0;
+    private volatile boolean mEnabled = false;
+}
@@ -0,0 +1,339 @@
+package com.soomla.profile.unity;
+
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.UserProfile;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps every provider's contacts on the Java side, so Unity can query the slice it shows
+ * instead of getting every contacts page in full.
+ *
+ * Contacts are kept in columns (ids, usernames, first and last names, avatar links) of strings
+ * interned per provider, without their <code>UserProfile</code>s. A sorted index of the
+ * lowercased names and usernames answers prefix searches. Pages are appended as
+ * <code>GetContactsFinishedEvent</code>s come in; a request from the start replaces the
+ * provider's contacts, and logging in or out drops them.
+ */
+public class ProfileContactsStore {
+
+    private static ProfileContactsStore sInstance;
+
+    public static synchronized ProfileContactsStore getInstance() {
+        if (sInstance == null) {
+            sInstance = new ProfileContactsStore();
+        }
+        return sInstance;
+    }
+
+    private ProfileContactsStore() {
+        mTables = new Table[IProvider.Provider.values().length];
+        for (int i = 0; i < mTables.length; i++) {
+            mTables[i] = new Table();
+        }
+    }
+
+    /**
+     * Turns the store on or off. While it's on, contacts pages are sent to Unity without their
+     * contacts. Turning it off drops what's stored.
+     */
+    public void setEnabled(boolean enabled) {
+        SoomlaUtils.LogDebug(TAG, "Contacts store " + (enabled ? "enabled" : "disabled"));
+        mEnabled = enabled;
+        if (!enabled) {
+            clearAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Makes the provider's next page replace its contacts instead of being appended.
+     */
+    public void onRequestStarted(IProvider.Provider provider, boolean fromStart) {
+        if (mEnabled && fromStart && provider != null) {
+            mTables[provider.ordinal()].markReset();
+        }
+    }
+
+    /**
+     * Stores a page of contacts, replacing contacts with the same ID.
+     *
+     * @return how many contacts the provider has stored
+     */
+    public int add(IProvider.Provider provider, List<UserProfile> contacts) {
+        return mTables[provider.ordinal()].add(contacts);
+    }
+
+    public int size(IProvider.Provider provider) {
+        return mTables[provider.ordinal()].size();
+    }
+
+    /**
+     * Writes the contacts whose first name, last name, full name or username starts with
+     * <code>prefix</code> (ignoring case), in the order they were received.
+     *
+     * @param prefix <code>null</code> or empty for all contacts
+     * @return <code>{"total":..., "offset":..., "contacts":[...]}</code>, <code>total</code> being the
+     * number of matching contacts and <code>contacts</code> at most <code>limit</code> of them
+     */
+    public String search(IProvider.Provider provider, String prefix, int offset, int limit) {
+        return mTables[provider.ordinal()].search(provider, prefix, Math.max(0, offset), Math.max(0, limit));
+    }
+
+    /**
+     * @return the contact's JSON, <code>null</code> if it isn't stored
+     */
+    public String get(IProvider.Provider provider, String profileId) {
+        return mTables[provider.ordinal()].get(provider, profileId);
+    }
+
+    public void clear(IProvider.Provider provider) {
+        if (provider != null) {
+            mTables[provider.ordinal()].clear();
+        }
+    }
+
+    public void clearAll() {
+        for (Table table : mTables) {
+            table.clear();
+        }
+    }
+
+    /**
+     * One provider's contacts. Row <code>i</code> of every column is the <code>i</code>th contact.
+     */
+    private static class Table {
+
+        synchronized void markReset() {
+            mResetPending = true;
+        }
+
+        synchronized int add(List<UserProfile> contacts) {
+            if (mResetPending) {
+                mResetPending = false;
+                clear();
+            }
+            ensureCapacity(mSize + contacts.size());
+            for (UserProfile contact : contacts) {
+                String profileId = intern(contact.getProfileId());
+                Integer existing = mRows.get(profileId);
+                int row = existing != null ? existing : mSize++;
+                mProfileIds[row] = profileId;
+                mUsernames[row] = intern(contact.getUsername());
+                mFirstNames[row] = intern(contact.getFirstName());
+                mLastNames[row] = intern(contact.getLastName());
+                mAvatarLinks[row] = intern(contact.getAvatarLink());
+                mRows.put(profileId, row);
+            }
+            mIndexKeys = null;
+            return mSize;
+        }
+
+        synchronized int size() {
+            return mSize;
+        }
+
+        synchronized String search(IProvider.Provider provider, String prefix, int offset, int limit) {
+            ProfileEventWriter writer = ProfileEventWriter.obtain();
+            writer.beginObject();
+            if (prefix == null || prefix.length() == 0) {
+                int end = (int) Math.min((long) offset + limit, mSize);
+                writer.field("total", mSize)
+                        .field("offset", offset)
+                        .name("contacts").beginArray();
+                for (int row = offset; row < end; row++) {
+                    writeRow(writer, provider, row);
+                }
+                return writer.endArray().endObject().toString();
+            }
+
+            // rows can match through several of their keys, each must be counted once
+            boolean[] matches = new boolean[mSize];
+            int total = 0;
+            String key = prefix.toLowerCase(Locale.ROOT);
+            buildIndex();
+            for (int i = lowerBound(key); i < mIndexKeys.length && mIndexKeys[i].startsWith(key); i++) {
+                int row = mIndexRows[i];
+                if (!matches[row]) {
+                    matches[row] = true;
+                    total++;
+                }
+            }
+            writer.field("total", total)
+                    .field("offset", offset)
+                    .name("contacts").beginArray();
+            int skipped = 0;
+            int written = 0;
+            for (int row = 0; row < mSize && written < limit; row++) {
+                if (!matches[row]) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                writeRow(writer, provider, row);
+                written++;
+            }
+            return writer.endArray().endObject().toString();
+        }
+
+        synchronized String get(IProvider.Provider provider, String profileId) {
+            Integer row = mRows.get(profileId);
+            if (row == null) {
+                return null;
+            }
+            ProfileEventWriter writer = ProfileEventWriter.obtain();
+            writeRow(writer, provider, row);
+            return writer.toString();
+        }
+
+        synchronized void clear() {
+            mSize = 0;
+            mProfileIds = EMPTY;
+            mUsernames = EMPTY;
+            mFirstNames = EMPTY;
+            mLastNames = EMPTY;
+            mAvatarLinks = EMPTY;
+            mRows.clear();
+            mInterned.clear();
+            mIndexKeys = null;
+            mIndexRows = null;
+        }
+
+        /**
+         * Same fields and order as <code>UserProfile.toJSONObject()</code>, for the fields the table keeps.
+         */
+        private void writeRow(ProfileEventWriter writer, IProvider.Provider provider, int row) {
+            writer.beginObject()
+                    .field("className", "UserProfile")
+                    .field("provider", provider.toString())
+                    .field("profileId", mProfileIds[row])
+                    .field("username", mUsernames[row])
+                    .field("firstName", mFirstNames[row])
+                    .field("lastName", mLastNames[row])
+                    .field("avatarLink", mAvatarLinks[row])
+                    .name("extra").beginObject().endObject()
+                    .endObject();
+        }
+
+        private void buildIndex() {
+            if (mIndexKeys != null) {
+                return;
+            }
+            String[] keys = new String[mSize * KEYS_PER_ROW];
+            int[] rows = new int[keys.length];
+            int count = 0;
+            for (int row = 0; row < mSize; row++) {
+                String firstName = lowerCase(mFirstNames[row]);
+                String lastName = lowerCase(mLastNames[row]);
+                count = addKey(keys, rows, count, firstName, row);
+                count = addKey(keys, rows, count, lastName, row);
+                count = addKey(keys, rows, count, lowerCase(mUsernames[row]), row);
+                if (firstName != null && lastName != null) {
+                    count = addKey(keys, rows, count, firstName + " " + lastName, row);
+                }
+            }
+
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            final String[] unsortedKeys = keys;
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return unsortedKeys[a].compareTo(unsortedKeys[b]);
+                }
+            });
+            mIndexKeys = new String[count];
+            mIndexRows = new int[count];
+            for (int i = 0; i < count; i++) {
+                mIndexKeys[i] = keys[order[i]];
+                mIndexRows[i] = rows[order[i]];
+            }
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = mIndexKeys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (mIndexKeys[middle].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static int addKey(String[] keys, int[] rows, int count, String key, int row) {
+            if (key == null || key.length() == 0) {
+                return count;
+            }
+            keys[count] = key;
+            rows[count] = row;
+            return count + 1;
+        }
+
+        private static String lowerCase(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+
+        private String intern(String value) {
+            if (value == null) {
+                return null;
+            }
+            String interned = mInterned.get(value);
+            if (interned == null) {
+                mInterned.put(value, value);
+                interned = value;
+            }
+            return interned;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= mProfileIds.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, mProfileIds.length * 2);
+            mProfileIds = Arrays.copyOf(mProfileIds, newCapacity);
+            mUsernames = Arrays.copyOf(mUsernames, newCapacity);
+            mFirstNames = Arrays.copyOf(mFirstNames, newCapacity);
+            mLastNames = Arrays.copyOf(mLastNames, newCapacity);
+            mAvatarLinks = Arrays.copyOf(mAvatarLinks, newCapacity);
+        }
+
+        private int mSize = 0;
+        private String[] mProfileIds = EMPTY;
+        private String[] mUsernames = EMPTY;
+        private String[] mFirstNames = EMPTY;
+        private String[] mLastNames = EMPTY;
+        private String[] mAvatarLinks = EMPTY;
+        private final Map<String, Integer> mRows = new HashMap<String, Integer>();
+        private final Map<String, String> mInterned = new HashMap<String, String>();
+        private boolean mResetPending = false;
+
+        // built on the first search after a change
+        private String[] mIndexKeys;
+        private int[] mIndexRows;
+    }
+
+    private static final String TAG = "SOOMLA ProfileContactsStore";
+
+    private static final String[] EMPTY = new String[0];
+    private static final int KEYS_PER_ROW = 4;
+
+    private final Table[] mTables;
+    private volatile boolean mEnabled = false;
+}
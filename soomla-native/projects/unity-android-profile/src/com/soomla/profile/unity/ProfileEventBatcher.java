@@ -0,0 +1,145 @@
+package com.soomla.profile.unity;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.soomla.SoomlaUtils;
+import com.unity3d.player.UnityPlayer;
+
+/**
+ * Collects outbound profile events and delivers them to Unity as one framed
+ * message per flush interval instead of one <code>UnitySendMessage</code> per event.
+ *
+ * A batch is a concatenation of frames, each one formatted as
+ * <code>recipient:length:message</code>, where <code>length</code> is the number
+ * of chars in <code>message</code>. It is unpacked by <code>ProfileEvents.onEventBatch</code>
+ * on the Unity side, which dispatches every frame in order.
+ */
+public class ProfileEventBatcher {
+
+    public static final int DEFAULT_FLUSH_INTERVAL_MS = 16;
+
+    private static ProfileEventBatcher sInstance;
+
+    public static synchronized ProfileEventBatcher getInstance() {
+        if (sInstance == null) {
+            sInstance = new ProfileEventBatcher();
+        }
+        return sInstance;
+    }
+
+    private ProfileEventBatcher() {
+        mHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Turns batching on or off. Turning it off flushes whatever is still pending.
+     *
+     * @param enabled whether events should be batched
+     * @param flushIntervalMs how long to collect events before delivering them,
+     *                        <code>0</code> or less means {@link #DEFAULT_FLUSH_INTERVAL_MS}
+     */
+    public void setEnabled(boolean enabled, int flushIntervalMs) {
+        synchronized (mLock) {
+            mFlushIntervalMs = flushIntervalMs > 0 ? flushIntervalMs : DEFAULT_FLUSH_INTERVAL_MS;
+            if (enabled) {
+                mEnabled = true;
+            }
+        }
+        if (!enabled) {
+            flush(true);
+        }
+        SoomlaUtils.LogDebug(TAG, "Event batching " + (enabled ? "enabled, interval: " + mFlushIntervalMs + "ms" : "disabled"));
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Queues an event for the next flush.
+     *
+     * @return <code>false</code> if batching is disabled and the event should be sent directly
+     */
+    public boolean enqueue(String recipient, CharSequence message) {
+        synchronized (mLock) {
+            if (!mEnabled) {
+                return false;
+            }
+
+            boolean wasEmpty = mPendingCount == 0;
+            mBatch.append(recipient).append(':').append(message.length()).append(':').append(message);
+            mPendingCount++;
+
+            if (wasEmpty) {
+                mHandler.postDelayed(mFlushRunnable, mFlushIntervalMs);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Queues an event for the next flush, or sends it directly if batching is disabled.
+     * A direct send takes the send lock, so it can't reach Unity ahead of the final batch
+     * taken when batching was turned off.
+     */
+    public void send(String recipient, CharSequence message) {
+        if (enqueue(recipient, message)) {
+            return;
+        }
+        synchronized (mSendLock) {
+            UnityPlayer.UnitySendMessage("ProfileEvents", recipient, message.toString());
+        }
+    }
+
+    /**
+     * Delivers all pending events right away.
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    /**
+     * Batches are taken and sent under the send lock, so a batch can't be sent ahead of
+     * the one an earlier flush on another thread took.
+     *
+     * @param disable turn batching off when taking the batch, so no event is queued after it
+     */
+    private void flush(boolean disable) {
+        synchronized (mSendLock) {
+            String batch;
+            synchronized (mLock) {
+                if (disable) {
+                    mEnabled = false;
+                }
+                mHandler.removeCallbacks(mFlushRunnable);
+                if (mPendingCount == 0) {
+                    return;
+                }
+
+                batch = mBatch.toString();
+                mBatch.setLength(0);
+                mPendingCount = 0;
+            }
+
+            UnityPlayer.UnitySendMessage("ProfileEvents", "onEventBatch", batch);
+        }
+    }
+
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    private static final String TAG = "SOOMLA ProfileEventBatcher";
+
+    private final Object mLock = new Object();
+    private final Object mSendLock = new Object();
+    private final Handler mHandler;
+    private final StringBuilder mBatch = new StringBuilder();
+    private int mPendingCount = 0;
+    private volatile boolean mEnabled = false;
+    private volatile int mFlushIntervalMs = DEFAULT_FLUSH_INTERVAL_MS;
+}
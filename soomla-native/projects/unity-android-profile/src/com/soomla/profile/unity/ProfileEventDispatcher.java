@@ -0,0 +1,249 @@
+package com.soomla.profile.unity;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.soomla.BusProvider;
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.domain.IProvider;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dispatches the events Unity pushes into the bridge to the bus's <code>@Subscribe</code> handlers.
+ *
+ * Posting is safe from any thread. Every provider has its own lane: a provider's events are
+ * dispatched one at a time, in the order they were posted, while different providers' events
+ * may be dispatched concurrently. Where handlers run is set with {@link #setMode} or
+ * {@link #setExecutor}; by default they run on the posting thread, like a direct bus post.
+ *
+ * When a bus that only accepts posts from the main thread rejects an event, the lane is
+ * drained on the main thread from that event on, without losing or reordering any. The mode
+ * itself is kept. A handler's exception is logged and the lane moves on to the next event.
+ */
+public class ProfileEventDispatcher {
+
+    /**
+     * Handlers run on the thread that posted the event.
+     */
+    public static final int MODE_CALLER = 0;
+
+    /**
+     * Handlers run on the dispatcher's worker threads.
+     */
+    public static final int MODE_BACKGROUND = 1;
+
+    /**
+     * Handlers run on the main thread.
+     */
+    public static final int MODE_MAIN = 2;
+
+    private static ProfileEventDispatcher sInstance;
+
+    public static synchronized ProfileEventDispatcher getInstance() {
+        if (sInstance == null) {
+            sInstance = new ProfileEventDispatcher();
+        }
+        return sInstance;
+    }
+
+    private ProfileEventDispatcher() {
+        mLanes = new Lane[IProvider.Provider.values().length + 1];
+        for (int i = 0; i < mLanes.length; i++) {
+            mLanes[i] = new Lane();
+        }
+        mMainExecutor = new Executor() {
+            private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+            @Override
+            public void execute(Runnable runnable) {
+                mHandler.post(runnable);
+            }
+        };
+        mExecutor = CALLER_EXECUTOR;
+    }
+
+    /**
+     * Sets where handlers run. Events already queued are dispatched in the new mode.
+     *
+     * @param mode one of {@link #MODE_CALLER}, {@link #MODE_BACKGROUND} or {@link #MODE_MAIN}
+     */
+    public void setMode(int mode) {
+        switch (mode) {
+            case MODE_CALLER:
+                setExecutor(null);
+                break;
+            case MODE_BACKGROUND:
+                setExecutor(getBackgroundExecutor());
+                break;
+            case MODE_MAIN:
+                setExecutor(mMainExecutor);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown dispatch mode: " + mode);
+        }
+        SoomlaUtils.LogDebug(TAG, "Dispatch mode: " + mode);
+    }
+
+    /**
+     * Makes handlers run on the given executor. It's handed one task per busy lane at a time,
+     * so a single-threaded executor dispatches everything in order.
+     *
+     * @param executor the executor to run handlers on, <code>null</code> to run them on the posting thread
+     */
+    public void setExecutor(Executor executor) {
+        mExecutor = executor != null ? executor : CALLER_EXECUTOR;
+    }
+
+    /**
+     * Queues an event on its provider's lane.
+     *
+     * @param provider the event's provider, <code>null</code> for events without one
+     * @param fromRecordedCall whether the event comes from a call <code>ProfileTraceRecorder</code> recorded
+     */
+    public void post(IProvider.Provider provider, Object event, boolean fromRecordedCall) {
+        Lane lane = mLanes[provider != null ? provider.ordinal() : mLanes.length - 1];
+        lane.post(new Pending(event, fromRecordedCall));
+    }
+
+    private synchronized Executor getBackgroundExecutor() {
+        if (mBackgroundExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(BACKGROUND_THREADS, BACKGROUND_THREADS,
+                    BACKGROUND_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger mCount = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    return new Thread(runnable, "SoomlaProfileEvents-" + mCount.incrementAndGet());
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+            mBackgroundExecutor = executor;
+        }
+        return mBackgroundExecutor;
+    }
+
+    /**
+     * @return <code>false</code> if the bus rejected the event because this isn't the main thread
+     */
+    private boolean dispatch(Pending pending) {
+        if (pending.fromRecordedCall) {
+            ProfileTraceRecorder.enterCall();
+        }
+        try {
+            BusProvider.getInstance().post(pending.event);
+            return true;
+        } catch (IllegalStateException e) {
+            // thread enforcement fails before any handler runs, handlers' exceptions come wrapped
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                throw e;
+            }
+            SoomlaUtils.LogError(TAG, "The bus only accepts events on the main thread, dispatching there: " + e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            SoomlaUtils.LogError(TAG, "A handler failed on " + pending.event.getClass().getSimpleName() + ": " + e);
+            return true;
+        } finally {
+            if (pending.fromRecordedCall) {
+                ProfileTraceRecorder.exitCall();
+            }
+        }
+    }
+
+    private static class Pending {
+
+        Pending(Object event, boolean fromRecordedCall) {
+            this.event = event;
+            this.fromRecordedCall = fromRecordedCall;
+        }
+
+        final Object event;
+        final boolean fromRecordedCall;
+    }
+
+    /**
+     * A provider's queue of events. While it isn't empty, exactly one task drains it.
+     */
+    private class Lane implements Runnable {
+
+        void post(Pending pending) {
+            synchronized (this) {
+                mQueue.addLast(pending);
+                if (mScheduled) {
+                    return;
+                }
+                mScheduled = true;
+            }
+            schedule(mExecutor);
+        }
+
+        @Override
+        public void run() {
+            boolean handedOff = false;
+            try {
+                while (true) {
+                    Pending pending;
+                    synchronized (this) {
+                        pending = mQueue.pollFirst();
+                        if (pending == null) {
+                            mScheduled = false;
+                            handedOff = true;
+                            return;
+                        }
+                    }
+                    if (!dispatch(pending)) {
+                        synchronized (this) {
+                            mQueue.addFirst(pending);
+                        }
+                        handedOff = true;
+                        schedule(mMainExecutor);
+                        return;
+                    }
+                }
+            } finally {
+                // an exception escaped, the next post has to schedule the lane again
+                if (!handedOff) {
+                    synchronized (this) {
+                        mScheduled = false;
+                    }
+                }
+            }
+        }
+
+        private void schedule(Executor executor) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                SoomlaUtils.LogError(TAG, "Executor rejected the dispatch, running it on the posting thread");
+                run();
+            }
+        }
+
+        private final ArrayDeque<Pending> mQueue = new ArrayDeque<Pending>();
+        private boolean mScheduled = false;
+    }
+
+    private static final Executor CALLER_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private static final String TAG = "SOOMLA ProfileEventDispatcher";
+
+    private static final int BACKGROUND_THREADS = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors(), 4));
+    private static final long BACKGROUND_KEEP_ALIVE_MS = 30000;
+
+    private final Lane[] mLanes;
+    private final Executor mMainExecutor;
+    private volatile Executor mExecutor;
+    private ThreadPoolExecutor mBackgroundExecutor;
+}
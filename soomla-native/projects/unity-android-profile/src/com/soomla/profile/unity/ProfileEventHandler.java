@@ -17,10 +17,10 @@ import com.soomla.profile.events.auth.LogoutFinishedEvent;
 import com.soomla.profile.events.auth.LogoutStartedEvent;
 import com.soomla.profile.events.gameservices.*;
 import com.soomla.profile.events.social.*;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
 import com.soomla.profile.social.ISocialProvider;
 import com.squareup.otto.Bus;
 import com.squareup.otto.Subscribe;
-import com.unity3d.player.UnityPlayer;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -33,13 +33,18 @@ public class ProfileEventHandler {
 
     private static ProfileEventHandler mLocalEventHandler;
     private static String TAG = "SOOMLA Unity StoreEventHandler";
+    private static final int NO_PROVIDER = -1;
+    private static volatile ProfileEventSink sEventSink;
+    private static volatile long sEventMask = -1L;
+    private static volatile int sProviderMask = -1;
+    private static volatile int sChunkSize = 0;
 
     public static void initialize() {
         SoomlaUtils.LogDebug("SOOMLA Unity ProfileEventHandler", "Initializing ProfileEventHandler ...");
         getInstance();
     }
 
-    public static ProfileEventHandler getInstance() {
+    public static synchronized ProfileEventHandler getInstance() {
         if (mLocalEventHandler == null) {
             mLocalEventHandler = new ProfileEventHandler();
         }
@@ -52,37 +57,74 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onProfileInitializedEvent(final ProfileInitializedEvent profileInitializedEvent){
-        UnityPlayer.UnitySendMessage("ProfileEvents", "onSoomlaProfileInitialized", "");
+        if (ProfileInitializer.getInstance().deferInitializedEvent()) {
+            return;
+        }
+        sendProfileInitialized();
+    }
+
+    /**
+     * Sends <code>onSoomlaProfileInitialized</code>, also called by <code>ProfileInitializer</code>
+     * for the event it deferred.
+     */
+    static void sendProfileInitialized() {
+        long started = ProfileMetrics.start();
+        ProfileActionJournal.getInstance().onProfileInitialized();
+        if (!isSubscribed(ProfileEventIds.SOOMLA_PROFILE_INITIALIZED, null)) {
+            return;
+        }
+        UnitySendProfileMessage("", "onSoomlaProfileInitialized", NO_PROVIDER, started);
     }
 
     @Subscribe
     public void onUserRatingEvent(final UserRatingEvent userRatingEvent){
-        UnityPlayer.UnitySendMessage("ProfileEvents", "onUserRatingEvent", "");
+        long started = ProfileMetrics.start();
+        if (!isSubscribed(ProfileEventIds.USER_RATING, null)) {
+            return;
+        }
+        UnitySendProfileMessage("", "onUserRatingEvent", NO_PROVIDER, started);
     }
 
     @Subscribe
     public void onUserProfileUpdated(final UserProfileUpdatedEvent userProfileUpdatedEvent){
-        UserProfile userProfile = userProfileUpdatedEvent.UserProfile;
+        long started = ProfileMetrics.start();
+        final UserProfile userProfile = userProfileUpdatedEvent.UserProfile;
         IProvider.Provider provider = userProfile.getProvider();
-        JSONObject eventJSON = new JSONObject();
-        try {
-            eventJSON.put("userProfile", userProfile.toJSONObject());
-            UnitySendFilteredMessage(eventJSON.toString(), "onUserProfileUpdated", provider.getValue());
-        } catch (JSONException e) {
-            throw new IllegalStateException(e);
+        StoredUserProfileCache.getInstance().invalidate(provider);
+        if (!isSubscribed(ProfileEventIds.USER_PROFILE_UPDATED, provider)) {
+            return;
         }
+        UnitySendSerializedMessage(new ProfileSerializationStage.Job() {
+            @Override
+            public CharSequence serialize() throws JSONException {
+                if (ProfileEventWriter.isEnabled()) {
+                    ProfileEventWriter writer = ProfileEventWriter.obtain();
+                    writer.beginObject()
+                            .name("userProfile").userProfile(userProfile)
+                            .endObject();
+                    return writer.chars();
+                }
+                JSONObject eventJSON = new JSONObject();
+                eventJSON.put("userProfile", userProfile.toJSONObject());
+                return eventJSON.toString();
+            }
+        }, "onUserProfileUpdated", provider.getValue(), started);
     }
 
     @Subscribe
     public void onLoginStarted(final LoginStartedEvent loginStartedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = loginStartedEvent.Provider;
         String payload = loginStartedEvent.Payload;
+        if (!isSubscribed(ProfileEventIds.LOGIN_STARTED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("autoLogin", loginStartedEvent.AutoLogin);
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onLoginStarted", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onLoginStarted", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -90,30 +132,54 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onLoginFinished(final LoginFinishedEvent loginFinishedEvent){
-        UserProfile userProfile = loginFinishedEvent.UserProfile;
-        String payload = loginFinishedEvent.Payload;
+        long started = ProfileMetrics.start();
+        final UserProfile userProfile = loginFinishedEvent.UserProfile;
+        final String payload = loginFinishedEvent.Payload;
         IProvider.Provider provider = userProfile.getProvider();
-        JSONObject eventJSON = new JSONObject();
-        try {
-            eventJSON.put("userProfile", userProfile.toJSONObject());
-            eventJSON.put("autoLogin", loginFinishedEvent.AutoLogin);
-            eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onLoginFinished", provider.getValue());
-        } catch (JSONException e) {
-            throw new IllegalStateException(e);
+        ProfileContactsCache.getInstance().invalidate(provider);
+        StoredUserProfileCache.getInstance().invalidate(provider);
+        ProfileContactsStore.getInstance().clear(provider);
+        ScoreDeltaTracker.getInstance().clear(provider);
+        LoginStateCache.getInstance().onLoggedIn(provider);
+        if (!isSubscribed(ProfileEventIds.LOGIN_FINISHED, provider)) {
+            return;
         }
+        UnitySendSerializedMessage(new ProfileSerializationStage.Job() {
+            @Override
+            public CharSequence serialize() throws JSONException {
+                if (ProfileEventWriter.isEnabled()) {
+                    ProfileEventWriter writer = ProfileEventWriter.obtain();
+                    writer.beginObject()
+                            .name("userProfile").userProfile(userProfile)
+                            .field("autoLogin", loginFinishedEvent.AutoLogin)
+                            .field("payload", payload)
+                            .endObject();
+                    return writer.chars();
+                }
+                JSONObject eventJSON = new JSONObject();
+                eventJSON.put("userProfile", userProfile.toJSONObject());
+                eventJSON.put("autoLogin", loginFinishedEvent.AutoLogin);
+                eventJSON.put("payload", payload);
+                return eventJSON.toString();
+            }
+        }, "onLoginFinished", provider.getValue(), started);
     }
 
     @Subscribe
     public void onLoginCancelled(final LoginCancelledEvent loginCancelledEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = loginCancelledEvent.Provider;
         String payload = loginCancelledEvent.Payload;
+        LoginStateCache.getInstance().invalidate(provider);
+        if (!isSubscribed(ProfileEventIds.LOGIN_CANCELLED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("autoLogin", loginCancelledEvent.AutoLogin);
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onLoginCancelled", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onLoginCancelled", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -121,16 +187,21 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onLoginFailed(final LoginFailedEvent loginFailedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = loginFailedEvent.Provider;
         String message = loginFailedEvent.ErrorDescription;
         String payload = loginFailedEvent.Payload;
+        LoginStateCache.getInstance().invalidate(provider);
+        if (!isSubscribed(ProfileEventIds.LOGIN_FAILED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("message", message);
             eventJSON.put("autoLogin", loginFailedEvent.AutoLogin);
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onLoginFailed", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onLoginFailed", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -138,11 +209,15 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onLogoutStarted(final LogoutStartedEvent logoutStartedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = logoutStartedEvent.Provider;
+        if (!isSubscribed(ProfileEventIds.LOGOUT_STARTED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
-            UnitySendFilteredMessage(eventJSON.toString(), "onLogoutStarted", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onLogoutStarted", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -150,11 +225,20 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onLogoutFinished(final LogoutFinishedEvent logoutFinishedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = logoutFinishedEvent.Provider;
+        ProfileContactsCache.getInstance().invalidate(provider);
+        StoredUserProfileCache.getInstance().invalidate(provider);
+        ProfileContactsStore.getInstance().clear(provider);
+        ScoreDeltaTracker.getInstance().clear(provider);
+        LoginStateCache.getInstance().onLoggedOut(provider);
+        if (!isSubscribed(ProfileEventIds.LOGOUT_FINISHED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
-            UnitySendFilteredMessage(eventJSON.toString(), "onLogoutFinished", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onLogoutFinished", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -162,11 +246,16 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onLogoutFailed(final LogoutFailedEvent logoutFailedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = logoutFailedEvent.Provider;
+        LoginStateCache.getInstance().invalidate(provider);
+        if (!isSubscribed(ProfileEventIds.LOGOUT_FAILED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
-            UnitySendFilteredMessage(eventJSON.toString(), "onLogoutFailed", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onLogoutFailed", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -174,15 +263,19 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onSocialActionStarted(final SocialActionStartedEvent socialActionStartedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = socialActionStartedEvent.Provider;
         ISocialProvider.SocialActionType socialActionType = socialActionStartedEvent.SocialActionType;
         String payload = socialActionStartedEvent.Payload;
+        if (!isSubscribed(ProfileEventIds.SOCIAL_ACTION_STARTED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("socialActionType", socialActionType.getValue());
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onSocialActionStarted", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onSocialActionStarted", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -190,15 +283,20 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onSocialActionFinished(final SocialActionFinishedEvent socialActionFinishedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = socialActionFinishedEvent.Provider;
         ISocialProvider.SocialActionType socialActionType = socialActionFinishedEvent.SocialActionType;
         String payload = socialActionFinishedEvent.Payload;
+        ProfileActionJournal.getInstance().onFinished(provider, socialActionType.name(), payload);
+        if (!isSubscribed(ProfileEventIds.SOCIAL_ACTION_FINISHED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("socialActionType", socialActionType.getValue());
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onSocialActionFinished", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onSocialActionFinished", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -206,15 +304,20 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onSocialActionCancelled(final SocialActionCancelledEvent socialActionCancelledEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = socialActionCancelledEvent.Provider;
         ISocialProvider.SocialActionType socialActionType = socialActionCancelledEvent.SocialActionType;
         String payload = socialActionCancelledEvent.Payload;
+        ProfileActionJournal.getInstance().onFinished(provider, socialActionType.name(), payload);
+        if (!isSubscribed(ProfileEventIds.SOCIAL_ACTION_CANCELLED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("socialActionType", socialActionType.getValue());
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onSocialActionCancelled", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onSocialActionCancelled", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -222,17 +325,24 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onSocialActionFailed(final SocialActionFailedEvent socialActionFailedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = socialActionFailedEvent.Provider;
         ISocialProvider.SocialActionType socialActionType = socialActionFailedEvent.SocialActionType;
+        if (ProfileActionJournal.getInstance().onFailed(provider, socialActionType.name(), socialActionFailedEvent.Payload)) {
+            return;
+        }
         String message = socialActionFailedEvent.ErrorDescription;
         String payload = socialActionFailedEvent.Payload;
+        if (!isSubscribed(ProfileEventIds.SOCIAL_ACTION_FAILED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("socialActionType", socialActionType.getValue());
             eventJSON.put("message", message);
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onSocialActionFailed", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onSocialActionFailed", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -240,15 +350,23 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onGetContactsStarted(final GetContactsStartedEvent getContactsStartedEvent){
+        long started = ProfileMetrics.start();
+        if (ProfileContactsCache.getInstance().consume(getContactsStartedEvent)) {
+            return;
+        }
         IProvider.Provider provider = getContactsStartedEvent.Provider;
         String payload = getContactsStartedEvent.Payload;
 		boolean fromStart = getContactsStartedEvent.FromStart;
+        ProfileContactsStore.getInstance().onRequestStarted(provider, fromStart);
+        if (!isSubscribed(ProfileEventIds.GET_CONTACTS_STARTED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("payload", payload);
 			eventJSON.put("fromStart", fromStart);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetContactsStarted", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetContactsStarted", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -256,39 +374,57 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onGetContactsFinished(final GetContactsFinishedEvent getContactsFinishedEvent){
-        IProvider.Provider provider = getContactsFinishedEvent.Provider;
-        String payload = getContactsFinishedEvent.Payload;
-        boolean hasMore = getContactsFinishedEvent.HasMore;
-
-        List<UserProfile> contacts = getContactsFinishedEvent.Contacts;
-        try{
-            JSONArray contactsJSONArray = new JSONArray();
-            for (UserProfile contact : contacts) {
-                contactsJSONArray.put(contact.toJSONObject());
-            }
-
+        long started = ProfileMetrics.start();
+        if (ProfileContactsCache.getInstance().consume(getContactsFinishedEvent)) {
+            return;
+        }
+        final IProvider.Provider provider = getContactsFinishedEvent.Provider;
+        final String payload = getContactsFinishedEvent.Payload;
+        final boolean hasMore = getContactsFinishedEvent.HasMore;
+        final List<UserProfile> contacts = getContactsFinishedEvent.Contacts;
+        ProfileContactsStore contactsStore = ProfileContactsStore.getInstance();
+        final int total = contactsStore.isEnabled() ? contactsStore.add(provider, contacts) : -1;
+
+        if (!isSubscribed(ProfileEventIds.GET_CONTACTS_FINISHED, provider)) {
+            return;
+        }
+        if (total >= 0) {
+            // the contacts are queried from the store, Unity only learns how many there are
             JSONObject eventJSON = new JSONObject();
-            eventJSON.put("provider", provider.getValue());
-            eventJSON.put("contacts", contactsJSONArray);
-            eventJSON.put("payload", payload);
-            eventJSON.put("hasMore", hasMore);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetContactsFinished", provider.getValue());
-        } catch (JSONException e) {
-            throw new IllegalStateException(e);
+            try {
+                eventJSON.put("provider", provider.getValue());
+                eventJSON.put("contacts", new JSONArray());
+                eventJSON.put("total", total);
+                eventJSON.put("payload", payload);
+                eventJSON.put("hasMore", hasMore);
+                UnitySendFilteredMessage(eventJSON.toString(), "onGetContactsFinished", provider.getValue(), started);
+            } catch (JSONException e) {
+                throw new IllegalStateException(e);
+            }
+            return;
         }
+        sendResult(provider, "contacts", CONTACT_WRITER, contacts, payload, hasMore,
+                "onGetContactsFinished", "onGetContactsChunk", started);
     }
 
     @Subscribe
     public void onGetContactsFailed(final GetContactsFailedEvent getContactsFailedEvent){
+        long started = ProfileMetrics.start();
+        if (ProfileContactsCache.getInstance().consume(getContactsFailedEvent)) {
+            return;
+        }
         IProvider.Provider provider = getContactsFailedEvent.Provider;
         String message = getContactsFailedEvent.ErrorDescription;
         String payload = getContactsFailedEvent.Payload;
+        if (!isSubscribed(ProfileEventIds.GET_CONTACTS_FAILED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("message", message);
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetContactsFailed", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetContactsFailed", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -296,15 +432,19 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onGetFeedStarted(final GetFeedStartedEvent getFeedStartedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = getFeedStartedEvent.Provider;
         String payload = getFeedStartedEvent.Payload;
         boolean fromStart = getFeedStartedEvent.FromStart;
+        if (!isSubscribed(ProfileEventIds.GET_FEED_STARTED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("payload", payload);
             eventJSON.put("fromStart", fromStart);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetFeedStarted", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetFeedStarted", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -312,39 +452,33 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onGetFeedFinished(final GetFeedFinishedEvent getFeedFinishedEvent){
-        IProvider.Provider provider = getFeedFinishedEvent.Provider;
-        String payload = getFeedFinishedEvent.Payload;
-        boolean hasMore = getFeedFinishedEvent.HasMore;
-        List<String> feeds = getFeedFinishedEvent.Posts;
-        try{
-            JSONArray feedsJSONArray = new JSONArray();
-            for (String feed: feeds) {
-                feedsJSONArray.put(feed);
-            }
-
-            JSONObject eventJSON = new JSONObject();
-            eventJSON.put("provider", provider.getValue());
-            eventJSON.put("feeds", feedsJSONArray);
-            eventJSON.put("payload", payload);
-            eventJSON.put("hasMore", hasMore);
-
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetFeedFinished", provider.getValue());
-        } catch (JSONException e) {
-            throw new IllegalStateException(e);
+        long started = ProfileMetrics.start();
+        final IProvider.Provider provider = getFeedFinishedEvent.Provider;
+        final String payload = getFeedFinishedEvent.Payload;
+        final boolean hasMore = getFeedFinishedEvent.HasMore;
+        if (!isSubscribed(ProfileEventIds.GET_FEED_FINISHED, provider)) {
+            return;
         }
+        final List<String> feeds = getFeedFinishedEvent.Posts;
+        sendResult(provider, "feeds", FEED_WRITER, feeds, payload, hasMore,
+                "onGetFeedFinished", "onGetFeedChunk", started);
     }
 
     @Subscribe
     public void onGetFeedFailed(final GetFeedFailedEvent getFeedFailedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = getFeedFailedEvent.Provider;
         String message = getFeedFailedEvent.ErrorDescription;
         String payload = getFeedFailedEvent.Payload;
+        if (!isSubscribed(ProfileEventIds.GET_FEED_FAILED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("message", message);
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetFeedFailed", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetFeedFailed", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -352,15 +486,19 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onInviteStarted(final InviteStartedEvent inviteStartedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = inviteStartedEvent.Provider;
         ISocialProvider.SocialActionType socialActionType = inviteStartedEvent.SocialActionType;
         String payload = inviteStartedEvent.Payload;
+        if (!isSubscribed(ProfileEventIds.INVITE_STARTED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("socialActionType", socialActionType.getValue());
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onInviteStarted", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onInviteStarted", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -368,9 +506,13 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onInviteFinished(final InviteFinishedEvent inviteFinishedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = inviteFinishedEvent.Provider;
         ISocialProvider.SocialActionType socialActionType = inviteFinishedEvent.SocialActionType;
         String requestId = inviteFinishedEvent.RequestId;
+        if (!isSubscribed(ProfileEventIds.INVITE_FINISHED, provider)) {
+            return;
+        }
         JSONArray invitedJson = new JSONArray(inviteFinishedEvent.InvitedIds);
         String payload = inviteFinishedEvent.Payload;
         JSONObject eventJSON = new JSONObject();
@@ -380,7 +522,7 @@ public class ProfileEventHandler {
             eventJSON.put("requestId", requestId);
             eventJSON.put("invitedIds", invitedJson);
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onInviteFinished", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onInviteFinished", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -388,15 +530,19 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onInviteCancelled(final InviteCancelledEvent inviteCancelledEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = inviteCancelledEvent.Provider;
         ISocialProvider.SocialActionType socialActionType = inviteCancelledEvent.SocialActionType;
         String payload = inviteCancelledEvent.Payload;
+        if (!isSubscribed(ProfileEventIds.INVITE_CANCELLED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("socialActionType", socialActionType.getValue());
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onInviteCancelled", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onInviteCancelled", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -404,17 +550,21 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onInviteFailed(final InviteFailedEvent inviteFailedEvent){
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = inviteFailedEvent.Provider;
         ISocialProvider.SocialActionType socialActionType = inviteFailedEvent.SocialActionType;
         String message = inviteFailedEvent.ErrorDescription;
         String payload = inviteFailedEvent.Payload;
+        if (!isSubscribed(ProfileEventIds.INVITE_FAILED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("socialActionType", socialActionType.getValue());
             eventJSON.put("message", message);
             eventJSON.put("payload", payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onInviteFailed", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onInviteFailed", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -422,12 +572,16 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onGetLeaderboardsStarted(final GetLeaderboardsStartedEvent getLeaderboardsStartedEvent) {
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = getLeaderboardsStartedEvent.Provider;
+        if (!isSubscribed(ProfileEventIds.GET_LEADERBOARDS_STARTED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("payload", getLeaderboardsStartedEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetLeaderboardsStarted", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetLeaderboardsStarted", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -435,31 +589,54 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onGetLeaderboardsFinished(final GetLeaderboardsFinishedEvent getLeaderboardsFinishedEvent) {
-        IProvider.Provider provider = getLeaderboardsFinishedEvent.Provider;
-        JSONObject eventJSON = new JSONObject();
-        try {
-            JSONArray leaderboardsJSONArray = new JSONArray();
-            for (Leaderboard leaderboard : getLeaderboardsFinishedEvent.Leaderboards) {
-                leaderboardsJSONArray.put(leaderboard.toJSONObject());
-            }
-            eventJSON.put("provider", provider.getValue());
-            eventJSON.put("leaderboards", leaderboardsJSONArray);
-            eventJSON.put("payload", getLeaderboardsFinishedEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetLeaderboardsFinished", provider.getValue());
-        } catch (JSONException e) {
-            throw new IllegalStateException(e);
+        long started = ProfileMetrics.start();
+        final IProvider.Provider provider = getLeaderboardsFinishedEvent.Provider;
+        LeaderboardRegistry.getInstance().register(provider, getLeaderboardsFinishedEvent.Leaderboards);
+        if (!isSubscribed(ProfileEventIds.GET_LEADERBOARDS_FINISHED, provider)) {
+            return;
         }
+        UnitySendSerializedMessage(new ProfileSerializationStage.Job() {
+            @Override
+            public CharSequence serialize() throws JSONException {
+                if (ProfileEventWriter.isEnabled()) {
+                    ProfileEventWriter writer = ProfileEventWriter.obtain();
+                    writer.beginObject()
+                            .field("provider", provider.getValue())
+                            .name("leaderboards").beginArray();
+                    for (Leaderboard leaderboard : getLeaderboardsFinishedEvent.Leaderboards) {
+                        writer.value(leaderboard.toJSONObject());
+                    }
+                    writer.endArray()
+                            .field("payload", getLeaderboardsFinishedEvent.Payload)
+                            .endObject();
+                    return writer.chars();
+                }
+                JSONObject eventJSON = new JSONObject();
+                JSONArray leaderboardsJSONArray = new JSONArray();
+                for (Leaderboard leaderboard : getLeaderboardsFinishedEvent.Leaderboards) {
+                    leaderboardsJSONArray.put(leaderboard.toJSONObject());
+                }
+                eventJSON.put("provider", provider.getValue());
+                eventJSON.put("leaderboards", leaderboardsJSONArray);
+                eventJSON.put("payload", getLeaderboardsFinishedEvent.Payload);
+                return eventJSON.toString();
+            }
+        }, "onGetLeaderboardsFinished", provider.getValue(), started);
     }
 
     @Subscribe
     public void onGetLeaderboardsFailed(final GetLeaderboardsFailedEvent getLeaderboardsFailedEvent) {
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = getLeaderboardsFailedEvent.Provider;
+        if (!isSubscribed(ProfileEventIds.GET_LEADERBOARDS_FAILED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("message", getLeaderboardsFailedEvent.ErrorDescription);
             eventJSON.put("payload", getLeaderboardsFailedEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetLeaderboardsFailed", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetLeaderboardsFailed", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -467,14 +644,20 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onGetScoresStarted(final GetScoresStartedEvent getScoresStartedEvent) {
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = getScoresStartedEvent.Provider;
+        ScoreDeltaTracker.getInstance().onRequestStarted(provider, getScoresStartedEvent.Leaderboard,
+                getScoresStartedEvent.FromStart);
+        if (!isSubscribed(ProfileEventIds.GET_SCORES_STARTED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("fromStart", getScoresStartedEvent.FromStart);
             eventJSON.put("leaderboard", getScoresStartedEvent.Leaderboard.toJSONObject());
             eventJSON.put("payload", getScoresStartedEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetScoresStarted", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetScoresStarted", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -482,27 +665,84 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onGetScoresFinished(final GetScoresFinishedEvent getScoresFinishedEvent) {
-        IProvider.Provider provider = getScoresFinishedEvent.Provider;
-        JSONObject eventJSON = new JSONObject();
-        try {
-            JSONArray scoresJSONArray = new JSONArray();
-            for (Score leaderboard : getScoresFinishedEvent.Scores) {
-                scoresJSONArray.put(leaderboard.toJSONObject());
-            }
-            eventJSON.put("provider", provider.getValue());
-            eventJSON.put("leaderboard", getScoresFinishedEvent.Leaderboard.toJSONObject());
-            eventJSON.put("scores", scoresJSONArray);
-            eventJSON.put("hasMore", getScoresFinishedEvent.HasMore);
-            eventJSON.put("payload", getScoresFinishedEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetScoresFinished", provider.getValue());
-        } catch (JSONException e) {
-            throw new IllegalStateException(e);
+        long started = ProfileMetrics.start();
+        final IProvider.Provider provider = getScoresFinishedEvent.Provider;
+        if (!isSubscribed(ProfileEventIds.GET_SCORES_FINISHED, provider)) {
+            return;
         }
+        if (ScoreDeltaTracker.getInstance().isEnabled()) {
+            final ScoreDeltaTracker.Delta delta = ScoreDeltaTracker.getInstance().update(provider,
+                    getScoresFinishedEvent.Leaderboard, getScoresFinishedEvent.Scores);
+            UnitySendSerializedMessage(new ProfileSerializationStage.Job() {
+                @Override
+                public CharSequence serialize() throws JSONException {
+                    ProfileEventWriter writer = ProfileEventWriter.obtain();
+                    writer.beginObject()
+                            .field("provider", provider.getValue())
+                            .name("leaderboard").value(getScoresFinishedEvent.Leaderboard.toJSONObject())
+                            .field("page", delta.page)
+                            .field("version", delta.version)
+                            .field("delta", delta.isDelta());
+                    if (delta.isDelta()) {
+                        writer.field("baseVersion", delta.baseVersion);
+                        writeScores(writer, "inserted", delta.inserted);
+                        writeScores(writer, "changed", delta.changed);
+                        writer.name("removed").beginArray();
+                        for (String playerId : delta.removed) {
+                            writer.value(playerId);
+                        }
+                        writer.endArray();
+                    } else {
+                        writeScores(writer, "scores", delta.scores);
+                    }
+                    writer.field("hasMore", getScoresFinishedEvent.HasMore)
+                            .field("payload", getScoresFinishedEvent.Payload)
+                            .endObject();
+                    return writer.chars();
+                }
+            }, "onGetScoresFinished", provider.getValue(), started);
+            return;
+        }
+        UnitySendSerializedMessage(new ProfileSerializationStage.Job() {
+            @Override
+            public CharSequence serialize() throws JSONException {
+                if (ProfileEventWriter.isEnabled()) {
+                    ProfileEventWriter writer = ProfileEventWriter.obtain();
+                    writer.beginObject()
+                            .field("provider", provider.getValue())
+                            .name("leaderboard").value(getScoresFinishedEvent.Leaderboard.toJSONObject())
+                            .name("scores").beginArray();
+                    for (Score score : getScoresFinishedEvent.Scores) {
+                        writer.value(score.toJSONObject());
+                    }
+                    writer.endArray()
+                            .field("hasMore", getScoresFinishedEvent.HasMore)
+                            .field("payload", getScoresFinishedEvent.Payload)
+                            .endObject();
+                    return writer.chars();
+                }
+                JSONObject eventJSON = new JSONObject();
+                JSONArray scoresJSONArray = new JSONArray();
+                for (Score leaderboard : getScoresFinishedEvent.Scores) {
+                    scoresJSONArray.put(leaderboard.toJSONObject());
+                }
+                eventJSON.put("provider", provider.getValue());
+                eventJSON.put("leaderboard", getScoresFinishedEvent.Leaderboard.toJSONObject());
+                eventJSON.put("scores", scoresJSONArray);
+                eventJSON.put("hasMore", getScoresFinishedEvent.HasMore);
+                eventJSON.put("payload", getScoresFinishedEvent.Payload);
+                return eventJSON.toString();
+            }
+        }, "onGetScoresFinished", provider.getValue(), started);
     }
 
     @Subscribe
     public void onGetScoresFailed(final GetScoresFailedEvent getScoresFailedEvent) {
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = getScoresFailedEvent.Provider;
+        if (!isSubscribed(ProfileEventIds.GET_LEADERBOARDS_FAILED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
@@ -510,7 +750,7 @@ public class ProfileEventHandler {
             eventJSON.put("fromStart", getScoresFailedEvent.FromStart);
             eventJSON.put("message", getScoresFailedEvent.ErrorDescription);
             eventJSON.put("payload", getScoresFailedEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetLeaderboardsFailed", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetLeaderboardsFailed", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -518,13 +758,17 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onSubmitScoreStarted(final SubmitScoreStartedEvent submitScoreStartedEvent) {
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = submitScoreStartedEvent.Provider;
+        if (!isSubscribed(ProfileEventIds.GET_SCORES_STARTED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("leaderboard", submitScoreStartedEvent.Leaderboard.toJSONObject());
             eventJSON.put("payload", submitScoreStartedEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetScoresStarted", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetScoresStarted", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -532,7 +776,12 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onSubmitScoreFinished(final SubmitScoreFinishedEvent submitScoreFinishedEvent) {
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = submitScoreFinishedEvent.Provider;
+        ProfileActionJournal.getInstance().onFinished(provider, ProfileActionJournal.SUBMIT_SCORE, submitScoreFinishedEvent.Payload);
+        if (!isSubscribed(ProfileEventIds.GET_SCORES_FINISHED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
 
@@ -540,7 +789,7 @@ public class ProfileEventHandler {
             eventJSON.put("leaderboard", submitScoreFinishedEvent.Leaderboard.toJSONObject());
             eventJSON.put("scores", submitScoreFinishedEvent.Score.toJSONObject());
             eventJSON.put("payload", submitScoreFinishedEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetScoresFinished", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetScoresFinished", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -548,14 +797,21 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onSubmitScoreFailed(final SubmitScoreFailedEvent submitScoreFailedEvent) {
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = submitScoreFailedEvent.Provider;
+        if (ProfileActionJournal.getInstance().onFailed(provider, ProfileActionJournal.SUBMIT_SCORE, submitScoreFailedEvent.Payload)) {
+            return;
+        }
+        if (!isSubscribed(ProfileEventIds.GET_LEADERBOARDS_FAILED, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("leaderboard", submitScoreFailedEvent.Leaderboard.toJSONObject());
             eventJSON.put("message", submitScoreFailedEvent.ErrorDescription);
             eventJSON.put("payload", submitScoreFailedEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onGetLeaderboardsFailed", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onGetLeaderboardsFailed", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
@@ -563,251 +819,854 @@ public class ProfileEventHandler {
 
     @Subscribe
     public void onShowLeaderboards(final ShowLeaderboardsEvent showLeaderboardsEvent) {
+        long started = ProfileMetrics.start();
         IProvider.Provider provider = showLeaderboardsEvent.Provider;
+        if (!isSubscribed(ProfileEventIds.SHOW_LEADERBOARDS, provider)) {
+            return;
+        }
         JSONObject eventJSON = new JSONObject();
         try {
             eventJSON.put("provider", provider.getValue());
             eventJSON.put("payload", showLeaderboardsEvent.Payload);
-            UnitySendFilteredMessage(eventJSON.toString(), "onShowLeaderboards", provider.getValue());
+            UnitySendFilteredMessage(eventJSON.toString(), "onShowLeaderboards", provider.getValue(), started);
         } catch (JSONException e) {
             throw new IllegalStateException(e);
         }
     }
 
-    private static void UnitySendFilteredMessage(String message, String recipient, int provider) {
+    /**
+     * Makes contacts and feed results go to Unity as <code>onGetContactsChunk</code> and
+     * <code>onGetFeedChunk</code> events of up to <code>chunkSize</code> items each, instead of a
+     * single <code>onGetContactsFinished</code> or <code>onGetFeedFinished</code>. A result's chunks
+     * are numbered from <code>0</code> in <code>sequence</code>, and the last one has <code>last</code>
+     * set; an empty result is a single empty chunk. Chunks are sent if their result's
+     * <code>Finished</code> event is subscribed to.
+     *
+     * @param chunkSize the most items per chunk, <code>0</code> or less to send results whole
+     */
+    public static void setChunkSize(int chunkSize) {
+        sChunkSize = Math.max(0, chunkSize);
+        SoomlaUtils.LogDebug(TAG, "Result chunk size: " + sChunkSize);
+    }
+
+    /**
+     * Sets which events are sent to Unity. Handlers check this before building an event's
+     * message, so events Unity doesn't listen to cost nothing but the check.
+     *
+     * @param eventMask bit <code>i</code> set if the event with <code>ProfileEventIds</code> id <code>i</code>
+     *                  should be sent
+     * @param providerMask bit <code>i</code> set if events of the provider with value <code>i</code>
+     *                     should be sent. {@link ProfileEventIds#ALWAYS_SENT} events are sent
+     *                     whatever the masks, since rewards are given on them.
+     */
+    public static void setSubscriptions(long eventMask, int providerMask) {
+        eventMask |= ProfileEventIds.ALWAYS_SENT;
+        sEventMask = eventMask;
+        sProviderMask = providerMask;
+        SoomlaUtils.LogDebug(TAG, "Event subscriptions set, events: " + Long.toHexString(eventMask) +
+                " providers: " + Integer.toHexString(providerMask));
+    }
+
+    /**
+     * @param provider the event's provider, <code>null</code> for events that aren't tied to one
+     */
+    private static boolean isSubscribed(int eventId, IProvider.Provider provider) {
+        if ((sEventMask & (1L << eventId)) == 0) {
+            return false;
+        }
+        if (provider == null) {
+            return true;
+        }
+        int providerValue = provider.getValue();
+        if ((ProfileEventIds.ALWAYS_SENT & (1L << eventId)) != 0) {
+            return providerValue != 0;
+        }
+        // facebook events are never sent, see UnitySendFilteredMessage
+        return providerValue != 0 && (sProviderMask & (1 << providerValue)) != 0;
+    }
+
+    private static void UnitySendFilteredMessage(CharSequence message, String recipient, int provider, long started) {
+        //don't send to facebook!
+        if (provider == 0)
+        {
+            SoomlaUtils.LogDebug(TAG, "Not sending event to provider: " + provider);
+            return;
+        }
+        UnitySendProfileMessage(message, recipient, provider, started);
+    }
+
+    /**
+     * Same as <code>UnitySendFilteredMessage</code>, with the message built by <code>job</code>:
+     * on the serialization stage's worker when it's on, right away otherwise.
+     */
+    private static void UnitySendSerializedMessage(ProfileSerializationStage.Job job, String recipient, int provider, long started) {
         //don't send to facebook!
         if (provider == 0)
         {
             SoomlaUtils.LogDebug(TAG, "Not sending event to provider: " + provider);
             return;
         }
-        UnityPlayer.UnitySendMessage("ProfileEvents", recipient, message);
+        if (ProfileSerializationStage.getInstance().submit(job, recipient, provider, started)) {
+            return;
+        }
+        try {
+            sendProfileMessage(job.serialize(), recipient, provider, started);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param started when the event's handler started, as returned by <code>ProfileMetrics.start()</code>
+     */
+    private static void UnitySendProfileMessage(CharSequence message, String recipient, int provider, long started) {
+        if (ProfileSerializationStage.getInstance().submit(message, recipient, provider, started)) {
+            return;
+        }
+        sendProfileMessage(message, recipient, provider, started);
+    }
+
+    /**
+     * Sends a message right away, on the calling thread.
+     */
+    static void sendProfileMessage(CharSequence message, String recipient, int provider, long started) {
+        int eventId = ProfileEventIds.idOf(recipient);
+        ProfileTraceRecorder.event(provider, eventId, message);
+        try {
+            deliverProfileMessage(message, recipient, provider, eventId);
+        } finally {
+            ProfileMetrics.end(ProfileMetrics.eventMetric(eventId), started, message.length());
+        }
+    }
+
+    private static void deliverProfileMessage(CharSequence message, String recipient, int provider, int eventId) {
+        ProfileEventSink sink = sEventSink;
+        if (sink != null) {
+            try {
+                sink.onEvent(provider, eventId, message.toString());
+                return;
+            } catch (Exception e) {
+                SoomlaUtils.LogError(TAG, "Event sink failed, sending " + recipient + " with UnitySendMessage: " + e.getMessage());
+            }
+        }
+        ProfileEventRingBuffer ring = ProfileEventRingBuffer.getOpen();
+        if (ring != null) {
+            if (ring.write(recipient, message)) {
+                return;
+            }
+            SoomlaUtils.LogDebug(TAG, "Event ring buffer is closed, sending " + recipient + " directly");
+        }
+        ProfileEventBatcher.getInstance().send(recipient, message);
+    }
+
+    /**
+     * Makes events go straight to the given sink instead of through <code>UnitySendMessage</code>
+     * (or the ring buffer and batcher, when they're on).
+     *
+     * @param sink the sink to deliver events to, or <code>null</code> to go back to <code>UnitySendMessage</code>
+     */
+    public static void setEventSink(ProfileEventSink sink) {
+        sEventSink = sink;
+        SoomlaUtils.LogDebug(TAG, "Event sink " + (sink != null ? "registered" : "unregistered"));
     }
 
     /**************************************************************************************************/
     // events pushed from external provider (Unity FB SDK etc.)
 
     public static void pushEventLoginStarted(String providerStr, boolean autoLogin, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        BusProvider.getInstance().post(new LoginStartedEvent(provider, autoLogin, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventLoginStarted", providerStr, autoLogin, payload);
+            }
+            postPushedEvent(provider, new LoginStartedEvent(provider, autoLogin, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_LOGIN_STARTED, started);
+        }
     }
 
     public static void pushEventLoginFinished(String userProfileJSON, boolean autoLogin, String payload) throws Exception {
-        JSONObject jsonObject = new JSONObject(userProfileJSON);
-        UserProfile userProfile = new UserProfile(jsonObject);
-        BusProvider.getInstance().post(new LoginFinishedEvent(userProfile, autoLogin, payload));
+        long started = ProfileMetrics.start();
+        try {
+            JSONObject jsonObject = new JSONObject(userProfileJSON);
+            UserProfile userProfile = new UserProfile(jsonObject);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventLoginFinished", userProfileJSON, autoLogin, payload);
+            }
+            postPushedEvent(userProfile.getProvider(), new LoginFinishedEvent(userProfile, autoLogin, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_LOGIN_FINISHED, started);
+        }
     }
 
     public static void pushEventLoginFailed(String providerStr, String message, boolean autoLogin, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        BusProvider.getInstance().post(new LoginFailedEvent(provider, message, autoLogin, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventLoginFailed", providerStr, message, autoLogin, payload);
+            }
+            postPushedEvent(provider, new LoginFailedEvent(provider, message, autoLogin, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_LOGIN_FAILED, started);
+        }
     }
 
     public static void pushEventLoginCancelled(String providerStr, boolean autoLogin, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        BusProvider.getInstance().post(new LoginCancelledEvent(provider, autoLogin, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventLoginCancelled", providerStr, autoLogin, payload);
+            }
+            postPushedEvent(provider, new LoginCancelledEvent(provider, autoLogin, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_LOGIN_CANCELLED, started);
+        }
     }
 
     public static void pushEventLogoutStarted(String providerStr) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        BusProvider.getInstance().post(new LogoutStartedEvent(provider));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventLogoutStarted", providerStr);
+            }
+            postPushedEvent(provider, new LogoutStartedEvent(provider), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_LOGOUT_STARTED, started);
+        }
     }
 
     public static void pushEventLogoutFinished(String providerStr) throws Exception {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        BusProvider.getInstance().post(new LogoutFinishedEvent(provider));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventLogoutFinished", providerStr);
+            }
+            postPushedEvent(provider, new LogoutFinishedEvent(provider), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_LOGOUT_FINISHED, started);
+        }
     }
 
     public static void pushEventLogoutFailed(String providerStr, String message) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        BusProvider.getInstance().post(new LogoutFailedEvent(provider, message));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventLogoutFailed", providerStr, message);
+            }
+            postPushedEvent(provider, new LogoutFailedEvent(provider, message), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_LOGOUT_FAILED, started);
+        }
     }
 
     public static void pushEventSocialActionStarted(String providerStr, String actionTypeStr, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
-        BusProvider.getInstance().post(new SocialActionStartedEvent(provider, socialActionType, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventSocialActionStarted", providerStr, actionTypeStr, payload);
+            }
+            postPushedEvent(provider, new SocialActionStartedEvent(provider, socialActionType, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_SOCIAL_ACTION_STARTED, started);
+        }
     }
 
     public static void pushEventSocialActionFinished(String providerStr, String actionTypeStr, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
-        BusProvider.getInstance().post(new SocialActionFinishedEvent(provider, socialActionType, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventSocialActionFinished", providerStr, actionTypeStr, payload);
+            }
+            postPushedEvent(provider, new SocialActionFinishedEvent(provider, socialActionType, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_SOCIAL_ACTION_FINISHED, started);
+        }
     }
 
     public static void pushEventSocialActionCancelled(String providerStr, String actionTypeStr, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
-        BusProvider.getInstance().post(new SocialActionCancelledEvent(provider, socialActionType, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventSocialActionCancelled", providerStr, actionTypeStr, payload);
+            }
+            postPushedEvent(provider, new SocialActionCancelledEvent(provider, socialActionType, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_SOCIAL_ACTION_CANCELLED, started);
+        }
     }
 
     public static void pushEventSocialActionFailed(String providerStr, String actionTypeStr, String message, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
-        BusProvider.getInstance().post(new SocialActionFailedEvent(provider, socialActionType, message, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventSocialActionFailed", providerStr, actionTypeStr, message, payload);
+            }
+            postPushedEvent(provider, new SocialActionFailedEvent(provider, socialActionType, message, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_SOCIAL_ACTION_FAILED, started);
+        }
+    }
+
+    /**
+     * Same as the <code>pushEventSocialAction*</code> methods, with the event, provider and
+     * action type passed as their <code>ProfileBridgeCodes</code> codes.
+     *
+     * @param message the error message, used by failure events only
+     */
+    public static void pushEventSocialAction(int eventCode, int providerCode, int actionTypeCode,
+                                             String message, String payload) throws ProviderNotFoundException {
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = ProfileBridgeCodes.provider(providerCode);
+            ISocialProvider.SocialActionType socialActionType = ProfileBridgeCodes.socialActionType(actionTypeCode);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventSocialAction",
+                        eventCode, providerCode, actionTypeCode, message, payload);
+            }
+            switch (eventCode) {
+                case ProfileBridgeCodes.EVENT_STARTED:
+                    postPushedEvent(provider, new SocialActionStartedEvent(provider, socialActionType, payload), recorded);
+                    break;
+                case ProfileBridgeCodes.EVENT_FINISHED:
+                    postPushedEvent(provider, new SocialActionFinishedEvent(provider, socialActionType, payload), recorded);
+                    break;
+                case ProfileBridgeCodes.EVENT_CANCELLED:
+                    postPushedEvent(provider, new SocialActionCancelledEvent(provider, socialActionType, payload), recorded);
+                    break;
+                case ProfileBridgeCodes.EVENT_FAILED:
+                    postPushedEvent(provider, new SocialActionFailedEvent(provider, socialActionType, message, payload), recorded);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown social action event: " + eventCode);
+            }
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_SOCIAL_ACTION, started);
+        }
     }
 
     public static void pushEventGetContactsStarted(String providerStr, boolean fromStart, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        BusProvider.getInstance().post(new GetContactsStartedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS, fromStart, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventGetContactsStarted", providerStr, fromStart, payload);
+            }
+            postPushedEvent(provider, new GetContactsStartedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS, fromStart, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_GET_CONTACTS_STARTED, started);
+        }
     }
 
     public static void pushEventGetContactsFinished(String providerStr, String userProfilesJSON, String payload, boolean hasMore) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        List<UserProfile> contacts = new ArrayList<UserProfile> ();
+        long started = ProfileMetrics.start();
         try {
-            JSONArray jsonArray = new JSONArray(userProfilesJSON);
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject userProfileJSON = jsonArray.getJSONObject(i);
-                UserProfile profile = new UserProfile(userProfileJSON);
-                contacts.add(profile);
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            List<UserProfile> contacts = new ArrayList<UserProfile> ();
+            try {
+                JSONArray jsonArray = new JSONArray(userProfilesJSON);
+                for (int i = 0; i < jsonArray.length(); i++) {
+                    JSONObject userProfileJSON = jsonArray.getJSONObject(i);
+                    UserProfile profile = new UserProfile(userProfileJSON);
+                    contacts.add(profile);
+                }
+            } catch (JSONException e) {
+                SoomlaUtils.LogError(TAG, "(pushEventGetContactsFinished) Unable to parse user profiles from Unity " + userProfilesJSON +
+                        "reason: " + e.getLocalizedMessage());
             }
-        } catch (JSONException e) {
-            SoomlaUtils.LogError(TAG, "(pushEventGetContactsFinished) Unable to parse user profiles from Unity " + userProfilesJSON +
-                    "reason: " + e.getLocalizedMessage());
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventGetContactsFinished", providerStr, userProfilesJSON, payload, hasMore);
+            }
+            postPushedEvent(provider, new GetContactsFinishedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS, contacts, payload, hasMore), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_GET_CONTACTS_FINISHED, started);
         }
-        BusProvider.getInstance().post(new GetContactsFinishedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS, contacts, payload, hasMore));
     }
 
     public static void pushEventGetContactsFailed(String providerStr, String message, Boolean fromStart, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        BusProvider.getInstance().post(new GetContactsFailedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS, message, fromStart, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventGetContactsFailed", providerStr, message, fromStart, payload);
+            }
+            postPushedEvent(provider, new GetContactsFailedEvent(provider, ISocialProvider.SocialActionType.GET_CONTACTS, message, fromStart, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_GET_CONTACTS_FAILED, started);
+        }
     }
 
     public static void pushEventInviteStarted(String providerStr, String actionTypeStr, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
-        BusProvider.getInstance().post(new InviteStartedEvent(provider, socialActionType, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventInviteStarted", providerStr, actionTypeStr, payload);
+            }
+            postPushedEvent(provider, new InviteStartedEvent(provider, socialActionType, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_INVITE_STARTED, started);
+        }
     }
 
     public static void pushEventInviteFinished(String providerStr, String actionTypeStr, String requestId, String invitedIdsStr, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
-        List<String> invitedIds = new ArrayList<String> ();
+        long started = ProfileMetrics.start();
         try {
-            JSONArray jsonInvited = new JSONArray(invitedIdsStr);
-            for (int i = 0; i < jsonInvited.length(); i++) {
-                invitedIds.add(jsonInvited.getString(i));
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
+            List<String> invitedIds = new ArrayList<String> ();
+            try {
+                JSONArray jsonInvited = new JSONArray(invitedIdsStr);
+                for (int i = 0; i < jsonInvited.length(); i++) {
+                    invitedIds.add(jsonInvited.getString(i));
+                }
+            } catch (JSONException e) {
+                SoomlaUtils.LogError(TAG, "(pushEventInviteFinished) Unable to parse user profiles from Unity " + invitedIdsStr +
+                        "reason: " + e.getLocalizedMessage());
             }
-        } catch (JSONException e) {
-            SoomlaUtils.LogError(TAG, "(pushEventInviteFinished) Unable to parse user profiles from Unity " + invitedIdsStr +
-                    "reason: " + e.getLocalizedMessage());
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventInviteFinished", providerStr, actionTypeStr, requestId, invitedIdsStr, payload);
+            }
+            postPushedEvent(provider, new InviteFinishedEvent(provider, socialActionType, requestId, invitedIds, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_INVITE_FINISHED, started);
         }
-        BusProvider.getInstance().post(new InviteFinishedEvent(provider, socialActionType, requestId, invitedIds, payload));
     }
 
     public static void pushEventInviteCancelled(String providerStr, String actionTypeStr, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
-        BusProvider.getInstance().post(new InviteCancelledEvent(provider, socialActionType, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventInviteCancelled", providerStr, actionTypeStr, payload);
+            }
+            postPushedEvent(provider, new InviteCancelledEvent(provider, socialActionType, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_INVITE_CANCELLED, started);
+        }
     }
 
     public static void pushEventInviteFailed(String providerStr, String actionTypeStr, String message, String payload) {
-        IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
-        ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
-        BusProvider.getInstance().post(new InviteFailedEvent(provider, socialActionType, message, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            ISocialProvider.SocialActionType socialActionType = ISocialProvider.SocialActionType.getEnum(actionTypeStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventInviteFailed", providerStr, actionTypeStr, message, payload);
+            }
+            postPushedEvent(provider, new InviteFailedEvent(provider, socialActionType, message, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_INVITE_FAILED, started);
+        }
     }
 
     protected static void pushEventGetLeaderboardsStarted(String providerStr, String payload) {
-        BusProvider.getInstance().post(new GetLeaderboardsStartedEvent(IProvider.Provider.getEnum(providerStr), payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventGetLeaderboardsStarted", providerStr, payload);
+            }
+            postPushedEvent(provider, new GetLeaderboardsStartedEvent(provider, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_GET_LEADERBOARDS_STARTED, started);
+        }
     }
 
     protected static void pushEventGetLeaderboardsFinished(String providerStr, String leaderbardsJson, String payload) {
-        List<Leaderboard> leaderboards = new ArrayList<Leaderboard> ();
+        long started = ProfileMetrics.start();
         try {
-            JSONArray jsonArray = new JSONArray(leaderbardsJson);
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject leaderboardJSON = jsonArray.getJSONObject(i);
-                Leaderboard leaderboard = new Leaderboard(leaderboardJSON);
-                leaderboards.add(leaderboard);
+            List<Leaderboard> leaderboards = new ArrayList<Leaderboard> ();
+            try {
+                JSONArray jsonArray = new JSONArray(leaderbardsJson);
+                for (int i = 0; i < jsonArray.length(); i++) {
+                    JSONObject leaderboardJSON = jsonArray.getJSONObject(i);
+                    Leaderboard leaderboard = new Leaderboard(leaderboardJSON);
+                    leaderboards.add(leaderboard);
+                }
+            } catch (JSONException e) {
+                SoomlaUtils.LogError(TAG, "(pushEventGetLeaderboardsFinished) Unable to parse leaderboards from Unity " + leaderbardsJson +
+                        "reason: " + e.getLocalizedMessage());
             }
-        } catch (JSONException e) {
-            SoomlaUtils.LogError(TAG, "(pushEventGetLeaderboardsFinished) Unable to parse leaderboards from Unity " + leaderbardsJson +
-                    "reason: " + e.getLocalizedMessage());
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventGetLeaderboardsFinished", providerStr, leaderbardsJson, payload);
+            }
+            postPushedEvent(provider, new GetLeaderboardsFinishedEvent(provider, leaderboards, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_GET_LEADERBOARDS_FINISHED, started);
         }
-        BusProvider.getInstance().post(new GetLeaderboardsFinishedEvent(IProvider.Provider.getEnum(providerStr), leaderboards, payload));
     }
 
     protected static void pushEventGetLeaderboardsFailed(String providerStr, String message, String payload) {
-        BusProvider.getInstance().post(new GetLeaderboardsFailedEvent(IProvider.Provider.getEnum(providerStr), message, payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventGetLeaderboardsFailed", providerStr, message, payload);
+            }
+            postPushedEvent(provider, new GetLeaderboardsFailedEvent(provider, message, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_GET_LEADERBOARDS_FAILED, started);
+        }
     }
 
     protected static void pushEventGetScoresStarted(String providerStr, String fromJson, boolean fromStart, String payload) {
-        Leaderboard leaderboard = null;
+        long started = ProfileMetrics.start();
         try {
-            leaderboard = new Leaderboard(new JSONObject(fromJson));
-        } catch (JSONException e) {
-            SoomlaUtils.LogError(TAG, "(pushEventGetContactsFinished) Unable to parse user profiles from Unity " + fromJson +
-                    "reason: " + e.getLocalizedMessage());
+            Leaderboard leaderboard = null;
+            try {
+                leaderboard = LeaderboardRegistry.getInstance().parse(fromJson);
+            } catch (JSONException e) {
+                SoomlaUtils.LogError(TAG, "(pushEventGetContactsFinished) Unable to parse user profiles from Unity " + fromJson +
+                        "reason: " + e.getLocalizedMessage());
+            }
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventGetScoresStarted", providerStr, fromJson, fromStart, payload);
+            }
+            postPushedEvent(provider, new GetScoresStartedEvent(provider, leaderboard, fromStart, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_GET_SCORES_STARTED, started);
         }
-        BusProvider.getInstance().post(new GetScoresStartedEvent(IProvider.Provider.getEnum(providerStr), leaderboard, fromStart, payload));
     }
 
     protected static void pushEventGetScoresFinished(String providerStr, String fromJson, String scoresJson, boolean hasMore, String payload) {
-        Leaderboard leaderboard = null;
-        List<Score> scores = new ArrayList<Score> ();
+        long started = ProfileMetrics.start();
         try {
-            leaderboard = new Leaderboard(new JSONObject(fromJson));
-            JSONArray jsonArray = new JSONArray(scoresJson);
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject scoreJSON = jsonArray.getJSONObject(i);
-                Score score = new Score(scoreJSON);
-                scores.add(score);
+            Leaderboard leaderboard = null;
+            List<Score> scores = new ArrayList<Score> ();
+            try {
+                leaderboard = LeaderboardRegistry.getInstance().parse(fromJson);
+                JSONArray jsonArray = new JSONArray(scoresJson);
+                for (int i = 0; i < jsonArray.length(); i++) {
+                    JSONObject scoreJSON = jsonArray.getJSONObject(i);
+                    Score score = new Score(scoreJSON);
+                    scores.add(score);
+                }
+            } catch (JSONException e) {
+                SoomlaUtils.LogError(TAG, "(pushEventGetScoresFinished) Unable to parse scores from Unity " + scoresJson +
+                        "reason: " + e.getLocalizedMessage());
             }
-        } catch (JSONException e) {
-            SoomlaUtils.LogError(TAG, "(pushEventGetScoresFinished) Unable to parse scores from Unity " + scoresJson +
-                    "reason: " + e.getLocalizedMessage());
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventGetScoresFinished", providerStr, fromJson, scoresJson, hasMore, payload);
+            }
+            postPushedEvent(provider, new GetScoresFinishedEvent(provider, leaderboard, scores, hasMore, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_GET_SCORES_FINISHED, started);
         }
-        BusProvider.getInstance().post(new GetScoresFinishedEvent(IProvider.Provider.getEnum(providerStr), leaderboard, scores, hasMore, payload));
     }
 
     protected static void pushEventGetScoresFailed(String providerStr, String fromJson, String message, boolean fromStart, String payload) {
-        Leaderboard leaderboard = null;
+        long started = ProfileMetrics.start();
         try {
-            leaderboard = new Leaderboard(new JSONObject(fromJson));
-        } catch (JSONException e) {
-            SoomlaUtils.LogError(TAG, "(pushEventGetScoresFailed) Unable to parse user profiles from Unity " + fromJson +
-                    "reason: " + e.getLocalizedMessage());
+            Leaderboard leaderboard = null;
+            try {
+                leaderboard = LeaderboardRegistry.getInstance().parse(fromJson);
+            } catch (JSONException e) {
+                SoomlaUtils.LogError(TAG, "(pushEventGetScoresFailed) Unable to parse user profiles from Unity " + fromJson +
+                        "reason: " + e.getLocalizedMessage());
+            }
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventGetScoresFailed", providerStr, fromJson, message, fromStart, payload);
+            }
+            postPushedEvent(provider, new GetScoresFailedEvent(provider, leaderboard, fromStart, message, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_GET_SCORES_FAILED, started);
         }
-        BusProvider.getInstance().post(new GetScoresFailedEvent(IProvider.Provider.getEnum(providerStr), leaderboard, fromStart, message, payload));
     }
 
     protected static void pushEventSubmitScoreStarted(String providerStr, String toJson, String payload) {
-        Leaderboard leaderboard = null;
+        long started = ProfileMetrics.start();
         try {
-            leaderboard = new Leaderboard(new JSONObject(toJson));
-        } catch (JSONException e) {
-            SoomlaUtils.LogError(TAG, "(pushEventSubmitScoreStarted) Unable to parse user profiles from Unity " + toJson +
-                    "reason: " + e.getLocalizedMessage());
+            Leaderboard leaderboard = null;
+            try {
+                leaderboard = LeaderboardRegistry.getInstance().parse(toJson);
+            } catch (JSONException e) {
+                SoomlaUtils.LogError(TAG, "(pushEventSubmitScoreStarted) Unable to parse user profiles from Unity " + toJson +
+                        "reason: " + e.getLocalizedMessage());
+            }
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventSubmitScoreStarted", providerStr, toJson, payload);
+            }
+            postPushedEvent(provider, new SubmitScoreStartedEvent(provider, leaderboard, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_SUBMIT_SCORE_STARTED, started);
         }
-        BusProvider.getInstance().post(new SubmitScoreStartedEvent(IProvider.Provider.getEnum(providerStr), leaderboard, payload));
     }
 
     protected static void pushEventSubmitScoreFinished(String providerStr, String toJson, String scoreJson, String payload) {
-        Leaderboard leaderboard = null;
-        Score score = null;
+        long started = ProfileMetrics.start();
         try {
-            leaderboard = new Leaderboard(new JSONObject(toJson));
-            score = new Score(new JSONObject(scoreJson));
-        } catch (JSONException e) {
-            SoomlaUtils.LogError(TAG, "(pushEventSubmitScoreFinished) Unable to parse user profiles from Unity " + toJson +
-                    "reason: " + e.getLocalizedMessage());
+            Leaderboard leaderboard = null;
+            Score score = null;
+            try {
+                leaderboard = LeaderboardRegistry.getInstance().parse(toJson);
+                score = new Score(new JSONObject(scoreJson));
+            } catch (JSONException e) {
+                SoomlaUtils.LogError(TAG, "(pushEventSubmitScoreFinished) Unable to parse user profiles from Unity " + toJson +
+                        "reason: " + e.getLocalizedMessage());
+            }
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventSubmitScoreFinished", providerStr, toJson, scoreJson, payload);
+            }
+            postPushedEvent(provider, new SubmitScoreFinishedEvent(provider, leaderboard, score, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_SUBMIT_SCORE_FINISHED, started);
         }
-        BusProvider.getInstance().post(new SubmitScoreFinishedEvent(IProvider.Provider.getEnum(providerStr), leaderboard, score, payload));
     }
 
     protected static void pushEventSubmitScoreFailed(String providerStr, String toJson, String message, String payload) {
-        Leaderboard leaderboard = null;
+        long started = ProfileMetrics.start();
         try {
-            leaderboard = new Leaderboard(new JSONObject(toJson));
-        } catch (JSONException e) {
-            SoomlaUtils.LogError(TAG, "(pushEventSubmitScoreFailed) Unable to parse user profiles from Unity " + toJson +
-                    "reason: " + e.getLocalizedMessage());
+            Leaderboard leaderboard = null;
+            try {
+                leaderboard = LeaderboardRegistry.getInstance().parse(toJson);
+            } catch (JSONException e) {
+                SoomlaUtils.LogError(TAG, "(pushEventSubmitScoreFailed) Unable to parse user profiles from Unity " + toJson +
+                        "reason: " + e.getLocalizedMessage());
+            }
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventSubmitScoreFailed", providerStr, toJson, message, payload);
+            }
+            postPushedEvent(provider, new SubmitScoreFailedEvent(provider, leaderboard, message, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_SUBMIT_SCORE_FAILED, started);
         }
-        BusProvider.getInstance().post(new SubmitScoreFailedEvent(IProvider.Provider.getEnum(providerStr), leaderboard, message, payload));
     }
 
     protected static void pushEventShowLeaderboards(String providerStr, String payload) {
-        BusProvider.getInstance().post(new ShowLeaderboardsEvent(IProvider.Provider.getEnum(providerStr), payload));
+        long started = ProfileMetrics.start();
+        try {
+            IProvider.Provider provider = IProvider.Provider.getEnum(providerStr);
+            boolean recorded = ProfileTraceRecorder.isRecording();
+            if (recorded) {
+                ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_EVENT_HANDLER, "pushEventShowLeaderboards", providerStr, payload);
+            }
+            postPushedEvent(provider, new ShowLeaderboardsEvent(provider, payload), recorded);
+        } finally {
+            ProfileMetrics.end(M_PUSH_EVENT_SHOW_LEADERBOARDS, started);
+        }
     }
+
+    /**
+     * Writes a named array of scores already serialized by <code>ScoreDeltaTracker</code>.
+     */
+    private static void writeScores(ProfileEventWriter writer, String name, List<String> scores) {
+        writer.name(name).beginArray();
+        for (String scoreJSON : scores) {
+            writer.rawValue(scoreJSON);
+        }
+        writer.endArray();
+    }
+
+    /**
+     * Sends a contacts or feed result as one <code>recipient</code> message, or as
+     * <code>chunkRecipient</code> messages of up to <code>sChunkSize</code> items when chunking is on.
+     *
+     * @param itemsName the name of the items' array in the messages
+     */
+    private static <T> void sendResult(IProvider.Provider provider, String itemsName, ItemWriter<T> itemWriter,
+                                       List<T> items, String payload, boolean hasMore,
+                                       String recipient, String chunkRecipient, long started) {
+        int chunkSize = sChunkSize;
+        if (chunkSize <= 0) {
+            UnitySendSerializedMessage(new ResultJob<T>(provider, itemsName, itemWriter, items, -1, false, payload, hasMore),
+                    recipient, provider.getValue(), started);
+            return;
+        }
+        int chunks = Math.max(1, (items.size() + chunkSize - 1) / chunkSize);
+        for (int i = 0; i < chunks; i++) {
+            List<T> chunk = items.subList(i * chunkSize, Math.min(items.size(), (i + 1) * chunkSize));
+            UnitySendSerializedMessage(new ResultJob<T>(provider, itemsName, itemWriter, chunk, i, i == chunks - 1, payload, hasMore),
+                    chunkRecipient, provider.getValue(), started);
+        }
+    }
+
+    /**
+     * Writes one item of a result, with the streaming writer or as a value for <code>JSONArray</code>.
+     */
+    private abstract static class ItemWriter<T> {
+        abstract void write(ProfileEventWriter writer, T item);
+
+        abstract Object toJSON(T item) throws JSONException;
+    }
+
+    private static final ItemWriter<UserProfile> CONTACT_WRITER = new ItemWriter<UserProfile>() {
+        @Override
+        void write(ProfileEventWriter writer, UserProfile contact) {
+            writer.userProfile(contact);
+        }
+
+        @Override
+        Object toJSON(UserProfile contact) {
+            return contact.toJSONObject();
+        }
+    };
+
+    private static final ItemWriter<String> FEED_WRITER = new ItemWriter<String>() {
+        @Override
+        void write(ProfileEventWriter writer, String feed) {
+            writer.value(feed);
+        }
+
+        @Override
+        Object toJSON(String feed) {
+            return feed;
+        }
+    };
+
+    /**
+     * Builds a result message, only ever holding its own items' JSON. Chunks (<code>sequence</code>
+     * of <code>0</code> or more) also tell their sequence number and whether they're the last one.
+     */
+    private static class ResultJob<T> extends ProfileSerializationStage.Job {
+
+        ResultJob(IProvider.Provider provider, String itemsName, ItemWriter<T> itemWriter, List<T> items,
+                  int sequence, boolean last, String payload, boolean hasMore) {
+            mProvider = provider;
+            mItemsName = itemsName;
+            mItemWriter = itemWriter;
+            mItems = items;
+            mSequence = sequence;
+            mLast = last;
+            mPayload = payload;
+            mHasMore = hasMore;
+        }
+
+        @Override
+        public CharSequence serialize() throws JSONException {
+            if (ProfileEventWriter.isEnabled()) {
+                ProfileEventWriter writer = ProfileEventWriter.obtain();
+                writer.beginObject()
+                        .field("provider", mProvider.getValue());
+                if (mSequence >= 0) {
+                    writer.field("sequence", mSequence)
+                            .field("last", mLast);
+                }
+                writer.name(mItemsName).beginArray();
+                for (T item : mItems) {
+                    mItemWriter.write(writer, item);
+                }
+                writer.endArray()
+                        .field("payload", mPayload)
+                        .field("hasMore", mHasMore)
+                        .endObject();
+                return writer.chars();
+            }
+            JSONArray itemsJSONArray = new JSONArray();
+            for (T item : mItems) {
+                itemsJSONArray.put(mItemWriter.toJSON(item));
+            }
+
+            JSONObject eventJSON = new JSONObject();
+            eventJSON.put("provider", mProvider.getValue());
+            if (mSequence >= 0) {
+                eventJSON.put("sequence", mSequence);
+                eventJSON.put("last", mLast);
+            }
+            eventJSON.put(mItemsName, itemsJSONArray);
+            eventJSON.put("payload", mPayload);
+            eventJSON.put("hasMore", mHasMore);
+            return eventJSON.toString();
+        }
+
+        private final IProvider.Provider mProvider;
+        private final String mItemsName;
+        private final ItemWriter<T> mItemWriter;
+        private final List<T> mItems;
+        private final int mSequence;
+        private final boolean mLast;
+        private final String mPayload;
+        private final boolean mHasMore;
+    }
+
+    /**
+     * Posts an event pushed from Unity through <code>ProfileEventDispatcher</code>. Callers record
+     * the push themselves when <code>ProfileTraceRecorder.isRecording()</code>, so its arguments
+     * aren't boxed into an array otherwise.
+     *
+     * @param recorded whether the push was recorded
+     */
+    private static void postPushedEvent(IProvider.Provider provider, Object event, boolean recorded) {
+        ProfileEventDispatcher.getInstance().post(provider, event, recorded);
+    }
+
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_LOGIN_STARTED = ProfileMetrics.metric("bridge.pushEventLoginStarted");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_LOGIN_FINISHED = ProfileMetrics.metric("bridge.pushEventLoginFinished");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_LOGIN_FAILED = ProfileMetrics.metric("bridge.pushEventLoginFailed");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_LOGIN_CANCELLED = ProfileMetrics.metric("bridge.pushEventLoginCancelled");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_LOGOUT_STARTED = ProfileMetrics.metric("bridge.pushEventLogoutStarted");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_LOGOUT_FINISHED = ProfileMetrics.metric("bridge.pushEventLogoutFinished");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_LOGOUT_FAILED = ProfileMetrics.metric("bridge.pushEventLogoutFailed");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_SOCIAL_ACTION_STARTED = ProfileMetrics.metric("bridge.pushEventSocialActionStarted");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_SOCIAL_ACTION_FINISHED = ProfileMetrics.metric("bridge.pushEventSocialActionFinished");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_SOCIAL_ACTION_CANCELLED = ProfileMetrics.metric("bridge.pushEventSocialActionCancelled");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_SOCIAL_ACTION_FAILED = ProfileMetrics.metric("bridge.pushEventSocialActionFailed");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_SOCIAL_ACTION = ProfileMetrics.metric("bridge.pushEventSocialAction");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_GET_CONTACTS_STARTED = ProfileMetrics.metric("bridge.pushEventGetContactsStarted");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_GET_CONTACTS_FINISHED = ProfileMetrics.metric("bridge.pushEventGetContactsFinished");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_GET_CONTACTS_FAILED = ProfileMetrics.metric("bridge.pushEventGetContactsFailed");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_INVITE_STARTED = ProfileMetrics.metric("bridge.pushEventInviteStarted");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_INVITE_FINISHED = ProfileMetrics.metric("bridge.pushEventInviteFinished");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_INVITE_CANCELLED = ProfileMetrics.metric("bridge.pushEventInviteCancelled");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_INVITE_FAILED = ProfileMetrics.metric("bridge.pushEventInviteFailed");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_GET_LEADERBOARDS_STARTED = ProfileMetrics.metric("bridge.pushEventGetLeaderboardsStarted");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_GET_LEADERBOARDS_FINISHED = ProfileMetrics.metric("bridge.pushEventGetLeaderboardsFinished");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_GET_LEADERBOARDS_FAILED = ProfileMetrics.metric("bridge.pushEventGetLeaderboardsFailed");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_GET_SCORES_STARTED = ProfileMetrics.metric("bridge.pushEventGetScoresStarted");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_GET_SCORES_FINISHED = ProfileMetrics.metric("bridge.pushEventGetScoresFinished");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_GET_SCORES_FAILED = ProfileMetrics.metric("bridge.pushEventGetScoresFailed");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_SUBMIT_SCORE_STARTED = ProfileMetrics.metric("bridge.pushEventSubmitScoreStarted");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_SUBMIT_SCORE_FINISHED = ProfileMetrics.metric("bridge.pushEventSubmitScoreFinished");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_SUBMIT_SCORE_FAILED = ProfileMetrics.metric("bridge.pushEventSubmitScoreFailed");
+    private static final ProfileMetrics.Metric M_PUSH_EVENT_SHOW_LEADERBOARDS = ProfileMetrics.metric("bridge.pushEventShowLeaderboards");
 }
@@ -0,0 +1,118 @@
+package com.soomla.profile.unity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Int ids of the events sent to Unity, in the order of <code>ProfileEvents.EVENT_NAMES</code>
+ * on the Unity side. The names are the <code>ProfileEvents</code> handlers the events are
+ * sent to with <code>UnitySendMessage</code>.
+ */
+public class ProfileEventIds {
+
+    public static final int UNKNOWN = -1;
+
+    public static final int SOOMLA_PROFILE_INITIALIZED = 0;
+    public static final int USER_RATING = 1;
+    public static final int USER_PROFILE_UPDATED = 2;
+    public static final int LOGIN_STARTED = 3;
+    public static final int LOGIN_FINISHED = 4;
+    public static final int LOGIN_CANCELLED = 5;
+    public static final int LOGIN_FAILED = 6;
+    public static final int LOGOUT_STARTED = 7;
+    public static final int LOGOUT_FINISHED = 8;
+    public static final int LOGOUT_FAILED = 9;
+    public static final int SOCIAL_ACTION_STARTED = 10;
+    public static final int SOCIAL_ACTION_FINISHED = 11;
+    public static final int SOCIAL_ACTION_CANCELLED = 12;
+    public static final int SOCIAL_ACTION_FAILED = 13;
+    public static final int GET_CONTACTS_STARTED = 14;
+    public static final int GET_CONTACTS_FINISHED = 15;
+    public static final int GET_CONTACTS_FAILED = 16;
+    public static final int GET_FEED_STARTED = 17;
+    public static final int GET_FEED_FINISHED = 18;
+    public static final int GET_FEED_FAILED = 19;
+    public static final int INVITE_STARTED = 20;
+    public static final int INVITE_FINISHED = 21;
+    public static final int INVITE_CANCELLED = 22;
+    public static final int INVITE_FAILED = 23;
+    public static final int GET_LEADERBOARDS_STARTED = 24;
+    public static final int GET_LEADERBOARDS_FINISHED = 25;
+    public static final int GET_LEADERBOARDS_FAILED = 26;
+    public static final int GET_SCORES_STARTED = 27;
+    public static final int GET_SCORES_FINISHED = 28;
+    public static final int GET_SCORES_FAILED = 29;
+    public static final int SUBMIT_SCORE_STARTED = 30;
+    public static final int SUBMIT_SCORE_FINISHED = 31;
+    public static final int SUBMIT_SCORE_FAILED = 32;
+    public static final int SHOW_LEADERBOARDS = 33;
+    public static final int GET_CONTACTS_CHUNK = 34;
+    public static final int GET_FEED_CHUNK = 35;
+
+    public static final String[] NAMES = {
+            "onSoomlaProfileInitialized",
+            "onUserRatingEvent",
+            "onUserProfileUpdated",
+            "onLoginStarted",
+            "onLoginFinished",
+            "onLoginCancelled",
+            "onLoginFailed",
+            "onLogoutStarted",
+            "onLogoutFinished",
+            "onLogoutFailed",
+            "onSocialActionStarted",
+            "onSocialActionFinished",
+            "onSocialActionCancelled",
+            "onSocialActionFailed",
+            "onGetContactsStarted",
+            "onGetContactsFinished",
+            "onGetContactsFailed",
+            "onGetFeedStarted",
+            "onGetFeedFinished",
+            "onGetFeedFailed",
+            "onInviteStarted",
+            "onInviteFinished",
+            "onInviteCancelled",
+            "onInviteFailed",
+            "onGetLeaderboardsStarted",
+            "onGetLeaderboardsFinished",
+            "onGetLeaderboardsFailed",
+            "onGetScoresStarted",
+            "onGetScoresFinished",
+            "onGetScoresFailed",
+            "onSubmitScoreStarted",
+            "onSubmitScoreFinished",
+            "onSubmitScoreFailed",
+            "onShowLeaderboards",
+            "onGetContactsChunk",
+            "onGetFeedChunk"
+    };
+
+    /**
+     * Events sent whatever the subscriptions: initialization depends on the first, and the
+     * others give the rewards of the actions they finish.
+     */
+    public static final long ALWAYS_SENT = (1L << SOOMLA_PROFILE_INITIALIZED) |
+            (1L << LOGIN_FINISHED) |
+            (1L << SOCIAL_ACTION_FINISHED) |
+            (1L << INVITE_FINISHED);
+
+    /**
+     * @return the id of the event sent to the given handler, or {@link #UNKNOWN}
+     */
+    public static int idOf(String name) {
+        Integer eventId = sIds.get(name);
+        return eventId == null ? UNKNOWN : eventId;
+    }
+
+    private ProfileEventIds() {
+    }
+
+    private static final Map<String, Integer> sIds = new HashMap<String, Integer>();
+
+    static {
+        for (int i = 0; i < NAMES.length; i++) {
+            sIds.put(NAMES[i], i);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.soomla.profile.unity;
+
+import com.soomla.SoomlaUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single-producer/single-consumer ring of event records in a direct <code>ByteBuffer</code>,
+ * shared with Unity through its native address.
+ *
+ * Layout (native byte order):
+ * <pre>
+ * [0]  int write offset (owned by Java)
+ * [4]  int read offset  (owned by Unity)
+ * [8]  int data capacity
+ * [12] int overflow flag (set by Java when events are waiting in the overflow queue)
+ * [16] data: records of
+ *      int recordLength | int recipientLength | recipient (ASCII) | message (UTF-8)
+ * </pre>
+ * <code>recordLength</code> covers everything after itself. A record never wraps around
+ * the end of the data area: if it doesn't fit, a <code>-1</code> marker (or less than
+ * 4 bytes of tail) tells the reader to continue from offset 0.
+ *
+ * Messages are encoded straight from the serializer's buffer into the ring, so large
+ * payloads are never turned into a <code>String</code> on the Java side.
+ *
+ * Events that don't fit, and every event after them, are queued on the Java side until
+ * Unity takes them with {@link #pollOverflow}, along with the write offset at that moment.
+ * Unity reads the ring up to that offset before dispatching them, so they're never
+ * delivered ahead of events still in the ring.
+ */
+public class ProfileEventRingBuffer {
+
+    public static final int HEADER_SIZE = 16;
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+
+    private static ProfileEventRingBuffer sInstance;
+
+    /**
+     * Opens (or returns the already open) ring.
+     *
+     * @param capacity size of the data area in bytes, <code>0</code> or less means
+     *                 {@link #DEFAULT_CAPACITY}
+     */
+    public static synchronized ProfileEventRingBuffer open(int capacity) {
+        if (sInstance == null) {
+            sInstance = new ProfileEventRingBuffer(capacity > 0 ? capacity : DEFAULT_CAPACITY);
+            SoomlaUtils.LogDebug(TAG, "Opened event ring buffer of " + sInstance.mCapacity + " bytes");
+        }
+        return sInstance;
+    }
+
+    /**
+     * Stops using the ring. Records already written stay in the buffer for Unity to read.
+     *
+     * @return the queued events, see {@link #pollOverflow}, to be delivered after the ring's
+     * records, or an empty array if the ring wasn't open
+     */
+    public static synchronized String[] close() {
+        if (sInstance == null) {
+            return new String[0];
+        }
+        String[] overflow = sInstance.markClosed();
+        sInstance = null;
+        return overflow;
+    }
+
+    /**
+     * @return the open ring, or <code>null</code> when events go through <code>UnitySendMessage</code>
+     */
+    public static ProfileEventRingBuffer getOpen() {
+        return sInstance;
+    }
+
+    private ProfileEventRingBuffer(int capacity) {
+        mCapacity = capacity;
+        mBuffer = ByteBuffer.allocateDirect(HEADER_SIZE + capacity).order(ByteOrder.nativeOrder());
+        mBuffer.putInt(WRITE_OFFSET, 0);
+        mBuffer.putInt(READ_OFFSET, 0);
+        mBuffer.putInt(CAPACITY_OFFSET, capacity);
+    }
+
+    private synchronized String[] markClosed() {
+        mClosed = true;
+        return pollOverflow();
+    }
+
+    public ByteBuffer getBuffer() {
+        return mBuffer;
+    }
+
+    /**
+     * Appends an event record, or queues it if earlier events are queued or it doesn't fit.
+     *
+     * @return <code>false</code> if the ring was closed, in which case nothing was written
+     */
+    public synchronized boolean write(String recipient, CharSequence message) {
+        if (mClosed) {
+            return false;
+        }
+        if (mOverflow.isEmpty() && writeRecord(recipient, message)) {
+            return true;
+        }
+
+        if (mOverflow.isEmpty()) {
+            SoomlaUtils.LogDebug(TAG, "Event ring buffer is full, queueing events until Unity reads them");
+            mBuffer.putInt(OVERFLOW_OFFSET, 1);
+        }
+        mOverflow.add(recipient);
+        mOverflow.add(message.toString());
+        return true;
+    }
+
+    /**
+     * Takes the queued events. Unity calls this whenever the overflow flag is set, reads the
+     * ring up to the returned write offset, then delivers them, before anything written to
+     * the ring afterwards.
+     *
+     * @return the write offset, then recipients and messages, alternating
+     */
+    public synchronized String[] pollOverflow() {
+        String[] overflow = new String[1 + mOverflow.size()];
+        overflow[0] = Integer.toString(mBuffer.getInt(WRITE_OFFSET));
+        for (int i = 0; i < mOverflow.size(); i++) {
+            overflow[1 + i] = mOverflow.get(i);
+        }
+        mOverflow.clear();
+        mBuffer.putInt(OVERFLOW_OFFSET, 0);
+        return overflow;
+    }
+
+    private boolean writeRecord(String recipient, CharSequence message) {
+        int recipientLength = recipient.length();
+        int messageLength = utf8Length(message);
+        int recordLength = 4 + recipientLength + messageLength;
+        int needed = 4 + recordLength;
+
+        int write = mBuffer.getInt(WRITE_OFFSET);
+        int read = mBuffer.getInt(READ_OFFSET);
+        int free = (read > write ? read - write : mCapacity - write + read) - 1;
+
+        int tail = mCapacity - write;
+        boolean wrap = tail < needed;
+        if ((wrap ? tail + needed : needed) > free) {
+            return false;
+        }
+
+        if (wrap) {
+            if (tail >= 4) {
+                mBuffer.putInt(HEADER_SIZE + write, -1);
+            }
+            write = 0;
+        }
+
+        int pos = HEADER_SIZE + write;
+        mBuffer.putInt(pos, recordLength);
+        mBuffer.putInt(pos + 4, recipientLength);
+        pos += 8;
+        for (int i = 0; i < recipientLength; i++) {
+            mBuffer.put(pos++, (byte) recipient.charAt(i));
+        }
+        encodeUtf8(message, pos);
+
+        write += needed;
+        if (write == mCapacity) {
+            write = 0;
+        }
+
+        // the volatile write keeps the record's bytes from being reordered after the new offset
+        mPublished = write;
+        mBuffer.putInt(WRITE_OFFSET, write);
+        return true;
+    }
+
+    private void encodeUtf8(CharSequence chars, int pos) {
+        ByteBuffer out = mBuffer;
+        for (int i = 0, length = chars.length(); i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                out.put(pos++, (byte) c);
+            } else if (c < 0x800) {
+                out.put(pos++, (byte) (0xC0 | (c >> 6)));
+                out.put(pos++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                out.put(pos++, (byte) (0xF0 | (codePoint >> 18)));
+                out.put(pos++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put(pos++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put(pos++, (byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put(pos++, (byte) '?');
+            } else {
+                out.put(pos++, (byte) (0xE0 | (c >> 12)));
+                out.put(pos++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put(pos++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static int utf8Length(CharSequence chars) {
+        int bytes = 0;
+        for (int i = 0, length = chars.length(); i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static final String TAG = "SOOMLA ProfileEventRingBuffer";
+
+    private static final int WRITE_OFFSET = 0;
+    private static final int READ_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int OVERFLOW_OFFSET = 12;
+
+    private final ByteBuffer mBuffer;
+    private final int mCapacity;
+    private volatile int mPublished;
+    private final List<String> mOverflow = new ArrayList<String>();
+    private boolean mClosed = false;
+}
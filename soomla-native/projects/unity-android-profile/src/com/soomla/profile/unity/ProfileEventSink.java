@@ -0,0 +1,19 @@
+package com.soomla.profile.unity;
+
+/**
+ * Receives profile events directly, instead of through <code>UnityPlayer.UnitySendMessage</code>.
+ * Implemented on the Unity side with an <code>AndroidJavaProxy</code> and registered with
+ * <code>UnitySoomlaProfile.setEventSink</code>.
+ */
+public interface ProfileEventSink {
+
+    /**
+     * Called on the thread the event was fired on.
+     *
+     * @param provider the value of the event's provider, or <code>-1</code> for events
+     *                 that aren't tied to a provider
+     * @param eventId one of the <code>ProfileEventIds</code>
+     * @param payload the event's JSON, as it would have been sent with <code>UnitySendMessage</code>
+     */
+    void onEvent(int provider, int eventId, String payload);
+}
@@ -0,0 +1,337 @@
+package com.soomla.profile.unity;
+
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.domain.UserProfile;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Writes outbound event JSON straight into a reusable char buffer, without building
+ * intermediate <code>JSONObject</code>/<code>JSONArray</code> trees.
+ *
+ * The output is meant to be identical to what <code>org.json</code> produces for the
+ * same fields in the same order: <code>null</code> fields are skipped, strings are
+ * escaped like <code>JSONStringer</code> does and whole numbers are written without
+ * a fraction.
+ *
+ * Every thread gets its own writer (see {@link #obtain()}), so a writer must not be
+ * kept after its content has been handed off.
+ */
+public class ProfileEventWriter {
+
+    /**
+     * Toggles between this writer and the <code>org.json</code> based serialization
+     * in <code>ProfileEventHandler</code>.
+     */
+    public static void setEnabled(boolean enabled) {
+        SoomlaUtils.LogDebug(TAG, "Streaming serialization " + (enabled ? "enabled" : "disabled"));
+        sEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * @return the current thread's writer, emptied and ready for a new event
+     */
+    public static ProfileEventWriter obtain() {
+        ProfileEventWriter writer = sWriters.get();
+        writer.reset();
+        return writer;
+    }
+
+    private ProfileEventWriter() {
+    }
+
+    private void reset() {
+        if (mBuilder.capacity() > MAX_RETAINED_CAPACITY) {
+            mBuilder = new StringBuilder(INITIAL_CAPACITY);
+        } else {
+            mBuilder.setLength(0);
+        }
+        mDepth = 0;
+        mPendingName = false;
+    }
+
+    public ProfileEventWriter beginObject() {
+        open('{');
+        return this;
+    }
+
+    public ProfileEventWriter endObject() {
+        close('}');
+        return this;
+    }
+
+    public ProfileEventWriter beginArray() {
+        open('[');
+        return this;
+    }
+
+    public ProfileEventWriter endArray() {
+        close(']');
+        return this;
+    }
+
+    public ProfileEventWriter name(String name) {
+        if (!mFirst[mDepth - 1]) {
+            mBuilder.append(',');
+        }
+        mFirst[mDepth - 1] = false;
+        string(name);
+        mBuilder.append(':');
+        mPendingName = true;
+        return this;
+    }
+
+    public ProfileEventWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            mBuilder.append("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    public ProfileEventWriter value(long value) {
+        beforeValue();
+        mBuilder.append(value);
+        return this;
+    }
+
+    public ProfileEventWriter value(boolean value) {
+        beforeValue();
+        mBuilder.append(value);
+        return this;
+    }
+
+    /**
+     * Writes any value <code>org.json</code> knows how to hold, including existing
+     * <code>JSONObject</code>s and <code>JSONArray</code>s, maps and collections.
+     */
+    public ProfileEventWriter value(Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            beforeValue();
+            mBuilder.append("null");
+        } else if (value instanceof String) {
+            value((String) value);
+        } else if (value instanceof Boolean) {
+            value(((Boolean) value).booleanValue());
+        } else if (value instanceof Number) {
+            number((Number) value);
+        } else if (value instanceof JSONObject) {
+            JSONObject jsonObject = (JSONObject) value;
+            beginObject();
+            Iterator keys = jsonObject.keys();
+            while (keys.hasNext()) {
+                String key = (String) keys.next();
+                name(key).value(jsonObject.opt(key));
+            }
+            endObject();
+        } else if (value instanceof JSONArray) {
+            JSONArray jsonArray = (JSONArray) value;
+            beginArray();
+            for (int i = 0; i < jsonArray.length(); i++) {
+                value(jsonArray.opt(i));
+            }
+            endArray();
+        } else if (value instanceof Map) {
+            beginObject();
+            for (Object entryObj : ((Map) value).entrySet()) {
+                Map.Entry entry = (Map.Entry) entryObj;
+                name((String) entry.getKey()).value(entry.getValue());
+            }
+            endObject();
+        } else if (value instanceof Collection) {
+            beginArray();
+            for (Object item : (Collection) value) {
+                value(item);
+            }
+            endArray();
+        } else {
+            value(value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Writes JSON that's already serialized as is, <code>null</code> as a JSON null.
+     */
+    public ProfileEventWriter rawValue(String json) {
+        beforeValue();
+        mBuilder.append(json == null ? "null" : json);
+        return this;
+    }
+
+    /**
+     * Writes the field unless <code>value</code> is <code>null</code>, same as
+     * <code>JSONObject.put</code> does.
+     */
+    public ProfileEventWriter field(String name, String value) {
+        if (value != null) {
+            name(name).value(value);
+        }
+        return this;
+    }
+
+    public ProfileEventWriter field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    public ProfileEventWriter field(String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    /**
+     * Writes a <code>UserProfile</code> with the same fields and order as
+     * <code>UserProfile.toJSONObject()</code>.
+     */
+    public ProfileEventWriter userProfile(UserProfile userProfile) {
+        beginObject();
+        field("className", userProfile.getClass().getSimpleName());
+        field("provider", userProfile.getProvider().toString());
+        field("profileId", userProfile.getProfileId());
+        field("username", userProfile.getUsername());
+        field("email", userProfile.getEmail());
+        field("firstName", userProfile.getFirstName());
+        field("lastName", userProfile.getLastName());
+        field("avatarLink", userProfile.getAvatarLink());
+        field("location", userProfile.getLocation());
+        field("gender", userProfile.getGender());
+        field("language", userProfile.getLanguage());
+        field("birthday", userProfile.getBirthday());
+        Map<String, ?> extra = userProfile.getExtra();
+        if (extra != null) {
+            name("extra").value(extra);
+        } else {
+            name("extra").beginObject().endObject();
+        }
+        return endObject();
+    }
+
+    public int length() {
+        return mBuilder.length();
+    }
+
+    /**
+     * @return the written content, backed by the writer's buffer
+     */
+    public CharSequence chars() {
+        return mBuilder;
+    }
+
+    @Override
+    public String toString() {
+        return mBuilder.toString();
+    }
+
+    private void open(char c) {
+        beforeValue();
+        mBuilder.append(c);
+        if (mDepth == mFirst.length) {
+            boolean[] first = new boolean[mDepth * 2];
+            System.arraycopy(mFirst, 0, first, 0, mDepth);
+            mFirst = first;
+        }
+        mFirst[mDepth++] = true;
+    }
+
+    private void close(char c) {
+        mDepth--;
+        mBuilder.append(c);
+    }
+
+    private void beforeValue() {
+        if (mPendingName) {
+            mPendingName = false;
+            return;
+        }
+        if (mDepth > 0) {
+            if (!mFirst[mDepth - 1]) {
+                mBuilder.append(',');
+            }
+            mFirst[mDepth - 1] = false;
+        }
+    }
+
+    private void number(Number number) {
+        if (number instanceof Integer || number instanceof Long
+                || number instanceof Short || number instanceof Byte) {
+            value(number.longValue());
+            return;
+        }
+
+        beforeValue();
+        try {
+            mBuilder.append(JSONObject.numberToString(number));
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void string(String value) {
+        StringBuilder out = mBuilder;
+        out.append('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    out.append('\\').append(c);
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\b':
+                    out.append("\\b");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\f':
+                    out.append("\\f");
+                    break;
+                default:
+                    if (c <= 0x1F) {
+                        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+                    break;
+            }
+        }
+        out.append('"');
+    }
+
+    private static final String TAG = "SOOMLA ProfileEventWriter";
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static volatile boolean sEnabled = false;
+
+    private static final ThreadLocal<ProfileEventWriter> sWriters = new ThreadLocal<ProfileEventWriter>() {
+        @Override
+        protected ProfileEventWriter initialValue() {
+            return new ProfileEventWriter();
+        }
+    };
+
+    private StringBuilder mBuilder = new StringBuilder(INITIAL_CAPACITY);
+    private boolean[] mFirst = new boolean[8];
+    private int mDepth = 0;
+    private boolean mPendingName = false;
+}
@@ -0,0 +1,354 @@
+package com.soomla.profile.unity;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import com.soomla.BusProvider;
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.SoomlaProfile;
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.events.social.SocialActionCancelledEvent;
+import com.soomla.profile.events.social.SocialActionFailedEvent;
+import com.soomla.profile.events.social.SocialActionFinishedEvent;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
+import com.soomla.profile.social.ISocialProvider;
+import com.squareup.otto.Subscribe;
+import com.unity3d.player.UnityPlayer;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes images for <code>uploadImage</code> on a background thread and hands them
+ * to the provider on the main thread.
+ *
+ * Decoded bitmaps are charged against a memory budget until the provider reports the
+ * upload as finished, failed or cancelled. Only then is the next image decoded if it
+ * wouldn't fit, and on KitKat and later the bitmap is kept for reuse by a later image.
+ * Uploads are told apart by an ID added to their payload, so a result is never taken for
+ * another upload's. Uploads without a result after two minutes are released too, without
+ * keeping their bitmap since the provider may still be using it.
+ * Completion is reported through the regular <code>SocialAction*</code> events.
+ */
+public class ProfileImageCodec {
+
+    public static final int DEFAULT_MEMORY_BUDGET = 64 * 1024 * 1024;
+
+    private static ProfileImageCodec sInstance;
+
+    public static synchronized ProfileImageCodec getInstance() {
+        if (sInstance == null) {
+            sInstance = new ProfileImageCodec();
+        }
+        return sInstance;
+    }
+
+    private ProfileImageCodec() {
+        mMainHandler = new Handler(Looper.getMainLooper());
+        mExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, "SoomlaProfileImageCodec");
+            }
+        });
+        BusProvider.getInstance().register(this);
+    }
+
+    /**
+     * @param memoryBudget how many bytes decoded images waiting for upload may take,
+     *                     <code>0</code> or less means {@link #DEFAULT_MEMORY_BUDGET}
+     */
+    public void setMemoryBudget(int memoryBudget) {
+        synchronized (mLock) {
+            mMemoryBudget = memoryBudget > 0 ? memoryBudget : DEFAULT_MEMORY_BUDGET;
+            mLock.notifyAll();
+        }
+    }
+
+    /**
+     * Queues an image for decoding and uploading. Failures to read or decode it are
+     * posted as <code>SocialActionFailedEvent</code>s.
+     *
+     * @param payload sent to the provider with the upload's ID added, when it's a JSON object
+     */
+    public void upload(final IProvider.Provider provider, final String message, final String fileName,
+                       final ProfileImageDecoder.Source source, final int jpegQuality, final String payload,
+                       final boolean showConfirmation, final String customMessage) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Upload upload;
+                try {
+                    upload = decode(provider, source);
+                } catch (IOException e) {
+                    postFailed(provider, "Couldn't read image " + source.getName() + ": " + e.getMessage(), payload);
+                    return;
+                }
+                if (upload == null) {
+                    postFailed(provider, "Couldn't decode image " + source.getName(), payload);
+                    return;
+                }
+
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        mMainHandler.postDelayed(upload.timeout, UPLOAD_TIMEOUT_MS);
+                        String taggedPayload = tag(payload, upload.id);
+                        try {
+                            if (!showConfirmation) {
+                                SoomlaProfile.getInstance().uploadImage(provider, message, fileName, upload.bitmap,
+                                        jpegQuality, taggedPayload, null);
+                            } else {
+                                SoomlaProfile.getInstance().uploadImageWithConfirmation(provider, message, fileName,
+                                        upload.bitmap, jpegQuality, taggedPayload, null, UnityPlayer.currentActivity, customMessage);
+                            }
+                        } catch (ProviderNotFoundException e) {
+                            // the provider never got the bitmap
+                            release(upload, true);
+                            postFailed(provider, e.getMessage(), payload);
+                        } catch (RuntimeException e) {
+                            release(upload, false);
+                            postFailed(provider, "Couldn't upload image " + fileName + ": " + e, payload);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private Upload decode(IProvider.Provider provider, ProfileImageDecoder.Source source) throws IOException {
+        BitmapFactory.Options options = ProfileImageDecoder.decodeBounds(source);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        int byteCount = ProfileImageDecoder.decodedByteCount(options);
+        Bitmap reusable = reserve(byteCount);
+
+        Bitmap bitmap = null;
+        try {
+            options.inMutable = true;
+            if (reusable != null) {
+                options.inBitmap = reusable;
+                try {
+                    bitmap = source.decode(options);
+                } catch (IllegalArgumentException e) {
+                    SoomlaUtils.LogDebug(TAG, "Couldn't reuse a bitmap for " + source.getName());
+                    reusable.recycle();
+                    options.inBitmap = null;
+                    bitmap = source.decode(options);
+                }
+            } else {
+                bitmap = source.decode(options);
+            }
+        } finally {
+            if (bitmap == null) {
+                synchronized (mLock) {
+                    mBytesInUse -= byteCount;
+                    mLock.notifyAll();
+                }
+            }
+        }
+        if (bitmap == null) {
+            return null;
+        }
+
+        synchronized (mLock) {
+            Upload upload = new Upload(++mLastUploadId, provider, bitmap, byteCount);
+            mInFlight.put(upload.id, upload);
+            return upload;
+        }
+    }
+
+    /**
+     * Waits until <code>byteCount</code> more bytes fit in the budget and charges them.
+     *
+     * @return a pooled bitmap large enough to decode into, if there is one. Before KitKat
+     * bitmaps can only be reused for images of the exact same size, so none are pooled.
+     */
+    private Bitmap reserve(int byteCount) {
+        synchronized (mLock) {
+            long deadline = System.currentTimeMillis() + BUDGET_WAIT_MS;
+            while (mBytesInUse > 0 && mBytesInUse + byteCount > mMemoryBudget) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0) {
+                    SoomlaUtils.LogDebug(TAG, "Memory budget still exhausted after " + BUDGET_WAIT_MS + "ms, decoding anyway");
+                    break;
+                }
+                try {
+                    mLock.wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            mBytesInUse += byteCount;
+
+            Iterator<Bitmap> pooled = mPool.iterator();
+            while (pooled.hasNext()) {
+                Bitmap bitmap = pooled.next();
+                if (POOLING && bitmap.getAllocationByteCount() >= byteCount) {
+                    pooled.remove();
+                    return bitmap;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Releases the upload whose ID is in the result's payload. Results without one belong to
+     * uploads that didn't go through this class.
+     */
+    private void release(IProvider.Provider provider, String payload) {
+        long uploadId = uploadIdOf(payload);
+        if (uploadId == 0) {
+            return;
+        }
+        Upload upload;
+        synchronized (mLock) {
+            upload = mInFlight.get(uploadId);
+        }
+        if (upload != null && upload.provider == provider) {
+            release(upload, true);
+        }
+    }
+
+    private static String tag(String payload, long uploadId) {
+        try {
+            JSONObject payloadJSON = new JSONObject(payload);
+            payloadJSON.put(UPLOAD_ID, uploadId);
+            return payloadJSON.toString();
+        } catch (JSONException e) {
+            return payload;
+        }
+    }
+
+    private static long uploadIdOf(String payload) {
+        if (payload == null || payload.indexOf(UPLOAD_ID) < 0) {
+            return 0;
+        }
+        try {
+            return new JSONObject(payload).optLong(UPLOAD_ID, 0);
+        } catch (JSONException e) {
+            return 0;
+        }
+    }
+
+    private void release(Upload upload, boolean reuseBitmap) {
+        mMainHandler.removeCallbacks(upload.timeout);
+        synchronized (mLock) {
+            if (mInFlight.remove(upload.id) == null) {
+                return;
+            }
+
+            mBytesInUse -= upload.byteCount;
+            if (POOLING && reuseBitmap && upload.bitmap.isMutable() && !upload.bitmap.isRecycled()) {
+                if (mPool.size() == MAX_POOLED_BITMAPS) {
+                    mPool.remove(0).recycle();
+                }
+                mPool.add(upload.bitmap);
+            }
+            mLock.notifyAll();
+        }
+    }
+
+    /**
+     * Posts the failure on the main thread, like the provider's own results.
+     */
+    private void postFailed(IProvider.Provider provider, String errorMessage, String payload) {
+        SoomlaUtils.LogError(TAG, errorMessage);
+        final SocialActionFailedEvent event = new SocialActionFailedEvent(provider,
+                ISocialProvider.SocialActionType.UPLOAD_IMAGE, errorMessage, payload);
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                BusProvider.getInstance().post(event);
+            }
+        });
+    }
+
+    @Subscribe
+    public void onSocialActionFinished(SocialActionFinishedEvent socialActionFinishedEvent) {
+        if (socialActionFinishedEvent.SocialActionType == ISocialProvider.SocialActionType.UPLOAD_IMAGE) {
+            release(socialActionFinishedEvent.Provider, socialActionFinishedEvent.Payload);
+        }
+    }
+
+    @Subscribe
+    public void onSocialActionFailed(SocialActionFailedEvent socialActionFailedEvent) {
+        // failures posted by this class carry the untagged payload, so they match no upload
+        if (socialActionFailedEvent.SocialActionType == ISocialProvider.SocialActionType.UPLOAD_IMAGE) {
+            release(socialActionFailedEvent.Provider, socialActionFailedEvent.Payload);
+        }
+    }
+
+    @Subscribe
+    public void onSocialActionCancelled(SocialActionCancelledEvent socialActionCancelledEvent) {
+        if (socialActionCancelledEvent.SocialActionType == ISocialProvider.SocialActionType.UPLOAD_IMAGE) {
+            release(socialActionCancelledEvent.Provider, socialActionCancelledEvent.Payload);
+        }
+    }
+
+    private class Upload {
+
+        Upload(long id, IProvider.Provider provider, Bitmap bitmap, int byteCount) {
+            this.id = id;
+            this.provider = provider;
+            this.bitmap = bitmap;
+            this.byteCount = byteCount;
+        }
+
+        final long id;
+        final IProvider.Provider provider;
+        final Bitmap bitmap;
+        final int byteCount;
+        final Runnable timeout = new Runnable() {
+            @Override
+            public void run() {
+                SoomlaUtils.LogDebug(TAG, "No result for upload after " + UPLOAD_TIMEOUT_MS + "ms, releasing it: " + id);
+                release(Upload.this, false);
+            }
+        };
+    }
+
+    private static final String TAG = "SOOMLA ProfileImageCodec";
+
+    private static final long BUDGET_WAIT_MS = 10000;
+    private static final long UPLOAD_TIMEOUT_MS = 2 * 60 * 1000;
+    private static final int MAX_POOLED_BITMAPS = 2;
+    private static final boolean POOLING = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
+    private static final String UPLOAD_ID = "codecUploadId";
+
+    private final Object mLock = new Object();
+    private final Handler mMainHandler;
+    private final ExecutorService mExecutor;
+    private final Map<Long, Upload> mInFlight = new HashMap<Long, Upload>();
+    private final List<Bitmap> mPool = new ArrayList<Bitmap>();
+    private long mLastUploadId = 0;
+    private long mBytesInUse = 0;
+    private int mMemoryBudget = DEFAULT_MEMORY_BUDGET;
+}
@@ -0,0 +1,242 @@
+package com.soomla.profile.unity;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import com.soomla.SoomlaUtils;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes images handed over by Unity without copying the encoded bytes to the heap,
+ * sampling them down so that neither side of the decoded bitmap exceeds
+ * {@link #getMaxDimension()}.
+ *
+ * Decoding takes two passes: one for the bounds only and one for the sampled pixels.
+ */
+public class ProfileImageDecoder {
+
+    public static final int DEFAULT_MAX_DIMENSION = 2048;
+
+    /**
+     * @param maxDimension the largest width or height a decoded image may have,
+     *                     <code>0</code> or less means images are decoded at full size
+     */
+    public static void setMaxDimension(int maxDimension) {
+        sMaxDimension = maxDimension;
+    }
+
+    public static int getMaxDimension() {
+        return sMaxDimension;
+    }
+
+    /**
+     * Encoded image bytes that can be read more than once.
+     */
+    public abstract static class Source {
+
+        /**
+         * @return the decoded bitmap, or <code>null</code> if the bytes could not be decoded
+         */
+        public abstract Bitmap decode(BitmapFactory.Options options) throws IOException;
+
+        public abstract String getName();
+    }
+
+    /**
+     * @return a source of the bytes between the buffer's position and limit,
+     * which never modifies the buffer itself
+     */
+    public static Source fromBuffer(final ByteBuffer buffer, final String name) {
+        return new Source() {
+            @Override
+            public Bitmap decode(BitmapFactory.Options options) {
+                if (buffer.hasArray()) {
+                    return BitmapFactory.decodeByteArray(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                            buffer.remaining(), options);
+                }
+                return BitmapFactory.decodeStream(new ByteBufferInputStream(buffer.duplicate()), null, options);
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    /**
+     * @param length number of bytes to read, a negative value means up to the end of the file
+     * @return a source of <code>length</code> bytes of the given file, starting at <code>offset</code>
+     */
+    public static Source fromFile(final String filePath, final long offset, final long length) {
+        return new Source() {
+            @Override
+            public Bitmap decode(BitmapFactory.Options options) throws IOException {
+                return decodeFile(filePath, offset, length, options);
+            }
+
+            @Override
+            public String getName() {
+                return filePath;
+            }
+        };
+    }
+
+    /**
+     * Reads the image's bounds and picks the sample size it will be decoded with.
+     *
+     * @return options ready to be passed to {@link Source#decode}, with <code>outWidth</code>
+     * and <code>outHeight</code> set to the full size, or to <code>-1</code> if the
+     * bytes are not an image
+     */
+    public static BitmapFactory.Options decodeBounds(Source source) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        source.decode(options);
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight);
+        return options;
+    }
+
+    /**
+     * @return how many bytes the bitmap decoded with the given options will take
+     */
+    public static int decodedByteCount(BitmapFactory.Options options) {
+        int sampleSize = Math.max(options.inSampleSize, 1);
+        int width = (options.outWidth + sampleSize - 1) / sampleSize;
+        int height = (options.outHeight + sampleSize - 1) / sampleSize;
+        return width * height * BYTES_PER_PIXEL;
+    }
+
+    private static Bitmap decodeFile(String filePath, long offset, long length, BitmapFactory.Options options)
+            throws IOException {
+        FileInputStream fileStream = new FileInputStream(filePath);
+        try {
+            long skipped = 0;
+            while (skipped < offset) {
+                long count = fileStream.skip(offset - skipped);
+                if (count <= 0) {
+                    throw new IOException("Offset " + offset + " is past the end of " + filePath);
+                }
+                skipped += count;
+            }
+
+            InputStream in = fileStream;
+            if (length >= 0) {
+                in = new BoundedInputStream(in, length);
+            }
+            return BitmapFactory.decodeStream(new BufferedInputStream(in, STREAM_BUFFER_SIZE), null, options);
+        } finally {
+            try {
+                fileStream.close();
+            } catch (IOException e) {
+                SoomlaUtils.LogError(TAG, "Couldn't close " + filePath + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static int sampleSize(int width, int height) {
+        int maxDimension = sMaxDimension;
+        int sampleSize = 1;
+        if (maxDimension > 0) {
+            while (width / sampleSize > maxDimension || height / sampleSize > maxDimension) {
+                sampleSize *= 2;
+            }
+        }
+        return sampleSize;
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            mBuffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return mBuffer.hasRemaining() ? mBuffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!mBuffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, mBuffer.remaining());
+            mBuffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return mBuffer.remaining();
+        }
+
+        private final ByteBuffer mBuffer;
+    }
+
+    private static class BoundedInputStream extends FilterInputStream {
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            mRemaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (mRemaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                mRemaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (mRemaining <= 0) {
+                return -1;
+            }
+            int count = super.read(bytes, offset, (int) Math.min(length, mRemaining));
+            if (count > 0) {
+                mRemaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long count = super.skip(Math.min(n, mRemaining));
+            mRemaining -= count;
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), mRemaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private long mRemaining;
+    }
+
+    private static final String TAG = "SOOMLA ProfileImageDecoder";
+
+    private static final int STREAM_BUFFER_SIZE = 16 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static volatile int sMaxDimension = DEFAULT_MAX_DIMENSION;
+}
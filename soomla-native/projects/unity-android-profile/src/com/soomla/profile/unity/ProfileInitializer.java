@@ -0,0 +1,378 @@
+package com.soomla.profile.unity;
+
+import android.app.Activity;
+
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.SoomlaProfile;
+import com.soomla.profile.domain.IProvider;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initializes <code>SoomlaProfile</code> for the bridge, and times it.
+ *
+ * <code>SoomlaProfile.initialize</code> brings up all providers in one call, and provider SDKs
+ * expect it on the calling (UI) thread, so the parallel mode works around it: the eager providers'
+ * classes are loaded (which initializes their SDKs' classes) in parallel on a worker pool first,
+ * then <code>SoomlaProfile</code> is initialized on the calling thread, then the eager providers'
+ * stored profiles are read into <code>StoredUserProfileCache</code> in parallel in the background.
+ * <code>onSoomlaProfileInitialized</code> is sent to Unity once all that's done. Lazy providers
+ * skip it all and have their stored profile read on first use instead.
+ *
+ * Bridge calls made before <code>SoomlaProfile</code> is initialized wait for it (see {@link #awaitSdk()}).
+ * When initialization fails, it can be started again.
+ */
+public class ProfileInitializer {
+
+    private static ProfileInitializer sInstance;
+
+    public static synchronized ProfileInitializer getInstance() {
+        if (sInstance == null) {
+            sInstance = new ProfileInitializer();
+        }
+        return sInstance;
+    }
+
+    private ProfileInitializer() {
+    }
+
+    /**
+     * Initializes <code>SoomlaProfile</code> on the calling thread.
+     */
+    public void initialize(Activity activity, Map<IProvider.Provider, HashMap<String, String>> providerParams) {
+        if (!start(false, null)) {
+            return;
+        }
+        initializeSdk(activity, providerParams);
+        markEagerReady();
+    }
+
+    /**
+     * Initializes <code>SoomlaProfile</code> on the calling thread in parallel mode. Blocks while the
+     * eager providers' classes are loaded on the pool, and returns while their stored profiles
+     * are still being read.
+     *
+     * @param lazyProviders providers that aren't needed at launch
+     */
+    public void initializeParallel(Activity activity, Map<IProvider.Provider, HashMap<String, String>> providerParams,
+                                   Collection<IProvider.Provider> lazyProviders) {
+        if (!start(true, lazyProviders)) {
+            return;
+        }
+        List<IProvider.Provider> eager = new ArrayList<IProvider.Provider>();
+        if (providerParams != null) {
+            for (IProvider.Provider provider : providerParams.keySet()) {
+                if (provider != null && !mLazyProviders.contains(provider)) {
+                    eager.add(provider);
+                }
+            }
+        }
+        if (eager.isEmpty()) {
+            initializeSdk(activity, providerParams);
+            markEagerReady();
+            return;
+        }
+
+        final ExecutorService pool = createPool(eager.size());
+        try {
+            List<Future<?>> warmUps = new ArrayList<Future<?>>();
+            for (final IProvider.Provider provider : eager) {
+                warmUps.add(pool.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        warmUp(provider);
+                    }
+                }));
+            }
+            await(warmUps);
+            initializeSdk(activity, providerParams);
+        } catch (RuntimeException e) {
+            pool.shutdown();
+            throw e;
+        }
+
+        final AtomicInteger remaining = new AtomicInteger(eager.size());
+        for (final IProvider.Provider provider : eager) {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        prefetch(provider);
+                    } finally {
+                        if (remaining.decrementAndGet() == 0) {
+                            pool.shutdown();
+                            markEagerReady();
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Blocks until <code>SoomlaProfile</code> is initialized, returns right away if it is or if
+     * initialization didn't start.
+     */
+    public void awaitSdk() {
+        CountDownLatch sdkReady = mSdkReady;
+        if (sdkReady == null || sdkReady.getCount() == 0) {
+            return;
+        }
+        SoomlaUtils.LogDebug(TAG, "Waiting for SoomlaProfile to be initialized");
+        boolean interrupted = false;
+        while (true) {
+            try {
+                sdkReady.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Called before a provider is used through the bridge: waits for <code>SoomlaProfile</code>,
+     * and reads a lazy provider's stored profile the first time.
+     */
+    public void onProviderUsed(IProvider.Provider provider) {
+        awaitSdk();
+        if (provider == null || !mLazyProviders.contains(provider)) {
+            return;
+        }
+        synchronized (mPrefetched) {
+            if (!mPrefetched.add(provider)) {
+                return;
+            }
+        }
+        prefetch(provider);
+    }
+
+    /**
+     * Keeps <code>onSoomlaProfileInitialized</code> from being sent before the eager providers are ready.
+     *
+     * @return <code>true</code> if the event will be sent once they are
+     */
+    synchronized boolean deferInitializedEvent() {
+        if (!mParallel || mEagerReady) {
+            return false;
+        }
+        mInitializedEventDeferred = true;
+        return true;
+    }
+
+    /**
+     * @return how long initialization took, as JSON: <code>totalUs</code>, <code>sdkUs</code>
+     * and per provider <code>warmUpUs</code> and <code>prefetchUs</code>, <code>-1</code> for
+     * steps that didn't run (yet)
+     */
+    public String getTimings() {
+        try {
+            JSONObject providers = new JSONObject();
+            synchronized (mTimings) {
+                for (Map.Entry<IProvider.Provider, long[]> entry : mTimings.entrySet()) {
+                    JSONObject timing = new JSONObject();
+                    timing.put("lazy", mLazyProviders.contains(entry.getKey()));
+                    timing.put("warmUpUs", micros(entry.getValue()[WARM_UP]));
+                    timing.put("prefetchUs", micros(entry.getValue()[PREFETCH]));
+                    providers.put(entry.getKey().toString(), timing);
+                }
+            }
+            JSONObject json = new JSONObject();
+            synchronized (this) {
+                json.put("started", mStarted);
+                json.put("parallel", mParallel);
+                json.put("eagerReady", mEagerReady);
+                json.put("totalUs", micros(mTotalNanos));
+            }
+            json.put("sdkUs", micros(mSdkNanos));
+            json.put("providers", providers);
+            return json.toString();
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private synchronized boolean start(boolean parallel, Collection<IProvider.Provider> lazyProviders) {
+        if (mStarted) {
+            SoomlaUtils.LogError(TAG, "SoomlaProfile is already being initialized");
+            return false;
+        }
+        mStarted = true;
+        mParallel = parallel;
+        mStartedAt = System.nanoTime();
+        if (lazyProviders != null) {
+            for (IProvider.Provider provider : lazyProviders) {
+                if (provider != null) {
+                    mLazyProviders.add(provider);
+                    setTiming(provider, PREFETCH, -1);
+                }
+            }
+        }
+        mSdkReady = new CountDownLatch(1);
+        return true;
+    }
+
+    private void initializeSdk(Activity activity, Map<IProvider.Provider, HashMap<String, String>> providerParams) {
+        long started = System.nanoTime();
+        boolean initialized = false;
+        try {
+            SoomlaProfile.getInstance().initialize(activity, providerParams);
+            initialized = true;
+        } finally {
+            mSdkNanos = System.nanoTime() - started;
+            mSdkReady.countDown();
+            if (!initialized) {
+                reset();
+            }
+        }
+    }
+
+    /**
+     * Lets initialization be started again after it failed.
+     */
+    private synchronized void reset() {
+        SoomlaUtils.LogError(TAG, "SoomlaProfile initialization failed");
+        mStarted = false;
+        mParallel = false;
+        mLazyProviders.clear();
+        mInitializedEventDeferred = false;
+    }
+
+    private void markEagerReady() {
+        boolean sendInitializedEvent;
+        synchronized (this) {
+            mEagerReady = true;
+            mTotalNanos = System.nanoTime() - mStartedAt;
+            sendInitializedEvent = mInitializedEventDeferred;
+            mInitializedEventDeferred = false;
+        }
+        SoomlaUtils.LogDebug(TAG, "Initialized: " + getTimings());
+        if (sendInitializedEvent) {
+            ProfileEventHandler.sendProfileInitialized();
+        }
+    }
+
+    /**
+     * Loads the provider's classes, so <code>SoomlaProfile.initialize</code> doesn't have to.
+     */
+    private void warmUp(IProvider.Provider provider) {
+        long started = System.nanoTime();
+        String[] classNames = PROVIDER_CLASSES.get(provider);
+        if (classNames != null) {
+            for (String className : classNames) {
+                try {
+                    Class.forName(className, true, ProfileInitializer.class.getClassLoader());
+                } catch (ClassNotFoundException e) {
+                    // the provider isn't bundled with this app
+                } catch (LinkageError e) {
+                    SoomlaUtils.LogError(TAG, "Couldn't load " + className + ": " + e.getMessage());
+                }
+            }
+        }
+        setTiming(provider, WARM_UP, System.nanoTime() - started);
+    }
+
+    private void prefetch(IProvider.Provider provider) {
+        long started = System.nanoTime();
+        try {
+            StoredUserProfileCache.getInstance().get(provider);
+        } catch (Exception e) {
+            // no stored profile, nothing to keep
+        }
+        setTiming(provider, PREFETCH, System.nanoTime() - started);
+    }
+
+    private void setTiming(IProvider.Provider provider, int step, long nanos) {
+        synchronized (mTimings) {
+            long[] timing = mTimings.get(provider);
+            if (timing == null) {
+                timing = new long[]{-1, -1};
+                mTimings.put(provider, timing);
+            }
+            timing[step] = nanos;
+        }
+    }
+
+    private static void await(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                SoomlaUtils.LogError(TAG, "Provider initialization step failed: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static ExecutorService createPool(int providerCount) {
+        int threads = Math.min(providerCount, MAX_THREADS);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger mCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "SoomlaProfileInit-" + mCount.incrementAndGet());
+            }
+        });
+    }
+
+    private static long micros(long nanos) {
+        return nanos < 0 ? -1 : nanos / 1000;
+    }
+
+    private static final String TAG = "SOOMLA ProfileInitializer";
+
+    private static final int MAX_THREADS = 4;
+    private static final int WARM_UP = 0;
+    private static final int PREFETCH = 1;
+
+    private static final Map<IProvider.Provider, String[]> PROVIDER_CLASSES =
+            new EnumMap<IProvider.Provider, String[]>(IProvider.Provider.class);
+
+    static {
+        PROVIDER_CLASSES.put(IProvider.Provider.FACEBOOK, new String[]{
+                "com.soomla.profile.social.facebook.SoomlaFacebook"});
+        PROVIDER_CLASSES.put(IProvider.Provider.GOOGLE, new String[]{
+                "com.soomla.profile.social.google.SoomlaGooglePlus",
+                "com.soomla.profile.gameservices.google.SoomlaGooglePlay"});
+        PROVIDER_CLASSES.put(IProvider.Provider.TWITTER, new String[]{
+                "com.soomla.profile.social.twitter.SoomlaTwitter"});
+    }
+
+    private final Set<IProvider.Provider> mLazyProviders = EnumSet.noneOf(IProvider.Provider.class);
+    private final Set<IProvider.Provider> mPrefetched = EnumSet.noneOf(IProvider.Provider.class);
+    private final Map<IProvider.Provider, long[]> mTimings = new EnumMap<IProvider.Provider, long[]>(IProvider.Provider.class);
+    private volatile CountDownLatch mSdkReady;
+    private volatile long mSdkNanos = -1;
+    private boolean mStarted = false;
+    private boolean mParallel = false;
+    private boolean mEagerReady = false;
+    private boolean mInitializedEventDeferred = false;
+    private long mStartedAt;
+    private long mTotalNanos = -1;
+}
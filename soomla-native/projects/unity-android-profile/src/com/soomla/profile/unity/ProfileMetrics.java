@@ -0,0 +1,244 @@
+package com.soomla.profile.unity;
+
+import com.soomla.SoomlaApp;
+import com.soomla.SoomlaUtils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histograms and call/byte counters for the bridge entry points and the events sent to Unity.
+ *
+ * Call sites take a timestamp with {@link #start()} and record it with {@link #end}. While
+ * metrics are off, <code>start()</code> returns <code>0</code> without reading the clock and
+ * <code>end()</code> returns right away, so instrumented code pays a volatile read per call.
+ *
+ * Histograms have fixed power-of-two buckets: bucket <code>i</code> counts calls that took
+ * less than <code>2^i</code> microseconds, the last bucket counts everything slower.
+ * All counters are atomics, recording never locks. Snapshots also carry gauges, current
+ * values of the bridge's queues.
+ */
+public class ProfileMetrics {
+
+    public static final int BUCKET_COUNT = 24;
+
+    /**
+     * Counters of one instrumented method or event.
+     */
+    public static class Metric {
+
+        Metric(String name) {
+            this.name = name;
+        }
+
+        void record(long elapsedNanos, long bytes) {
+            long micros = elapsedNanos / 1000;
+            int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+            mBuckets.incrementAndGet(bucket);
+            mCalls.incrementAndGet();
+            mTotalNanos.addAndGet(elapsedNanos);
+            if (bytes > 0) {
+                mBytes.addAndGet(bytes);
+            }
+
+            long max = mMaxNanos.get();
+            while (elapsedNanos > max && !mMaxNanos.compareAndSet(max, elapsedNanos)) {
+                max = mMaxNanos.get();
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                mBuckets.set(i, 0);
+            }
+            mCalls.set(0);
+            mTotalNanos.set(0);
+            mMaxNanos.set(0);
+            mBytes.set(0);
+        }
+
+        JSONObject toJSONObject() throws JSONException {
+            JSONArray buckets = new JSONArray();
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.put(mBuckets.get(i));
+            }
+            JSONObject json = new JSONObject();
+            json.put("calls", mCalls.get());
+            json.put("totalUs", mTotalNanos.get() / 1000);
+            json.put("maxUs", mMaxNanos.get() / 1000);
+            json.put("payloadSize", mBytes.get());
+            json.put("buckets", buckets);
+            return json;
+        }
+
+        final String name;
+        private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong mCalls = new AtomicLong();
+        private final AtomicLong mTotalNanos = new AtomicLong();
+        private final AtomicLong mMaxNanos = new AtomicLong();
+        private final AtomicLong mBytes = new AtomicLong();
+    }
+
+    /**
+     * Creates a metric that shows up in snapshots under the given name.
+     * Meant to be kept in a static field of the instrumented class.
+     */
+    public static Metric metric(String name) {
+        Metric metric = new Metric(name);
+        sMetrics.add(metric);
+        return metric;
+    }
+
+    /**
+     * @return the metric of the event with the given <code>ProfileEventIds</code> id,
+     * or <code>null</code> for unknown events
+     */
+    public static Metric eventMetric(int eventId) {
+        return eventId >= 0 && eventId < sEventMetrics.length ? sEventMetrics[eventId] : null;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Turns recording on or off.
+     *
+     * @param dumpIntervalMs how often to write a snapshot to the app's files dir,
+     *                       <code>0</code> or less for never
+     */
+    public static synchronized void setEnabled(boolean enabled, int dumpIntervalMs) {
+        sEnabled = enabled;
+        if (sDumpFuture != null) {
+            sDumpFuture.cancel(false);
+            sDumpFuture = null;
+        }
+        if (enabled && dumpIntervalMs > 0) {
+            if (sDumpExecutor == null) {
+                sDumpExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "SoomlaProfileMetrics");
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    }
+                });
+            }
+            sDumpFuture = sDumpExecutor.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    dump();
+                }
+            }, dumpIntervalMs, dumpIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        SoomlaUtils.LogDebug(TAG, "Metrics " + (enabled ? "enabled, dump interval: " + dumpIntervalMs + "ms" : "disabled"));
+    }
+
+    /**
+     * @return a timestamp to pass to {@link #end}, <code>0</code> while metrics are off
+     */
+    public static long start() {
+        return sEnabled ? System.nanoTime() : 0;
+    }
+
+    public static void end(Metric metric, long started) {
+        end(metric, started, 0);
+    }
+
+    /**
+     * Records a call that began at <code>started</code>.
+     *
+     * @param bytes size of the call's payload (bytes, or chars for event messages), <code>0</code> if it has none
+     */
+    public static void end(Metric metric, long started, long bytes) {
+        if (started == 0 || metric == null) {
+            return;
+        }
+        metric.record(System.nanoTime() - started, bytes);
+    }
+
+    public static void reset() {
+        for (Metric metric : sMetrics) {
+            metric.reset();
+        }
+        ProfileSerializationStage.getInstance().resetMaxQueueDepth();
+    }
+
+    /**
+     * @return all metrics as JSON, metrics that were never called are left out
+     */
+    public static String snapshot() {
+        try {
+            JSONObject metrics = new JSONObject();
+            for (Metric metric : sMetrics) {
+                if (metric.mCalls.get() > 0) {
+                    metrics.put(metric.name, metric.toJSONObject());
+                }
+            }
+            ProfileSerializationStage serializationStage = ProfileSerializationStage.getInstance();
+            JSONObject gauges = new JSONObject();
+            gauges.put("serialization.queueDepth", serializationStage.getQueueDepth());
+            gauges.put("serialization.maxQueueDepth", serializationStage.getMaxQueueDepth());
+
+            JSONObject json = new JSONObject();
+            json.put("enabled", sEnabled);
+            json.put("bucketCount", BUCKET_COUNT);
+            json.put("metrics", metrics);
+            json.put("gauges", gauges);
+            return json.toString();
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void dump() {
+        File file = new File(SoomlaApp.getAppContext().getFilesDir(), DUMP_FILE_NAME);
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(file);
+            out.write(snapshot().getBytes("UTF-8"));
+        } catch (IOException e) {
+            SoomlaUtils.LogError(TAG, "Couldn't dump metrics: " + e.getMessage());
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private ProfileMetrics() {
+    }
+
+    private static final String TAG = "SOOMLA ProfileMetrics";
+
+    private static final String DUMP_FILE_NAME = "soomla_profile_metrics.json";
+
+    private static final List<Metric> sMetrics = new CopyOnWriteArrayList<Metric>();
+    private static final Metric[] sEventMetrics = new Metric[ProfileEventIds.NAMES.length];
+    private static volatile boolean sEnabled = false;
+    private static ScheduledExecutorService sDumpExecutor;
+    private static ScheduledFuture<?> sDumpFuture;
+
+    static {
+        for (int i = 0; i < sEventMetrics.length; i++) {
+            sEventMetrics[i] = metric("event." + ProfileEventIds.NAMES[i]);
+        }
+    }
+}
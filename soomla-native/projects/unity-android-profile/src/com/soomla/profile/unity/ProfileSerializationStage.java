@@ -0,0 +1,232 @@
+package com.soomla.profile.unity;
+
+import com.soomla.SoomlaUtils;
+
+import org.json.JSONException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves building and sending the messages of outbound profile events off the bus's thread.
+ *
+ * While it's on, event handlers hand their events over as {@link Job}s (or as messages, for
+ * events that are cheap to serialize) and return; a single worker builds and sends them in the
+ * order they were submitted, so Unity gets events in the same order as without the stage.
+ * {@link #flush()} sends everything pending on the calling thread, e.g. when the app is paused.
+ *
+ * Events' latency metrics include the time they waited in the queue, the queue's own wait is
+ * recorded under <code>serialization.queueWait</code>.
+ */
+public class ProfileSerializationStage {
+
+    /**
+     * Builds an event's message from the objects the handler captured.
+     * The message may be backed by the calling thread's <code>ProfileEventWriter</code>.
+     */
+    public abstract static class Job {
+        public abstract CharSequence serialize() throws JSONException;
+    }
+
+    private static ProfileSerializationStage sInstance;
+
+    public static synchronized ProfileSerializationStage getInstance() {
+        if (sInstance == null) {
+            sInstance = new ProfileSerializationStage();
+        }
+        return sInstance;
+    }
+
+    private ProfileSerializationStage() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, WORKER_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "SoomlaProfileSerializer");
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        mExecutor = executor;
+    }
+
+    /**
+     * Turns the stage on or off. Turning it off sends whatever is still pending first, and
+     * events keep being queued until then, so none is sent directly ahead of them.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled) {
+            mEnabled = true;
+        } else {
+            drain(true);
+        }
+        SoomlaUtils.LogDebug(TAG, "Background serialization " + (enabled ? "enabled" : "disabled"));
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Queues an event whose message is built by <code>job</code>.
+     *
+     * @return <code>false</code> if the stage is off and the event should be sent directly
+     */
+    public boolean submit(Job job, String recipient, int provider, long started) {
+        if (!mEnabled) {
+            return false;
+        }
+        return submit(new Pending(job, null, recipient, provider, started));
+    }
+
+    /**
+     * Queues an event whose message is already built, so it isn't sent ahead of earlier events.
+     *
+     * @return <code>false</code> if the stage is off and the event should be sent directly
+     */
+    public boolean submit(CharSequence message, String recipient, int provider, long started) {
+        if (!mEnabled) {
+            return false;
+        }
+        // a writer's chars are reused by the next event built on this thread
+        return submit(new Pending(null, message.toString(), recipient, provider, started));
+    }
+
+    /**
+     * Builds and sends all pending events on the calling thread, after the one the worker
+     * may be sending. Returns once they're all sent.
+     */
+    public void flush() {
+        drain(false);
+    }
+
+    /**
+     * @return how many events are waiting to be built and sent
+     */
+    public int getQueueDepth() {
+        synchronized (mLock) {
+            return mQueue.size();
+        }
+    }
+
+    /**
+     * @return the largest queue depth seen since the last {@link #resetMaxQueueDepth()}
+     */
+    public int getMaxQueueDepth() {
+        synchronized (mLock) {
+            return mMaxQueueDepth;
+        }
+    }
+
+    public void resetMaxQueueDepth() {
+        synchronized (mLock) {
+            mMaxQueueDepth = mQueue.size();
+        }
+    }
+
+    private boolean submit(Pending pending) {
+        synchronized (mLock) {
+            if (!mEnabled) {
+                return false;
+            }
+            mQueue.addLast(pending);
+            mMaxQueueDepth = Math.max(mMaxQueueDepth, mQueue.size());
+            if (mQueue.size() > 1) {
+                return true;
+            }
+        }
+        mExecutor.execute(mDrainRunnable);
+        return true;
+    }
+
+    /**
+     * @param disable turn the stage off once the queue is empty, atomically with the
+     *                check so no event is queued after it
+     */
+    private void drain(boolean disable) {
+        synchronized (mDrainLock) {
+            while (true) {
+                Pending pending;
+                synchronized (mLock) {
+                    pending = mQueue.peekFirst();
+                    if (pending == null) {
+                        if (disable) {
+                            mEnabled = false;
+                        }
+                        return;
+                    }
+                }
+                ProfileMetrics.end(QUEUE_WAIT_METRIC, pending.queuedAt);
+                try {
+                    send(pending);
+                } finally {
+                    // only taken out once sent, so the next submit doesn't start another drain meanwhile
+                    synchronized (mLock) {
+                        mQueue.pollFirst();
+                    }
+                }
+            }
+        }
+    }
+
+    private static void send(Pending pending) {
+        if (pending.fromRecordedCall) {
+            ProfileTraceRecorder.enterCall();
+        }
+        try {
+            CharSequence message = pending.job != null ? pending.job.serialize() : pending.message;
+            ProfileEventHandler.sendProfileMessage(message, pending.recipient, pending.provider, pending.started);
+        } catch (JSONException e) {
+            SoomlaUtils.LogError(TAG, "Couldn't serialize " + pending.recipient + ", dropping it: " + e.getMessage());
+        } catch (RuntimeException e) {
+            SoomlaUtils.LogError(TAG, "Couldn't send " + pending.recipient + ", dropping it: " + e.getMessage());
+        } finally {
+            if (pending.fromRecordedCall) {
+                ProfileTraceRecorder.exitCall();
+            }
+        }
+    }
+
+    private static class Pending {
+
+        Pending(Job job, String message, String recipient, int provider, long started) {
+            this.job = job;
+            this.message = message;
+            this.recipient = recipient;
+            this.provider = provider;
+            this.started = started;
+            this.queuedAt = ProfileMetrics.start();
+            this.fromRecordedCall = ProfileTraceRecorder.isInCall();
+        }
+
+        final Job job;
+        final String message;
+        final String recipient;
+        final int provider;
+        final long started;
+        final long queuedAt;
+        final boolean fromRecordedCall;
+    }
+
+    private final Runnable mDrainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            drain(false);
+        }
+    };
+
+    private static final String TAG = "SOOMLA ProfileSerializationStage";
+
+    private static final long WORKER_KEEP_ALIVE_MS = 30000;
+    private static final ProfileMetrics.Metric QUEUE_WAIT_METRIC = ProfileMetrics.metric("serialization.queueWait");
+
+    private final Object mLock = new Object();
+    private final Object mDrainLock = new Object();
+    private final ExecutorService mExecutor;
+    private final ArrayDeque<Pending> mQueue = new ArrayDeque<Pending>();
+    private int mMaxQueueDepth = 0;
+    private volatile boolean mEnabled = false;
+}
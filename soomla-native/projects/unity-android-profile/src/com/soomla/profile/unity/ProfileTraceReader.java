@@ -0,0 +1,154 @@
+package com.soomla.profile.unity;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads traces written by {@link ProfileTraceRecorder}, one record at a time.
+ * A record cut short at the end of the file (e.g. by process death) ends the trace.
+ */
+public class ProfileTraceReader implements Closeable {
+
+    /**
+     * A call into the bridge, or an event sent to Unity.
+     */
+    public static class Record {
+
+        public boolean isCall() {
+            return kind == ProfileTraceRecorder.KIND_CALL;
+        }
+
+        public boolean isEvent() {
+            return kind == ProfileTraceRecorder.KIND_EVENT;
+        }
+
+        /**
+         * Kind of the record, without flags.
+         */
+        public int kind;
+
+        /**
+         * Time of the record, in microseconds since recording started.
+         */
+        public long timeMicros;
+
+        // calls
+        public int target;
+        public String method;
+        public Object[] args;
+
+        // events
+        public boolean fromCall;
+        public int eventId;
+        public int provider;
+        public String message;
+    }
+
+    public ProfileTraceReader(File file) throws IOException {
+        this(new FileInputStream(file));
+    }
+
+    public ProfileTraceReader(InputStream in) throws IOException {
+        mIn = new DataInputStream(new BufferedInputStream(in));
+        if (mIn.readInt() != ProfileTraceRecorder.MAGIC) {
+            throw new IOException("Not a profile trace");
+        }
+        short version = mIn.readShort();
+        if (version != ProfileTraceRecorder.VERSION) {
+            throw new IOException("Unsupported trace version: " + version);
+        }
+        mStartedAtMs = mIn.readLong();
+    }
+
+    /**
+     * @return wall clock time recording started at, in ms
+     */
+    public long getStartedAtMs() {
+        return mStartedAtMs;
+    }
+
+    /**
+     * @return the next record, or <code>null</code> at the end of the trace
+     */
+    public Record next() throws IOException {
+        int kind = mIn.read();
+        if (kind < 0) {
+            return null;
+        }
+        try {
+            Record record = new Record();
+            record.kind = kind & ~ProfileTraceRecorder.FLAG_FROM_CALL;
+            mTimeMicros += readVarLong();
+            record.timeMicros = mTimeMicros;
+            if (record.kind == ProfileTraceRecorder.KIND_CALL) {
+                record.target = mIn.readByte();
+                record.method = mIn.readUTF();
+                record.args = new Object[mIn.readUnsignedByte()];
+                for (int i = 0; i < record.args.length; i++) {
+                    record.args[i] = readArgument();
+                }
+            } else if (record.kind == ProfileTraceRecorder.KIND_EVENT) {
+                record.fromCall = (kind & ProfileTraceRecorder.FLAG_FROM_CALL) != 0;
+                record.eventId = mIn.readByte();
+                record.provider = mIn.readByte();
+                record.message = readString();
+            } else {
+                throw new IOException("Unknown record kind: " + kind);
+            }
+            return record;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mIn.close();
+    }
+
+    private Object readArgument() throws IOException {
+        int tag = mIn.readUnsignedByte();
+        switch (tag) {
+            case 'N':
+                return null;
+            case 'S':
+                return readString();
+            case 'Z':
+                return mIn.readBoolean();
+            case 'I':
+                return mIn.readInt();
+            case 'J':
+                return mIn.readLong();
+            default:
+                throw new IOException("Unknown argument tag: " + tag);
+        }
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[(int) readVarLong()];
+        mIn.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = mIn.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private final DataInputStream mIn;
+    private final long mStartedAtMs;
+    private long mTimeMicros;
+}
@@ -0,0 +1,226 @@
+package com.soomla.profile.unity;
+
+import com.soomla.SoomlaApp;
+import com.soomla.SoomlaUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Records the bridge's traffic into a binary trace file: every call Unity makes into
+ * <code>UnitySoomlaProfile</code> and the <code>pushEvent*</code> methods, and every
+ * event sent back to Unity, each with its time. {@link ProfileTraceReader} reads traces back.
+ *
+ * Layout (big endian):
+ * <pre>
+ * header: int magic | short version | long wall clock time recording started at (ms)
+ * record: byte kind | varint micros since the previous record (or the start) | body
+ *   call:  byte target | UTF method name | byte argument count | arguments
+ *   event: byte event id | byte provider | string message
+ * argument: byte tag | value, tags are N (null), S (string), Z (boolean), I (int), J (long)
+ * string:   varint length | UTF-8 bytes
+ * </pre>
+ * Events sent while the event of a recorded <code>pushEvent*</code> call is dispatched have
+ * the {@link #FLAG_FROM_CALL} bit set in their kind, so a replay that repeats the call doesn't
+ * send them twice.
+ *
+ * While recording is off, call sites pay a volatile read.
+ */
+public class ProfileTraceRecorder {
+
+    public static final int MAGIC = 0x53505452;
+    public static final short VERSION = 1;
+
+    public static final int KIND_CALL = 1;
+    public static final int KIND_EVENT = 2;
+    public static final int FLAG_FROM_CALL = 0x80;
+
+    public static final int TARGET_BRIDGE = 0;
+    public static final int TARGET_EVENT_HANDLER = 1;
+
+    public static boolean isRecording() {
+        return sOut != null;
+    }
+
+    /**
+     * Starts recording into a file in the app's files dir, replacing it if it exists.
+     * A recording in progress is stopped first.
+     *
+     * @param fileName the trace's file name, <code>null</code> or empty for the default one
+     * @return the trace's path, or <code>null</code> if it couldn't be created
+     */
+    public static synchronized String start(String fileName) {
+        return start(new File(SoomlaApp.getAppContext().getFilesDir(),
+                fileName == null || fileName.length() == 0 ? DEFAULT_FILE_NAME : fileName));
+    }
+
+    /**
+     * Starts recording into the given file, see {@link #start(String)}.
+     */
+    public static synchronized String start(File file) {
+        stop();
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            sLastNanos = System.nanoTime();
+            sOut = out;
+        } catch (IOException e) {
+            SoomlaUtils.LogError(TAG, "Couldn't start recording to " + file + ": " + e.getMessage());
+            return null;
+        }
+        SoomlaUtils.LogDebug(TAG, "Recording bridge traffic to " + file);
+        return file.getAbsolutePath();
+    }
+
+    /**
+     * Stops recording and closes the trace.
+     */
+    public static synchronized void stop() {
+        DataOutputStream out = sOut;
+        if (out == null) {
+            return;
+        }
+        sOut = null;
+        try {
+            out.close();
+        } catch (IOException e) {
+            SoomlaUtils.LogError(TAG, "Couldn't close trace: " + e.getMessage());
+        }
+        SoomlaUtils.LogDebug(TAG, "Stopped recording bridge traffic");
+    }
+
+    /**
+     * Records a call into the bridge. Arguments other than strings, booleans, ints and
+     * longs are recorded as <code>null</code>.
+     */
+    public static void call(int target, String method, Object... args) {
+        synchronized (ProfileTraceRecorder.class) {
+            DataOutputStream out = sOut;
+            if (out == null) {
+                return;
+            }
+            try {
+                writeHeader(out, KIND_CALL);
+                out.writeByte(target);
+                out.writeUTF(method);
+                out.writeByte(args.length);
+                for (Object arg : args) {
+                    writeArgument(out, arg);
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Marks the events sent on this thread until {@link #exitCall} as caused by a recorded call.
+     * Calls can be recorded on one thread and have their events sent on another.
+     */
+    public static void enterCall() {
+        sCallDepth.get()[0]++;
+    }
+
+    public static void exitCall() {
+        sCallDepth.get()[0]--;
+    }
+
+    /**
+     * @return whether this thread is inside {@link #enterCall}, for handing the mark over to another thread
+     */
+    public static boolean isInCall() {
+        return sOut != null && sCallDepth.get()[0] > 0;
+    }
+
+    /**
+     * Records an event sent to Unity.
+     *
+     * @param provider the event's provider value, <code>-1</code> if it has none
+     */
+    public static void event(int provider, int eventId, CharSequence message) {
+        if (sOut == null) {
+            return;
+        }
+        boolean fromCall = sCallDepth.get()[0] > 0;
+        synchronized (ProfileTraceRecorder.class) {
+            DataOutputStream out = sOut;
+            if (out == null) {
+                return;
+            }
+            try {
+                writeHeader(out, fromCall ? KIND_EVENT | FLAG_FROM_CALL : KIND_EVENT);
+                out.writeByte(eventId);
+                out.writeByte(provider);
+                writeString(out, message.toString());
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, int kind) throws IOException {
+        long now = System.nanoTime();
+        out.writeByte(kind);
+        writeVarLong(out, Math.max(now - sLastNanos, 0) / 1000);
+        sLastNanos = now;
+    }
+
+    private static void writeArgument(DataOutputStream out, Object arg) throws IOException {
+        if (arg instanceof String) {
+            out.writeByte('S');
+            writeString(out, (String) arg);
+        } else if (arg instanceof Boolean) {
+            out.writeByte('Z');
+            out.writeBoolean((Boolean) arg);
+        } else if (arg instanceof Integer) {
+            out.writeByte('I');
+            out.writeInt((Integer) arg);
+        } else if (arg instanceof Long) {
+            out.writeByte('J');
+            out.writeLong((Long) arg);
+        } else {
+            out.writeByte('N');
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes("UTF-8");
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static void fail(IOException e) {
+        SoomlaUtils.LogError(TAG, "Couldn't write trace, recording stopped: " + e.getMessage());
+        stop();
+    }
+
+    private ProfileTraceRecorder() {
+    }
+
+    private static final String TAG = "SOOMLA ProfileTraceRecorder";
+
+    private static final String DEFAULT_FILE_NAME = "soomla_profile_trace.bin";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static volatile DataOutputStream sOut;
+    private static long sLastNanos;
+    private static final ThreadLocal<int[]> sCallDepth = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+}
@@ -0,0 +1,212 @@
+package com.soomla.profile.unity;
+
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.gameservices.Leaderboard;
+import com.soomla.profile.domain.gameservices.Score;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the last scores page delivered to Unity per provider, leaderboard and page, so a
+ * refreshed page can be sent as the scores that were inserted, changed or removed since.
+ *
+ * Every delivered page gets a new version, and a delta names the version it applies to.
+ * When Unity doesn't have that version (a message was dropped, or Unity started over), it
+ * asks for the whole page with {@link #resync}. Scores are matched by their player's profile ID.
+ * Logging out drops the provider's pages, so the next refresh is sent whole.
+ */
+public class ScoreDeltaTracker {
+
+    private static ScoreDeltaTracker sInstance;
+
+    public static synchronized ScoreDeltaTracker getInstance() {
+        if (sInstance == null) {
+            sInstance = new ScoreDeltaTracker();
+        }
+        return sInstance;
+    }
+
+    private ScoreDeltaTracker() {
+    }
+
+    /**
+     * Turns deltas on or off. Turning them off drops the delivered pages.
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        SoomlaUtils.LogDebug(TAG, "Score deltas " + (enabled ? "enabled" : "disabled"));
+        mEnabled = enabled;
+        if (!enabled) {
+            mPages.clear();
+            mRequestedPages.clear();
+            mDeliveredPages.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Remembers which page of the leaderboard the next <code>GetScoresFinishedEvent</code> holds.
+     */
+    public synchronized void onRequestStarted(IProvider.Provider provider, Leaderboard leaderboard, boolean fromStart) {
+        if (!mEnabled) {
+            return;
+        }
+        String key = key(provider, LeaderboardRegistry.getInstance().getId(leaderboard));
+        Integer delivered = mDeliveredPages.get(key);
+        mRequestedPages.put(key, fromStart || delivered == null ? 0 : delivered + 1);
+    }
+
+    /**
+     * Records a page about to be delivered to Unity.
+     *
+     * @return what to send for it, whole when it's new or when most of it changed
+     */
+    public synchronized Delta update(IProvider.Provider provider, Leaderboard leaderboard, List<Score> scores) {
+        String leaderboardKey = key(provider, LeaderboardRegistry.getInstance().getId(leaderboard));
+        Integer requested = mRequestedPages.remove(leaderboardKey);
+        int pageNumber = requested != null ? requested : 0;
+        mDeliveredPages.put(leaderboardKey, pageNumber);
+
+        Map<String, String> entries = new LinkedHashMap<String, String>();
+        boolean duplicates = false;
+        for (Score score : scores) {
+            JSONObject scoreJSON = score.toJSONObject();
+            JSONObject player = scoreJSON.optJSONObject(USER_PROFILE);
+            String playerId = player != null ? player.optString(PROFILE_ID) : "";
+            duplicates |= entries.put(playerId, scoreJSON.toString()) != null;
+        }
+
+        String pageKey = leaderboardKey + ":" + pageNumber;
+        Page previous = mPages.get(pageKey);
+        Page page = new Page(++mVersion, entries);
+        mPages.put(pageKey, page);
+
+        Delta delta = new Delta(pageNumber, page.version);
+        if (previous == null || duplicates) {
+            delta.scores.addAll(entries.values());
+            return delta;
+        }
+
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            String previousJSON = previous.entries.get(entry.getKey());
+            if (previousJSON == null) {
+                delta.inserted.add(entry.getValue());
+            } else if (!previousJSON.equals(entry.getValue())) {
+                delta.changed.add(entry.getValue());
+            }
+        }
+        for (String playerId : previous.entries.keySet()) {
+            if (!entries.containsKey(playerId)) {
+                delta.removed.add(playerId);
+            }
+        }
+        if (delta.inserted.size() + delta.changed.size() + delta.removed.size() >= entries.size()) {
+            delta.inserted.clear();
+            delta.changed.clear();
+            delta.removed.clear();
+            delta.scores.addAll(entries.values());
+            return delta;
+        }
+        delta.baseVersion = previous.version;
+        return delta;
+    }
+
+    /**
+     * @return the last delivered page as <code>{"version":..., "page":..., "scores":[...]}</code>,
+     * <code>null</code> if there's none
+     */
+    public synchronized String resync(IProvider.Provider provider, String leaderboardId, int pageNumber) {
+        Page page = mPages.get(key(provider, leaderboardId) + ":" + pageNumber);
+        if (page == null) {
+            return null;
+        }
+        ProfileEventWriter writer = ProfileEventWriter.obtain();
+        writer.beginObject()
+                .field("version", page.version)
+                .field("page", pageNumber)
+                .name("scores").beginArray();
+        for (String scoreJSON : page.entries.values()) {
+            writer.rawValue(scoreJSON);
+        }
+        return writer.endArray().endObject().toString();
+    }
+
+    public synchronized void clear(IProvider.Provider provider) {
+        if (provider == null) {
+            return;
+        }
+        String prefix = provider.getValue() + ":";
+        removeKeys(mPages, prefix);
+        removeKeys(mRequestedPages, prefix);
+        removeKeys(mDeliveredPages, prefix);
+    }
+
+    private static void removeKeys(Map<String, ?> map, String prefix) {
+        for (Iterator<String> it = map.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().startsWith(prefix)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static String key(IProvider.Provider provider, String leaderboardId) {
+        return provider.getValue() + ":" + leaderboardId;
+    }
+
+    /**
+     * What to send for a delivered page: either all of its <code>scores</code>, or the scores
+     * <code>inserted</code>, <code>changed</code> and <code>removed</code> (by player profile ID)
+     * since <code>baseVersion</code>. Scores are JSON strings.
+     */
+    public static class Delta {
+
+        public final int page;
+        public final int version;
+        public int baseVersion = 0;
+        public final List<String> scores = new ArrayList<String>();
+        public final List<String> inserted = new ArrayList<String>();
+        public final List<String> changed = new ArrayList<String>();
+        public final List<String> removed = new ArrayList<String>();
+
+        Delta(int page, int version) {
+            this.page = page;
+            this.version = version;
+        }
+
+        public boolean isDelta() {
+            return baseVersion != 0;
+        }
+    }
+
+    private static class Page {
+
+        final int version;
+        final Map<String, String> entries;
+
+        Page(int version, Map<String, String> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+
+    private static final String TAG = "SOOMLA ScoreDeltaTracker";
+
+    private static final String USER_PROFILE = "userProfile";
+    private static final String PROFILE_ID = "profileId";
+
+    private final Map<String, Page> mPages = new HashMap<String, Page>();
+    private final Map<String, Integer> mRequestedPages = new HashMap<String, Integer>();
+    private final Map<String, Integer> mDeliveredPages = new HashMap<String, Integer>();
+    private int mVersion = 0;
+    private volatile boolean mEnabled = false;
+}
@@ -0,0 +1,153 @@
+package com.soomla.profile.unity;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.soomla.SoomlaUtils;
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.gameservices.Leaderboard;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces <code>submitScore</code> calls: only the best pending score per provider and
+ * leaderboard is kept, and pending scores are submitted once per flush interval (or when
+ * {@link #flush()} is called, e.g. when the app is paused).
+ *
+ * Every flushed score goes through <code>SoomlaProfile.submitScore</code> (via the action
+ * journal, when it's enabled) with the payload it was queued with, so it produces the regular <code>SubmitScore*</code> events.
+ * Scores replaced by a better one produce no events at all.
+ */
+public class ScoreSubmissionQueue {
+
+    public static final int DEFAULT_FLUSH_INTERVAL_MS = 30000;
+
+    private static ScoreSubmissionQueue sInstance;
+
+    public static synchronized ScoreSubmissionQueue getInstance() {
+        if (sInstance == null) {
+            sInstance = new ScoreSubmissionQueue();
+        }
+        return sInstance;
+    }
+
+    private ScoreSubmissionQueue() {
+        mHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Turns the queue on or off. Turning it off flushes whatever is still pending.
+     *
+     * @param enabled whether scores should be queued
+     * @param flushIntervalMs how long to collect scores before submitting them,
+     *                        <code>0</code> or less means {@link #DEFAULT_FLUSH_INTERVAL_MS}
+     * @param lowerIsBetter whether lower scores beat higher ones
+     */
+    public void setEnabled(boolean enabled, int flushIntervalMs, boolean lowerIsBetter) {
+        synchronized (mLock) {
+            mFlushIntervalMs = flushIntervalMs > 0 ? flushIntervalMs : DEFAULT_FLUSH_INTERVAL_MS;
+            mLowerIsBetter = lowerIsBetter;
+            mEnabled = enabled;
+        }
+        SoomlaUtils.LogDebug(TAG, "Score queue " + (enabled ? "enabled, interval: " + mFlushIntervalMs + "ms" : "disabled"));
+
+        if (!enabled) {
+            flush();
+        }
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Queues a score for the next flush, unless a better one is already pending.
+     *
+     * @return <code>false</code> if the queue is disabled and the score should be submitted directly
+     */
+    public boolean enqueue(IProvider.Provider provider, Leaderboard leaderboard, long score, String payload) {
+        String key = provider.getValue() + ":" + LeaderboardRegistry.getInstance().getId(leaderboard);
+        synchronized (mLock) {
+            if (!mEnabled) {
+                return false;
+            }
+
+            Pending pending = mPending.get(key);
+            if (pending != null && !isBetter(score, pending.score)) {
+                return true;
+            }
+
+            boolean wasEmpty = mPending.isEmpty();
+            mPending.put(key, new Pending(provider, leaderboard, score, payload));
+            if (wasEmpty) {
+                mHandler.postDelayed(mFlushRunnable, mFlushIntervalMs);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Submits all pending scores right away.
+     */
+    public void flush() {
+        List<Pending> pendings;
+        synchronized (mLock) {
+            mHandler.removeCallbacks(mFlushRunnable);
+            if (mPending.isEmpty()) {
+                return;
+            }
+
+            pendings = new ArrayList<Pending>(mPending.values());
+            mPending.clear();
+        }
+
+        SoomlaUtils.LogDebug(TAG, "Submitting " + pendings.size() + " queued scores");
+        for (Pending pending : pendings) {
+            try {
+                ProfileActionJournal.getInstance().submitScore(pending.provider, pending.leaderboard, pending.score,
+                        pending.payload);
+            } catch (ProviderNotFoundException e) {
+                SoomlaUtils.LogError(TAG, "Couldn't submit queued score: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean isBetter(long score, long than) {
+        return mLowerIsBetter ? score < than : score > than;
+    }
+
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    private static class Pending {
+
+        Pending(IProvider.Provider provider, Leaderboard leaderboard, long score, String payload) {
+            this.provider = provider;
+            this.leaderboard = leaderboard;
+            this.score = score;
+            this.payload = payload;
+        }
+
+        final IProvider.Provider provider;
+        final Leaderboard leaderboard;
+        final long score;
+        final String payload;
+    }
+
+    private static final String TAG = "SOOMLA ScoreSubmissionQueue";
+
+    private final Object mLock = new Object();
+    private final Handler mHandler;
+    private final Map<String, Pending> mPending = new LinkedHashMap<String, Pending>();
+    private boolean mLowerIsBetter = false;
+    private volatile boolean mEnabled = false;
+    private volatile int mFlushIntervalMs = DEFAULT_FLUSH_INTERVAL_MS;
+}
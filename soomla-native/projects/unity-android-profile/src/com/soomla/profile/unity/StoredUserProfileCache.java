@@ -0,0 +1,170 @@
+package com.soomla.profile.unity;
+
+import com.soomla.profile.SoomlaProfile;
+import com.soomla.profile.domain.IProvider;
+import com.soomla.profile.domain.UserProfile;
+import com.soomla.profile.exceptions.ProviderNotFoundException;
+import com.soomla.profile.exceptions.UserProfileNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the serialized stored profile of every provider, so polling it doesn't read
+ * <code>UserProfileStorage</code> and serialize the profile each time.
+ *
+ * Entries are dropped whenever the stored profile may have changed: on profile updates,
+ * login, logout and when Unity stores or removes a profile. Every drop also bumps a version,
+ * so callers can ask which providers changed since they last looked.
+ */
+public class StoredUserProfileCache {
+
+    private static StoredUserProfileCache sInstance;
+
+    public static synchronized StoredUserProfileCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new StoredUserProfileCache();
+        }
+        return sInstance;
+    }
+
+    private StoredUserProfileCache() {
+    }
+
+    /**
+     * @return the stored profile's JSON, or <code>null</code> if there is no stored profile
+     */
+    public String get(IProvider.Provider provider) throws ProviderNotFoundException, UserProfileNotFoundException {
+        int version;
+        synchronized (this) {
+            if (mProfiles.containsKey(provider)) {
+                return mProfiles.get(provider);
+            }
+            version = mVersion;
+        }
+
+        UserProfile userProfile = SoomlaProfile.getInstance().getStoredUserProfile(provider);
+        String json = userProfile == null ? null : userProfile.toJSONObject().toString();
+
+        synchronized (this) {
+            // don't keep what was read before an invalidation
+            if (version == mVersion) {
+                mProfiles.put(provider, json);
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Reads the stored profiles of several providers at once: the ones not kept yet are read
+     * in a single pass and kept together.
+     *
+     * @return the stored profiles' JSON in the order of <code>providers</code>, <code>null</code>
+     * for providers without a stored profile; providers that aren't initialized are left out
+     */
+    public Map<IProvider.Provider, String> getAll(Collection<IProvider.Provider> providers) {
+        List<IProvider.Provider> missing = new ArrayList<IProvider.Provider>();
+        Map<IProvider.Provider, String> kept = new HashMap<IProvider.Provider, String>();
+        int version;
+        synchronized (this) {
+            for (IProvider.Provider provider : providers) {
+                if (mProfiles.containsKey(provider)) {
+                    kept.put(provider, mProfiles.get(provider));
+                } else {
+                    missing.add(provider);
+                }
+            }
+            version = mVersion;
+        }
+
+        Map<IProvider.Provider, String> read = new HashMap<IProvider.Provider, String>();
+        for (IProvider.Provider provider : missing) {
+            try {
+                UserProfile userProfile = SoomlaProfile.getInstance().getStoredUserProfile(provider);
+                read.put(provider, userProfile == null ? null : userProfile.toJSONObject().toString());
+            } catch (ProviderNotFoundException e) {
+                // not initialized, nothing to report
+            } catch (UserProfileNotFoundException e) {
+                read.put(provider, null);
+            }
+        }
+        if (!read.isEmpty()) {
+            synchronized (this) {
+                if (version == mVersion) {
+                    mProfiles.putAll(read);
+                }
+            }
+        }
+
+        Map<IProvider.Provider, String> result = new LinkedHashMap<IProvider.Provider, String>();
+        for (IProvider.Provider provider : providers) {
+            if (kept.containsKey(provider)) {
+                result.put(provider, kept.get(provider));
+            } else if (read.containsKey(provider)) {
+                result.put(provider, read.get(provider));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a token that grows every time a stored profile or login state may have changed
+     */
+    public synchronized int getVersion() {
+        return mVersion;
+    }
+
+    /**
+     * @return the providers whose stored profile or login state may have changed after
+     * <code>version</code>, or <code>null</code> if <code>version</code> isn't a token
+     * {@link #getVersion()} returned in this process
+     */
+    public synchronized List<IProvider.Provider> changedSince(int version) {
+        if (version <= 0 || version > mVersion) {
+            return null;
+        }
+        List<IProvider.Provider> changed = new ArrayList<IProvider.Provider>();
+        for (IProvider.Provider provider : IProvider.Provider.values()) {
+            Integer changedAt = mChangedAt.get(provider);
+            if (mAllChangedAt > version || (changedAt != null && changedAt > version)) {
+                changed.add(provider);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Records the login state reported for <code>provider</code>. Login state can change without
+     * the stored profile changing (a cancelled login, a session expiring), so a value that differs
+     * from the last one reported bumps the version as an invalidation would.
+     */
+    public synchronized void noteLoginState(IProvider.Provider provider, boolean loggedIn) {
+        Boolean reported = mLoggedIn.put(provider, loggedIn);
+        if (reported != null && reported != loggedIn) {
+            mVersion++;
+            mChangedAt.put(provider, mVersion);
+        }
+    }
+
+    public synchronized void invalidate(IProvider.Provider provider) {
+        mProfiles.remove(provider);
+        mVersion++;
+        mChangedAt.put(provider, mVersion);
+    }
+
+    public synchronized void invalidateAll() {
+        mProfiles.clear();
+        mVersion++;
+        mAllChangedAt = mVersion;
+    }
+
+    private final Map<IProvider.Provider, String> mProfiles = new HashMap<IProvider.Provider, String>();
+    private final Map<IProvider.Provider, Boolean> mLoggedIn = new HashMap<IProvider.Provider, Boolean>();
+    private final Map<IProvider.Provider, Integer> mChangedAt = new HashMap<IProvider.Provider, Integer>();
+    private int mVersion = 0;
+    private int mAllChangedAt = 0;
+}
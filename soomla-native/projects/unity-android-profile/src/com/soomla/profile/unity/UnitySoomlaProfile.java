@@ -1,8 +1,6 @@
 package com.soomla.profile.unity;
 
 import android.app.Activity;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.util.Base64;
 
 import com.soomla.Soomla;
@@ -17,156 +15,875 @@ import com.soomla.profile.exceptions.ProviderNotFoundException;
 import com.soomla.profile.exceptions.UserProfileNotFoundException;
 
 import com.unity3d.player.UnityPlayer;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.File;
+import java.nio.ByteBuffer;
 import java.security.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 import static com.soomla.profile.domain.IProvider.Provider;
 
 public class UnitySoomlaProfile {
 
     public static void initialize(Activity activity, String customParamsJson) throws JSONException {
-        SoomlaUtils.LogDebug(TAG, "Initializing SoomlaProfile from bridge");
-        JSONObject customParamsJsonObj = new JSONObject(customParamsJson);
-        SoomlaProfile.getInstance().initialize(activity, parseProviderParams(customParamsJsonObj));
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "initialize", null, customParamsJson);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            SoomlaUtils.LogDebug(TAG, "Initializing SoomlaProfile from bridge");
+            JSONObject customParamsJsonObj = new JSONObject(customParamsJson);
+            ProfileInitializer.getInstance().initialize(activity, parseProviderParams(customParamsJsonObj));
+        } finally {
+            ProfileMetrics.end(M_INITIALIZE, started);
+        }
+    }
+
+    /**
+     * Same as {@link #initialize}, with the eager providers' classes loaded in parallel first. Blocks until
+     * they're loaded and <code>SoomlaProfile</code> is initialized on the calling thread, only their stored
+     * profiles are read in the background: see <code>ProfileInitializer</code>.
+     *
+     * @param lazyProvidersJson JSON array of the providers that aren't needed at launch
+     */
+    public static void initializeParallel(Activity activity, String customParamsJson, String lazyProvidersJson) throws JSONException {
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "initializeParallel", null, customParamsJson, lazyProvidersJson);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            SoomlaUtils.LogDebug(TAG, "Initializing SoomlaProfile in parallel from bridge");
+            JSONObject customParamsJsonObj = new JSONObject(customParamsJson);
+            List<Provider> lazyProviders = new ArrayList<Provider>();
+            if (lazyProvidersJson != null && lazyProvidersJson.length() > 0) {
+                JSONArray lazyProvidersArray = new JSONArray(lazyProvidersJson);
+                for (int i = 0; i < lazyProvidersArray.length(); i++) {
+                    lazyProviders.add(Provider.getEnum(lazyProvidersArray.getString(i)));
+                }
+            }
+            ProfileInitializer.getInstance().initializeParallel(activity, parseProviderParams(customParamsJsonObj), lazyProviders);
+        } finally {
+            ProfileMetrics.end(M_INITIALIZE, started);
+        }
+    }
+
+    public static String getInitializationTimings() {
+        return ProfileInitializer.getInstance().getTimings();
     }
 
     public static void login(Activity activity, String providerStr, String payload) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        SoomlaProfile.getInstance().login(activity, provider, payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "login", null, providerStr, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            SoomlaProfile.getInstance().login(activity, provider, payload, null);
+        } finally {
+            ProfileMetrics.end(M_LOGIN, started);
+        }
     }
 
     public static void logout(String providerStr) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        SoomlaProfile.getInstance().logout(provider);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "logout", providerStr);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            SoomlaProfile.getInstance().logout(provider);
+        } finally {
+            ProfileMetrics.end(M_LOGOUT, started);
+        }
     }
 
     public static boolean isLoggedIn(Activity activity, String providerStr) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        return SoomlaProfile.getInstance().isLoggedIn(activity, provider);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "isLoggedIn", null, providerStr);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            return LoginStateCache.getInstance().isLoggedIn(activity, provider);
+        } finally {
+            ProfileMetrics.end(M_IS_LOGGED_IN, started);
+        }
     }
 
     public static void updateStatus(String providerStr, String status, String payload,
                                     boolean showConfirmation, String customMessage) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        if (!showConfirmation) {
-            SoomlaProfile.getInstance().updateStatus(provider, status, payload, null);
-        } else {
-            SoomlaProfile.getInstance().updateStatusWithConfirmation(provider, status, payload, null,
-                    UnityPlayer.currentActivity, customMessage);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "updateStatus", providerStr, status, payload, showConfirmation, customMessage);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            if (!showConfirmation) {
+                ProfileActionJournal.getInstance().updateStatus(provider, status, payload);
+            } else {
+                SoomlaProfile.getInstance().updateStatusWithConfirmation(provider, status, payload, null,
+                        UnityPlayer.currentActivity, customMessage);
+            }
+        } finally {
+            ProfileMetrics.end(M_UPDATE_STATUS, started);
         }
     }
 
     public static void updateStatusDialog(String providerStr, String link, String payload) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        SoomlaProfile.getInstance().updateStatusDialog(provider, link, payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "updateStatusDialog", providerStr, link, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            SoomlaProfile.getInstance().updateStatusDialog(provider, link, payload, null);
+        } finally {
+            ProfileMetrics.end(M_UPDATE_STATUS_DIALOG, started);
+        }
     }
 
     public static void updateStory(String providerStr, String message, String name,
                                    String caption, String description, String link,
                                    String pictureUrl, String payload,
                                    boolean showConfirmation, String customMessage) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        if (!showConfirmation) {
-            SoomlaProfile.getInstance().updateStory(provider, message, name, caption, description,
-                    link, pictureUrl, payload, null);
-        } else {
-            SoomlaProfile.getInstance().updateStoryWithConfirmation(provider, message, name, caption, description,
-                    link, pictureUrl, payload, null, UnityPlayer.currentActivity, customMessage);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "updateStory", providerStr, message, name, caption, description, link, pictureUrl, payload, showConfirmation, customMessage);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            if (!showConfirmation) {
+                ProfileActionJournal.getInstance().updateStory(provider, message, name, caption, description,
+                        link, pictureUrl, payload);
+            } else {
+                SoomlaProfile.getInstance().updateStoryWithConfirmation(provider, message, name, caption, description,
+                        link, pictureUrl, payload, null, UnityPlayer.currentActivity, customMessage);
+            }
+        } finally {
+            ProfileMetrics.end(M_UPDATE_STORY, started);
         }
     }
 
     public static void updateStoryDialog(String providerStr, String name,
                                          String caption, String description, String link,
                                          String picture, String payload) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        SoomlaProfile.getInstance().updateStoryDialog(provider, name, caption, description, link, picture, payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "updateStoryDialog", providerStr, name, caption, description, link, picture, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            SoomlaProfile.getInstance().updateStoryDialog(provider, name, caption, description, link, picture, payload, null);
+        } finally {
+            ProfileMetrics.end(M_UPDATE_STORY_DIALOG, started);
+        }
     }
 
     public static void uploadImage(String providerStr, String message, String filePath, String payload) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        SoomlaProfile.getInstance().uploadImage(provider, message, filePath, payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "uploadImage", providerStr, message, filePath, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            ProfileActionJournal.getInstance().uploadImage(provider, message, filePath, payload);
+        } finally {
+            ProfileMetrics.end(M_UPLOAD_IMAGE, started);
+        }
     }
 
     public static void uploadImage(String providerStr, String message, String fileName, String imageBase64Str,
                                    int jpegQuality, String payload,
                                    boolean showConfirmation, String customMessage) throws ProviderNotFoundException{
-        Provider provider = Provider.getEnum(providerStr);
-        byte[] decodedString = Base64.decode(imageBase64Str, Base64.DEFAULT);
-        Bitmap imageBitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-        if (!showConfirmation) {
-            SoomlaProfile.getInstance().uploadImage(provider, message, fileName, imageBitmap, jpegQuality, payload, null);
-        } else {
-            SoomlaProfile.getInstance().uploadImageWithConfirmation(provider, message, fileName, imageBitmap, jpegQuality, payload, null,
-                    UnityPlayer.currentActivity, customMessage);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "uploadImage", providerStr, message, fileName, null, jpegQuality, payload, showConfirmation, customMessage);
+        }
+        long metricsBytes = imageBase64Str.length();
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            byte[] decodedString = Base64.decode(imageBase64Str, Base64.DEFAULT);
+            ProfileImageCodec.getInstance().upload(provider, message, fileName,
+                    ProfileImageDecoder.fromBuffer(ByteBuffer.wrap(decodedString), fileName),
+                    jpegQuality, payload, showConfirmation, customMessage);
+        } finally {
+            ProfileMetrics.end(M_UPLOAD_IMAGE_BASE64, started, metricsBytes);
+        }
+    }
+
+    /**
+     * Allocates a direct buffer for Unity to copy encoded image bytes into,
+     * to be passed to {@link #uploadImageFromBuffer}.
+     */
+    public static ByteBuffer allocateImageBuffer(int size) {
+        return ByteBuffer.allocateDirect(size);
+    }
+
+    public static void uploadImageFromBuffer(String providerStr, String message, String fileName, ByteBuffer imageBuffer,
+                                             int jpegQuality, String payload,
+                                             boolean showConfirmation, String customMessage) throws ProviderNotFoundException {
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "uploadImageFromBuffer", providerStr, message, fileName, null, jpegQuality, payload, showConfirmation, customMessage);
+        }
+        long metricsBytes = imageBuffer.remaining();
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            ProfileImageCodec.getInstance().upload(provider, message, fileName,
+                    ProfileImageDecoder.fromBuffer(imageBuffer, fileName),
+                    jpegQuality, payload, showConfirmation, customMessage);
+        } finally {
+            ProfileMetrics.end(M_UPLOAD_IMAGE_FROM_BUFFER, started, metricsBytes);
+        }
+    }
 
+    public static void uploadImageFromFile(String providerStr, String message, String filePath, long offset, long length,
+                                           int jpegQuality, String payload,
+                                           boolean showConfirmation, String customMessage) throws ProviderNotFoundException {
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "uploadImageFromFile", providerStr, message, filePath, offset, length, jpegQuality, payload, showConfirmation, customMessage);
+        }
+        long metricsBytes = length;
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            ProfileImageCodec.getInstance().upload(provider, message, new File(filePath).getName(),
+                    ProfileImageDecoder.fromFile(filePath, offset, length),
+                    jpegQuality, payload, showConfirmation, customMessage);
+        } finally {
+            ProfileMetrics.end(M_UPLOAD_IMAGE_FROM_FILE, started, metricsBytes);
         }
     }
 
+    public static void setImageMaxDimension(int maxDimension) {
+        ProfileImageDecoder.setMaxDimension(maxDimension);
+    }
+
+    public static void setImageMemoryBudget(int memoryBudget) {
+        ProfileImageCodec.getInstance().setMemoryBudget(memoryBudget);
+    }
+
     public static void getContacts(String providerStr, boolean fromStart, String payload) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "getContacts", providerStr, fromStart, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            getContacts(useProvider(providerStr), fromStart, payload);
+        } finally {
+            ProfileMetrics.end(M_GET_CONTACTS, started);
+        }
+    }
+
+    private static void getContacts(Provider provider, boolean fromStart, String payload) throws ProviderNotFoundException {
+        if (ProfileContactsCache.getInstance().isEnabled()) {
+            ProfileContactsCache.getInstance().getContacts(provider, fromStart, payload);
+            return;
+        }
         SoomlaProfile.getInstance().getContacts(provider, fromStart, payload, null);
     }
 
+    public static void setLoginStateCache(boolean enabled, long ttlMs) {
+        LoginStateCache.getInstance().setEnabled(enabled, ttlMs);
+    }
+
+    public static void setContactsCacheEnabled(boolean enabled) {
+        ProfileContactsCache.getInstance().setEnabled(enabled);
+    }
+
+    public static void configureContactsCache(int maxContacts, long ttlMs) {
+        ProfileContactsCache.getInstance().configure(maxContacts, ttlMs);
+    }
+
+    public static void invalidateContactsCache(String providerStr) throws ProviderNotFoundException {
+        if (providerStr == null || providerStr.length() == 0) {
+            ProfileContactsCache.getInstance().invalidateAll();
+        } else {
+            ProfileContactsCache.getInstance().invalidate(useProvider(providerStr));
+        }
+    }
+
+    public static String getContactsCacheStats() {
+        return ProfileContactsCache.getInstance().getStats();
+    }
+
+    public static void setContactsStore(boolean enabled) {
+        ProfileContactsStore.getInstance().setEnabled(enabled);
+    }
+
+    public static String searchContacts(String providerStr, String prefix, int offset, int limit) {
+        long started = ProfileMetrics.start();
+        try {
+            return ProfileContactsStore.getInstance().search(Provider.getEnum(providerStr), prefix, offset, limit);
+        } finally {
+            ProfileMetrics.end(M_SEARCH_CONTACTS, started);
+        }
+    }
+
+    public static String getContact(String providerStr, String profileId) {
+        long started = ProfileMetrics.start();
+        try {
+            return ProfileContactsStore.getInstance().get(Provider.getEnum(providerStr), profileId);
+        } finally {
+            ProfileMetrics.end(M_GET_CONTACT, started);
+        }
+    }
+
+    public static int getStoredContactsCount(String providerStr) {
+        long started = ProfileMetrics.start();
+        try {
+            return ProfileContactsStore.getInstance().size(Provider.getEnum(providerStr));
+        } finally {
+            ProfileMetrics.end(M_GET_STORED_CONTACTS_COUNT, started);
+        }
+    }
+
     public static void getFeed(String providerStr, boolean fromStart, String payload) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        SoomlaProfile.getInstance().getFeed(provider, fromStart, payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "getFeed", providerStr, fromStart, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            SoomlaProfile.getInstance().getFeed(provider, fromStart, payload, null);
+        } finally {
+            ProfileMetrics.end(M_GET_FEED, started);
+        }
     }
 
     public static void invite(String providerStr, String inviteMessage, String dialogTitle, String payload) throws ProviderNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        SoomlaProfile.getInstance().invite(UnityPlayer.currentActivity, provider, inviteMessage, dialogTitle, payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "invite", providerStr, inviteMessage, dialogTitle, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            SoomlaProfile.getInstance().invite(UnityPlayer.currentActivity, provider, inviteMessage, dialogTitle, payload, null);
+        } finally {
+            ProfileMetrics.end(M_INVITE, started);
+        }
     }
 
     public static String getStoredUserProfile(String providerStr) throws ProviderNotFoundException, UserProfileNotFoundException {
-        Provider provider = Provider.getEnum(providerStr);
-        UserProfile userProfile = SoomlaProfile.getInstance().getStoredUserProfile(provider);
-        return userProfile == null ? null : userProfile.toJSONObject().toString();
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "getStoredUserProfile", providerStr);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            return StoredUserProfileCache.getInstance().get(provider);
+        } finally {
+            ProfileMetrics.end(M_GET_STORED_USER_PROFILE, started);
+        }
     }
 
     public static void storeUserProfile(String userJSON)
             throws ProviderNotFoundException, JSONException {
-        JSONObject jsonObject = new JSONObject(userJSON);
-        final UserProfile userProfile = new UserProfile(jsonObject);
-
-        UserProfileStorage.setUserProfile(userProfile);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "storeUserProfile", userJSON);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            JSONObject jsonObject = new JSONObject(userJSON);
+            final UserProfile userProfile = new UserProfile(jsonObject);
+
+            UserProfileStorage.setUserProfile(userProfile);
+            StoredUserProfileCache.getInstance().invalidate(userProfile.getProvider());
+        } finally {
+            ProfileMetrics.end(M_STORE_USER_PROFILE, started);
+        }
     }
 
     public static void removeUserProfile(String userJSON)
             throws ProviderNotFoundException, JSONException {
-        JSONObject jsonObject = new JSONObject(userJSON);
-        final UserProfile userProfile = new UserProfile(jsonObject);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "removeUserProfile", userJSON);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            JSONObject jsonObject = new JSONObject(userJSON);
+            final UserProfile userProfile = new UserProfile(jsonObject);
+
+            UserProfileStorage.removeUserProfile(userProfile);
+            StoredUserProfileCache.getInstance().invalidate(userProfile.getProvider());
+        } finally {
+            ProfileMetrics.end(M_REMOVE_USER_PROFILE, started);
+        }
+    }
+
+    /**
+     * Reads the stored profile and login state of every initialized provider in one call.
+     *
+     * @param sinceVersion a <code>version</code> from an earlier snapshot to only get the providers
+     * that changed since, <code>0</code> for all of them
+     * @return <code>{"version":..., "full":..., "providers":{"facebook":{"loggedIn":..., "userProfile":...}, ...}}</code>,
+     * <code>full</code> is <code>false</code> when only changed providers are listed and
+     * <code>userProfile</code> is <code>null</code> for providers without a stored profile
+     */
+    public static String getProfileSnapshot(int sinceVersion) {
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "getProfileSnapshot", sinceVersion);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            ProfileInitializer.getInstance().awaitSdk();
+            StoredUserProfileCache cache = StoredUserProfileCache.getInstance();
+            // login state is read first, so a provider whose state flipped is in this delta
+            Map<Provider, Boolean> loggedIn = new HashMap<Provider, Boolean>();
+            for (Provider provider : Provider.values()) {
+                try {
+                    boolean state = LoginStateCache.getInstance().isLoggedIn(UnityPlayer.currentActivity, provider);
+                    cache.noteLoginState(provider, state);
+                    loggedIn.put(provider, state);
+                } catch (ProviderNotFoundException e) {
+                    // not initialized, nothing to report
+                }
+            }
+            // taken before reading, so whatever changes meanwhile is in the next delta
+            int version = cache.getVersion();
+            List<Provider> providers = cache.changedSince(sinceVersion);
+            boolean full = providers == null;
+            if (full) {
+                providers = Arrays.asList(Provider.values());
+            }
 
-        UserProfileStorage.removeUserProfile(userProfile);
+            Map<Provider, String> userProfiles = cache.getAll(providers);
+            ProfileEventWriter writer = ProfileEventWriter.obtain();
+            writer.beginObject()
+                    .field("version", version)
+                    .field("full", full)
+                    .name("providers").beginObject();
+            for (Map.Entry<Provider, String> entry : userProfiles.entrySet()) {
+                Boolean state = loggedIn.get(entry.getKey());
+                if (state == null) {
+                    continue;
+                }
+                writer.name(entry.getKey().toString()).beginObject()
+                        .field("loggedIn", state.booleanValue())
+                        .name("userProfile").rawValue(entry.getValue())
+                        .endObject();
+            }
+            writer.endObject().endObject();
+            return writer.toString();
+        } finally {
+            ProfileMetrics.end(M_GET_PROFILE_SNAPSHOT, started);
+        }
     }
 
     public static void openAppRatingPage(Activity activity) {
-        SoomlaProfile.getInstance().openAppRatingPage(activity.getApplicationContext());
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "openAppRatingPage", (Object) null);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            ProfileInitializer.getInstance().awaitSdk();
+            SoomlaProfile.getInstance().openAppRatingPage(activity.getApplicationContext());
+        } finally {
+            ProfileMetrics.end(M_OPEN_APP_RATING_PAGE, started);
+        }
     }
 
     public static void multiShare(String text, String imageFilePath) {
-        SoomlaProfile.getInstance().multiShare(text, imageFilePath);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "multiShare", text, imageFilePath);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            ProfileInitializer.getInstance().awaitSdk();
+            SoomlaProfile.getInstance().multiShare(text, imageFilePath);
+        } finally {
+            ProfileMetrics.end(M_MULTI_SHARE, started);
+        }
     }
 
     public static void getLeaderboards(String providerStr, String payload) throws ProviderNotFoundException {
-        SoomlaProfile.getInstance().getLeaderboards(Provider.getEnum(providerStr), payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "getLeaderboards", providerStr, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            SoomlaProfile.getInstance().getLeaderboards(useProvider(providerStr), payload, null);
+        } finally {
+            ProfileMetrics.end(M_GET_LEADERBOARDS, started);
+        }
     }
 
     public static void getScores(String providerStr, String fromJson, boolean fromStart, String payload)
             throws ProviderNotFoundException, JSONException {
-        SoomlaProfile.getInstance().getScores(Provider.getEnum(providerStr), new Leaderboard(new JSONObject(fromJson)), fromStart, payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "getScores", providerStr, fromJson, fromStart, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            SoomlaProfile.getInstance().getScores(useProvider(providerStr), LeaderboardRegistry.getInstance().parse(fromJson), fromStart, payload, null);
+        } finally {
+            ProfileMetrics.end(M_GET_SCORES, started);
+        }
+    }
+
+    /**
+     * Same as {@link #getScores} for a leaderboard returned by <code>getLeaderboards</code> earlier.
+     *
+     * @return <code>false</code> if the leaderboard isn't registered, in which case nothing was done
+     */
+    public static boolean getScoresById(String providerStr, String leaderboardId, boolean fromStart, String payload)
+            throws ProviderNotFoundException {
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "getScoresById", providerStr, leaderboardId, fromStart, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            return getScoresById(useProvider(providerStr), leaderboardId, fromStart, payload);
+        } finally {
+            ProfileMetrics.end(M_GET_SCORES_BY_ID, started);
+        }
+    }
+
+    private static boolean getScoresById(Provider provider, String leaderboardId, boolean fromStart, String payload)
+            throws ProviderNotFoundException {
+        Leaderboard leaderboard = LeaderboardRegistry.getInstance().get(provider, leaderboardId);
+        if (leaderboard == null) {
+            return false;
+        }
+        SoomlaProfile.getInstance().getScores(provider, leaderboard, fromStart, payload, null);
+        return true;
     }
 
     public static void submitScore(String providerStr, String toJson, long score, String payload)
             throws ProviderNotFoundException, JSONException {
-        SoomlaProfile.getInstance().submitScore(Provider.getEnum(providerStr), new Leaderboard(new JSONObject(toJson)), score, payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "submitScore", providerStr, toJson, score, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(providerStr);
+            Leaderboard leaderboard = LeaderboardRegistry.getInstance().parse(toJson);
+            if (ScoreSubmissionQueue.getInstance().enqueue(provider, leaderboard, score, payload)) {
+                return;
+            }
+            ProfileActionJournal.getInstance().submitScore(provider, leaderboard, score, payload);
+        } finally {
+            ProfileMetrics.end(M_SUBMIT_SCORE, started);
+        }
+    }
+
+    /**
+     * Same as {@link #submitScore} for a leaderboard returned by <code>getLeaderboards</code> earlier.
+     *
+     * @return <code>false</code> if the leaderboard isn't registered, in which case nothing was done
+     */
+    public static boolean submitScoreById(String providerStr, String leaderboardId, long score, String payload)
+            throws ProviderNotFoundException {
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "submitScoreById", providerStr, leaderboardId, score, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            return submitScoreById(useProvider(providerStr), leaderboardId, score, payload);
+        } finally {
+            ProfileMetrics.end(M_SUBMIT_SCORE_BY_ID, started);
+        }
+    }
+
+    private static boolean submitScoreById(Provider provider, String leaderboardId, long score, String payload)
+            throws ProviderNotFoundException {
+        Leaderboard leaderboard = LeaderboardRegistry.getInstance().get(provider, leaderboardId);
+        if (leaderboard == null) {
+            return false;
+        }
+        if (!ScoreSubmissionQueue.getInstance().enqueue(provider, leaderboard, score, payload)) {
+            ProfileActionJournal.getInstance().submitScore(provider, leaderboard, score, payload);
+        }
+        return true;
+    }
+
+    /**
+     * Compact entry point for the most frequent calls, taking the provider as its int code
+     * instead of its name. Arguments an operation doesn't use are ignored.
+     *
+     * @param opcode one of the <code>ProfileBridgeCodes.OP_*</code> codes
+     * @param providerCode the provider's value, as returned by <code>Provider.toInt()</code> in Unity
+     * @param fromStart whether paged operations should start over
+     * @param score the score for <code>OP_SUBMIT_SCORE_BY_ID</code>
+     * @param arg the status for <code>OP_UPDATE_STATUS</code>, the leaderboard ID for leaderboard operations
+     * @return <code>RESULT_TRUE</code> or <code>RESULT_FALSE</code> for operations with a result
+     * (the same as their string-based counterparts), <code>RESULT_TRUE</code> otherwise
+     */
+    public static int dispatch(int opcode, int providerCode, boolean fromStart, long score, String arg, String payload)
+            throws ProviderNotFoundException {
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "dispatch", opcode, providerCode, fromStart, score, arg, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            Provider provider = useProvider(ProfileBridgeCodes.provider(providerCode));
+            boolean result = true;
+            switch (opcode) {
+                case ProfileBridgeCodes.OP_LOGIN:
+                    SoomlaProfile.getInstance().login(UnityPlayer.currentActivity, provider, payload, null);
+                    break;
+                case ProfileBridgeCodes.OP_LOGOUT:
+                    SoomlaProfile.getInstance().logout(provider);
+                    break;
+                case ProfileBridgeCodes.OP_IS_LOGGED_IN:
+                    result = LoginStateCache.getInstance().isLoggedIn(UnityPlayer.currentActivity, provider);
+                    break;
+                case ProfileBridgeCodes.OP_UPDATE_STATUS:
+                    ProfileActionJournal.getInstance().updateStatus(provider, arg, payload);
+                    break;
+                case ProfileBridgeCodes.OP_GET_CONTACTS:
+                    getContacts(provider, fromStart, payload);
+                    break;
+                case ProfileBridgeCodes.OP_GET_FEED:
+                    SoomlaProfile.getInstance().getFeed(provider, fromStart, payload, null);
+                    break;
+                case ProfileBridgeCodes.OP_GET_LEADERBOARDS:
+                    SoomlaProfile.getInstance().getLeaderboards(provider, payload, null);
+                    break;
+                case ProfileBridgeCodes.OP_GET_SCORES_BY_ID:
+                    result = getScoresById(provider, arg, fromStart, payload);
+                    break;
+                case ProfileBridgeCodes.OP_SUBMIT_SCORE_BY_ID:
+                    result = submitScoreById(provider, arg, score, payload);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown opcode: " + opcode);
+            }
+            return result ? ProfileBridgeCodes.RESULT_TRUE : ProfileBridgeCodes.RESULT_FALSE;
+        } finally {
+            ProfileMetrics.end(M_DISPATCH, started);
+        }
+    }
+
+    /**
+     * Runs several compact commands in one call, in the order given. Command <code>i</code> is
+     * made of the <code>i</code>th element of every array; a command failing doesn't stop the
+     * ones after it. Every command is recorded and measured as its single call.
+     *
+     * @param opcodes one of the <code>ProfileBridgeCodes.OP_*</code> codes per command
+     * @param providerCodes the providers' values, as returned by <code>Provider.toInt()</code> in Unity
+     * @param flags <code>fromStart</code> (<code>1</code> or <code>0</code>) for {@link #dispatch}'s
+     * operations, the <code>ProfileBridgeCodes.EVENT_*</code> code for <code>OP_PUSH_*</code>
+     * @param numbers the score for <code>OP_SUBMIT_SCORE_BY_ID</code>, the social action type's code
+     * for <code>OP_PUSH_SOCIAL_ACTION</code>, <code>autoLogin</code> (<code>1</code> or <code>0</code>)
+     * for <code>OP_PUSH_LOGIN</code>
+     * @param args {@link #dispatch}'s <code>arg</code>, the message of failure events, the user
+     * profile's JSON for <code>OP_PUSH_LOGIN</code>'s finished event
+     * @return per command, <code>RESULT_TRUE</code> or <code>RESULT_FALSE</code> like {@link #dispatch},
+     * or <code>RESULT_ERROR</code> if it threw
+     */
+    public static int[] executeBatch(int[] opcodes, int[] providerCodes, int[] flags, long[] numbers,
+                                     String[] args, String[] payloads) {
+        int count = opcodes.length;
+        if (providerCodes.length != count || flags.length != count || numbers.length != count
+                || args.length != count || payloads.length != count) {
+            throw new IllegalArgumentException("Batch arrays differ in length");
+        }
+        long started = ProfileMetrics.start();
+        try {
+            int[] results = new int[count];
+            for (int i = 0; i < count; i++) {
+                try {
+                    results[i] = execute(opcodes[i], providerCodes[i], flags[i], numbers[i], args[i], payloads[i]);
+                } catch (Exception e) {
+                    SoomlaUtils.LogError(TAG, "Batch command " + i + " (opcode " + opcodes[i] + ") failed: " + e.getMessage());
+                    results[i] = ProfileBridgeCodes.RESULT_ERROR;
+                }
+            }
+            return results;
+        } finally {
+            ProfileMetrics.end(M_EXECUTE_BATCH, started);
+        }
+    }
+
+    private static int execute(int opcode, int providerCode, int flag, long number, String arg, String payload)
+            throws Exception {
+        switch (opcode) {
+            case ProfileBridgeCodes.OP_PUSH_SOCIAL_ACTION:
+                ProfileEventHandler.pushEventSocialAction(flag, providerCode, (int) number, arg, payload);
+                return ProfileBridgeCodes.RESULT_TRUE;
+            case ProfileBridgeCodes.OP_PUSH_LOGIN:
+                pushEventLogin(flag, ProfileBridgeCodes.provider(providerCode), number != 0, arg, payload);
+                return ProfileBridgeCodes.RESULT_TRUE;
+            case ProfileBridgeCodes.OP_PUSH_LOGOUT:
+                pushEventLogout(flag, ProfileBridgeCodes.provider(providerCode), arg);
+                return ProfileBridgeCodes.RESULT_TRUE;
+            default:
+                return dispatch(opcode, providerCode, flag != 0, number, arg, payload);
+        }
+    }
+
+    private static void pushEventLogin(int eventCode, Provider provider, boolean autoLogin, String arg, String payload)
+            throws Exception {
+        switch (eventCode) {
+            case ProfileBridgeCodes.EVENT_STARTED:
+                ProfileEventHandler.pushEventLoginStarted(provider.toString(), autoLogin, payload);
+                break;
+            case ProfileBridgeCodes.EVENT_FINISHED:
+                ProfileEventHandler.pushEventLoginFinished(arg, autoLogin, payload);
+                break;
+            case ProfileBridgeCodes.EVENT_CANCELLED:
+                ProfileEventHandler.pushEventLoginCancelled(provider.toString(), autoLogin, payload);
+                break;
+            case ProfileBridgeCodes.EVENT_FAILED:
+                ProfileEventHandler.pushEventLoginFailed(provider.toString(), arg, autoLogin, payload);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown event code: " + eventCode);
+        }
+    }
+
+    private static void pushEventLogout(int eventCode, Provider provider, String message) throws Exception {
+        switch (eventCode) {
+            case ProfileBridgeCodes.EVENT_STARTED:
+                ProfileEventHandler.pushEventLogoutStarted(provider.toString());
+                break;
+            case ProfileBridgeCodes.EVENT_FINISHED:
+                ProfileEventHandler.pushEventLogoutFinished(provider.toString());
+                break;
+            case ProfileBridgeCodes.EVENT_FAILED:
+                ProfileEventHandler.pushEventLogoutFailed(provider.toString(), message);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown event code: " + eventCode);
+        }
+    }
+
+    public static void setScoreQueue(boolean enabled, int flushIntervalMs, boolean lowerIsBetter) {
+        ScoreSubmissionQueue.getInstance().setEnabled(enabled, flushIntervalMs, lowerIsBetter);
+    }
+
+    public static void flushScoreQueue() {
+        ScoreSubmissionQueue.getInstance().flush();
+    }
+
+    public static void setScoreDeltas(boolean enabled) {
+        ScoreDeltaTracker.getInstance().setEnabled(enabled);
+    }
+
+    public static String resyncScores(String providerStr, String leaderboardId, int page) {
+        long started = ProfileMetrics.start();
+        try {
+            return ScoreDeltaTracker.getInstance().resync(Provider.getEnum(providerStr), leaderboardId, page);
+        } finally {
+            ProfileMetrics.end(M_RESYNC_SCORES, started);
+        }
+    }
+
+    public static void setActionJournal(boolean enabled, int commitIntervalMs) {
+        ProfileActionJournal.getInstance().setEnabled(enabled, commitIntervalMs);
+    }
+
+    public static void setActionJournalRetryPolicy(int maxAttempts, long baseBackoffMs) {
+        ProfileActionJournal.getInstance().setRetryPolicy(maxAttempts, baseBackoffMs);
     }
 
     public static void showLeaderboards(String providerStr, Activity activity, String payload) throws ProviderNotFoundException {
-        SoomlaProfile.getInstance().showLeaderboards(Provider.getEnum(providerStr), activity, payload, null);
+        if (ProfileTraceRecorder.isRecording()) {
+            ProfileTraceRecorder.call(ProfileTraceRecorder.TARGET_BRIDGE, "showLeaderboards", providerStr, null, payload);
+        }
+        long started = ProfileMetrics.start();
+        try {
+            SoomlaProfile.getInstance().showLeaderboards(useProvider(providerStr), activity, payload, null);
+        } finally {
+            ProfileMetrics.end(M_SHOW_LEADERBOARDS, started);
+        }
+    }
+
+    public static void setMetricsEnabled(boolean enabled, int dumpIntervalMs) {
+        ProfileMetrics.setEnabled(enabled, dumpIntervalMs);
+    }
+
+    public static String getMetricsSnapshot() {
+        return ProfileMetrics.snapshot();
+    }
+
+    public static void resetMetrics() {
+        ProfileMetrics.reset();
+    }
+
+    public static void setChunkedResults(int chunkSize) {
+        ProfileEventHandler.setChunkSize(chunkSize);
+    }
+
+    public static void setEventSubscriptions(long eventMask, int providerMask) {
+        ProfileEventHandler.setSubscriptions(eventMask, providerMask);
+    }
+
+    public static void setEventSink(ProfileEventSink sink) {
+        ProfileEventHandler.setEventSink(sink);
+    }
+
+    /**
+     * @param mode one of the <code>ProfileEventDispatcher.MODE_*</code> constants
+     */
+    public static void setEventDispatchMode(int mode) {
+        ProfileEventDispatcher.getInstance().setMode(mode);
+    }
+
+    public static void setEventBatching(boolean enabled, int flushIntervalMs) {
+        ProfileEventBatcher.getInstance().setEnabled(enabled, flushIntervalMs);
+    }
+
+    public static void flushEventBatch() {
+        ProfileEventBatcher.getInstance().flush();
+    }
+
+    public static void setStreamingSerialization(boolean enabled) {
+        ProfileEventWriter.setEnabled(enabled);
+    }
+
+    public static void setBackgroundSerialization(boolean enabled) {
+        ProfileSerializationStage.getInstance().setEnabled(enabled);
+    }
+
+    public static void flushBackgroundSerialization() {
+        ProfileSerializationStage.getInstance().flush();
+    }
+
+    public static int getSerializationQueueDepth() {
+        return ProfileSerializationStage.getInstance().getQueueDepth();
+    }
+
+    public static ByteBuffer openEventRingBuffer(int capacity) {
+        return ProfileEventRingBuffer.open(capacity).getBuffer();
+    }
+
+    public static String[] closeEventRingBuffer() {
+        return ProfileEventRingBuffer.close();
+    }
+
+    public static String[] pollEventRingOverflow() {
+        ProfileEventRingBuffer ring = ProfileEventRingBuffer.getOpen();
+        return ring != null ? ring.pollOverflow() : new String[0];
+    }
+
+    /**
+     * @return the trace's path, or <code>null</code> if it couldn't be created
+     */
+    public static String startTraceRecording(String fileName) {
+        return ProfileTraceRecorder.start(fileName);
+    }
+
+    public static void stopTraceRecording() {
+        ProfileTraceRecorder.stop();
+    }
+
+    private static Provider useProvider(String providerStr) {
+        return useProvider(Provider.getEnum(providerStr));
+    }
+
+    private static Provider useProvider(Provider provider) {
+        ProfileInitializer.getInstance().onProviderUsed(provider);
+        return provider;
     }
 
     /*
@@ -203,4 +920,38 @@ public class UnitySoomlaProfile {
     }
 
     private static String TAG = "SOOMLA UnitySoomlaProfile";
+
+    private static final ProfileMetrics.Metric M_INITIALIZE = ProfileMetrics.metric("bridge.initialize");
+    private static final ProfileMetrics.Metric M_LOGIN = ProfileMetrics.metric("bridge.login");
+    private static final ProfileMetrics.Metric M_LOGOUT = ProfileMetrics.metric("bridge.logout");
+    private static final ProfileMetrics.Metric M_IS_LOGGED_IN = ProfileMetrics.metric("bridge.isLoggedIn");
+    private static final ProfileMetrics.Metric M_UPDATE_STATUS = ProfileMetrics.metric("bridge.updateStatus");
+    private static final ProfileMetrics.Metric M_UPDATE_STORY = ProfileMetrics.metric("bridge.updateStory");
+    private static final ProfileMetrics.Metric M_UPLOAD_IMAGE = ProfileMetrics.metric("bridge.uploadImage");
+    private static final ProfileMetrics.Metric M_UPLOAD_IMAGE_BASE64 = ProfileMetrics.metric("bridge.uploadImageBase64");
+    private static final ProfileMetrics.Metric M_UPLOAD_IMAGE_FROM_BUFFER = ProfileMetrics.metric("bridge.uploadImageFromBuffer");
+    private static final ProfileMetrics.Metric M_UPLOAD_IMAGE_FROM_FILE = ProfileMetrics.metric("bridge.uploadImageFromFile");
+    private static final ProfileMetrics.Metric M_GET_CONTACTS = ProfileMetrics.metric("bridge.getContacts");
+    private static final ProfileMetrics.Metric M_SEARCH_CONTACTS = ProfileMetrics.metric("bridge.searchContacts");
+    private static final ProfileMetrics.Metric M_GET_FEED = ProfileMetrics.metric("bridge.getFeed");
+    private static final ProfileMetrics.Metric M_GET_STORED_USER_PROFILE = ProfileMetrics.metric("bridge.getStoredUserProfile");
+    private static final ProfileMetrics.Metric M_GET_PROFILE_SNAPSHOT = ProfileMetrics.metric("bridge.getProfileSnapshot");
+    private static final ProfileMetrics.Metric M_GET_SCORES = ProfileMetrics.metric("bridge.getScores");
+    private static final ProfileMetrics.Metric M_GET_SCORES_BY_ID = ProfileMetrics.metric("bridge.getScoresById");
+    private static final ProfileMetrics.Metric M_SUBMIT_SCORE = ProfileMetrics.metric("bridge.submitScore");
+    private static final ProfileMetrics.Metric M_SUBMIT_SCORE_BY_ID = ProfileMetrics.metric("bridge.submitScoreById");
+    private static final ProfileMetrics.Metric M_UPDATE_STATUS_DIALOG = ProfileMetrics.metric("bridge.updateStatusDialog");
+    private static final ProfileMetrics.Metric M_UPDATE_STORY_DIALOG = ProfileMetrics.metric("bridge.updateStoryDialog");
+    private static final ProfileMetrics.Metric M_INVITE = ProfileMetrics.metric("bridge.invite");
+    private static final ProfileMetrics.Metric M_STORE_USER_PROFILE = ProfileMetrics.metric("bridge.storeUserProfile");
+    private static final ProfileMetrics.Metric M_REMOVE_USER_PROFILE = ProfileMetrics.metric("bridge.removeUserProfile");
+    private static final ProfileMetrics.Metric M_OPEN_APP_RATING_PAGE = ProfileMetrics.metric("bridge.openAppRatingPage");
+    private static final ProfileMetrics.Metric M_MULTI_SHARE = ProfileMetrics.metric("bridge.multiShare");
+    private static final ProfileMetrics.Metric M_GET_LEADERBOARDS = ProfileMetrics.metric("bridge.getLeaderboards");
+    private static final ProfileMetrics.Metric M_SHOW_LEADERBOARDS = ProfileMetrics.metric("bridge.showLeaderboards");
+    private static final ProfileMetrics.Metric M_GET_CONTACT = ProfileMetrics.metric("bridge.getContact");
+    private static final ProfileMetrics.Metric M_GET_STORED_CONTACTS_COUNT = ProfileMetrics.metric("bridge.getStoredContactsCount");
+    private static final ProfileMetrics.Metric M_RESYNC_SCORES = ProfileMetrics.metric("bridge.resyncScores");
+    private static final ProfileMetrics.Metric M_DISPATCH = ProfileMetrics.metric("bridge.dispatch");
+    private static final ProfileMetrics.Metric M_EXECUTE_BATCH = ProfileMetrics.metric("bridge.executeBatch");
 }